@@ -3,7 +3,7 @@ package org.sarge.jove.common;
 import java.lang.foreign.*;
 import java.util.function.Function;
 
-import org.sarge.jove.foreign.Transformer;
+import org.sarge.jove.foreign.*;
 
 /**
  * A <i>handle</i> is an immutable wrapper for a native memory address.
@@ -48,5 +48,10 @@ public record Handle(MemorySegment address) {
 		public Function<MemorySegment, Handle> unmarshal() {
 			return Handle::new;
 		}
+
+		@Override
+		public AbstractArrayTransformer array() {
+			return new AddressArrayTransformer<>(this);
+		}
 	}
 }
@@ -4,7 +4,7 @@ import java.lang.foreign.*;
 import java.util.Collection;
 import java.util.function.Function;
 
-import org.sarge.jove.foreign.Transformer;
+import org.sarge.jove.foreign.*;
 
 /**
  * A <i>native object</i> is a resource created by the native layer and referenced by a {@link Handle}.
@@ -42,5 +42,10 @@ public interface NativeObject {
 		public Function<MemorySegment, NativeObject> unmarshal() {
 			throw new UnsupportedOperationException();
 		}
+
+		@Override
+		public AbstractArrayTransformer array() {
+			return new AddressArrayTransformer<>(this);
+		}
 	}
 }
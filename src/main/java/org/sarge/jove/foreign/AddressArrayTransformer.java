@@ -0,0 +1,74 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+
+import java.lang.foreign.*;
+import java.util.function.*;
+
+/**
+ * An <i>address array transformer</i> is a specialised implementation for an array of a reference type that is marshalled to a pointer, e.g. a {@link org.sarge.jove.common.Handle}.
+ * <p>
+ * Unlike the {@link DefaultArrayTransformer} the array is accessed directly (rather than reflectively) and addresses are written to off-heap memory in a tight loop.
+ * <p>
+ * @param <T> Component type
+ * @author Sarge
+ */
+public class AddressArrayTransformer<T> extends AbstractArrayTransformer {
+	@SuppressWarnings("rawtypes")
+	private Function unmarshal;
+
+	/**
+	 * Constructor.
+	 * @param component Component transformer
+	 */
+	public AddressArrayTransformer(Transformer<T, MemorySegment> component) {
+		super(component);
+	}
+
+	@Override
+	protected void marshal(Object array, int length, MemorySegment address, SegmentAllocator allocator) {
+		final Object[] elements = (Object[]) array;
+		for(int n = 0; n < length; ++n) {
+			// Skip empty elements
+			final Object element = elements[n];
+			if(element == null) {
+				continue;
+			}
+
+			// Write element address
+			@SuppressWarnings("unchecked")
+			final var result = (MemorySegment) component.marshal(element, allocator);
+			address.setAtIndex(ADDRESS, n, result);
+		}
+	}
+
+	@Override
+	public BiConsumer<MemorySegment, Object> update() {
+		return (address, array) -> update(address, (Object[]) array);
+	}
+
+	/**
+	 * Updates a by-reference array parameter.
+	 * @param address		Off-heap memory
+	 * @param array			Array
+	 */
+	@SuppressWarnings("unchecked")
+	private void update(MemorySegment address, Object[] array) {
+		// Cache unmarshalling function
+		if(unmarshal == null) {
+			unmarshal = component.unmarshal();
+		}
+
+		// Unmarshal array
+		for(int n = 0; n < array.length; ++n) {
+			// Skip empty elements
+			final MemorySegment element = address.getAtIndex(ADDRESS, n);
+			if(MemorySegment.NULL.equals(element)) {
+				continue;
+			}
+
+			// Unmarshal element
+			array[n] = unmarshal.apply(element);
+		}
+	}
+}
@@ -16,10 +16,39 @@ import java.util.function.Function;
 public interface Callback {
 	/**
 	 * Transformer factory for callback methods.
+	 * <p>
+	 * The method handle and function descriptor of each callback type are derived <b>once</b> when the transformer is created.
+	 * <p>
+	 * Upcall stubs are cached by callback instance and type, i.e. re-registering the same callback re-uses the existing stub.
+	 * Each stub is allocated in its own arena.
+	 * <p>
+	 * Stubs are <i>reference counted</i> since the same callback can be registered with several native objects (e.g. a listener shared by multiple windows).
+	 * Every time a callback is marshalled it <b>must</b> be matched by a call to {@link #release(Callback)} by the owner of that registration,
+	 * generally when a listener is replaced or the native object that invokes the callback is destroyed.
+	 * The stubs of a callback are only closed when its last registration is released.
+	 * <p>
+	 * The number of live upcall stubs can be queried via {@link #count()}, e.g. to verify that callbacks are not being leaked.
+	 * <p>
+	 * This class is thread-safe.
 	 */
 	class CallbackTransformerFactory implements Registry.Factory<Callback> {
+		/**
+		 * Upcall stub for a callback.
+		 */
+		private record Stub(Class<?> type, Arena arena, MemorySegment address) {
+		}
+
+		/**
+		 * Registrations of a callback instance.
+		 */
+		private static class Entry {
+			private final List<Stub> stubs = new ArrayList<>(1);
+			private int count;
+		}
+
 		private final Linker linker = Linker.nativeLinker();
 		private final Registry registry;
+		private final Map<Callback, Entry> entries = new IdentityHashMap<>();
 
 		/**
 		 * Constructor.
@@ -36,12 +65,14 @@ public interface Callback {
 		 */
 		@Override
 		public Transformer<Callback, MemorySegment> transformer(Class<? extends Callback> type) {
-			return new Transformer<>() {
-				private final Method method = method(type);
+			final Method method = method(type);
+			final MethodHandle handle = handle(method);
+			final FunctionDescriptor descriptor = descriptor(method);
 
+			return new Transformer<>() {
 				@Override
 				public MemorySegment marshal(Callback callback, SegmentAllocator allocator) {
-					return upcall(method, callback);
+					return upcall(type, handle, descriptor, callback);
 				}
 
 				@Override
@@ -84,17 +115,12 @@ public interface Callback {
 		 */
 
 		/**
-		 * Builds the upcall stub for the given callback method.
-		 * @param method		Callback method
-		 * @param instance		Callback instance
-		 * @return Upcall stub
+		 * Derives the function descriptor for the given callback method.
+		 * @param method Callback method
+		 * @return Function descriptor
 		 * @throws IllegalArgumentException for an unsupported callback parameter
 		 */
-		@SuppressWarnings("resource")
-		private MemorySegment upcall(Method method, Callback instance) {
-			// Bind callback method
-			final MethodHandle handle = handle(method).bindTo(instance);
-
+		private static FunctionDescriptor descriptor(Method method) {
 			// Map return type
 			final Mapper mapper = new Mapper(); // TODO - integrate with registry
 			final Class<?> returnType = method.getReturnType();
@@ -107,10 +133,82 @@ public interface Callback {
 					.toArray(MemoryLayout[]::new);
 
 			// Derive function descriptor
-			final FunctionDescriptor descriptor = returns == null ? FunctionDescriptor.ofVoid(parameters) : FunctionDescriptor.of(returns, parameters);
+			return returns == null ? FunctionDescriptor.ofVoid(parameters) : FunctionDescriptor.of(returns, parameters);
+		}
+
+		/**
+		 * Registers the given callback and looks up or creates its upcall stub.
+		 * @param type			Callback type
+		 * @param handle		Unbound callback method
+		 * @param descriptor	Function descriptor
+		 * @param instance		Callback instance
+		 * @return Upcall stub
+		 */
+		private synchronized MemorySegment upcall(Class<?> type, MethodHandle handle, FunctionDescriptor descriptor, Callback instance) {
+			// Register callback
+			final Entry entry = entries.computeIfAbsent(instance, _ -> new Entry());
+			++entry.count;
+
+			// Check for an existing stub
+			for(Stub stub : entry.stubs) {
+				if(stub.type == type) {
+					return stub.address;
+				}
+			}
 
-			// Link callback stub
-			return linker.upcallStub(handle, descriptor, Arena.global());
+			// Otherwise link a new callback stub
+			final Arena arena = Arena.ofShared();
+			final MemorySegment address = linker.upcallStub(handle.bindTo(instance), descriptor, arena);
+			entry.stubs.add(new Stub(type, arena, address));
+
+			return address;
+		}
+
+		/**
+		 * @return Number of live upcall stubs
+		 */
+		public synchronized int count() {
+			return entries
+					.values()
+					.stream()
+					.mapToInt(entry -> entry.stubs.size())
+					.sum();
+		}
+
+		/**
+		 * Releases a registration of the given callback.
+		 * The upcall stub(s) of the callback are closed when the last registration is released, at which point the callback <b>must</b> no longer be referenced by native code.
+		 * @param callback Callback to release
+		 */
+		public synchronized void release(Callback callback) {
+			final Entry entry = entries.get(callback);
+			if(entry == null) {
+				return;
+			}
+
+			if(--entry.count == 0) {
+				entries.remove(callback);
+				close(entry);
+			}
+		}
+
+		/**
+		 * Releases <b>all</b> upcall stubs.
+		 */
+		public synchronized void release() {
+			for(Entry entry : entries.values()) {
+				close(entry);
+			}
+			entries.clear();
+		}
+
+		/**
+		 * Closes the upcall stubs of the given callback.
+		 */
+		private static void close(Entry entry) {
+			for(Stub stub : entry.stubs) {
+				stub.arena.close();
+			}
 		}
 
 		/**
@@ -0,0 +1,56 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A <i>compiled structure transformer</i> marshals a native structure using method handles generated by the {@link StructureCompiler}.
+ * @author Sarge
+ */
+class CompiledStructureTransformer extends StructureTransformer {
+	private final MethodHandle marshal;
+	private final MethodHandle unmarshal;
+
+	/**
+	 * Constructor.
+	 * @param factory		Factory for new instances
+	 * @param layout		Structure layout
+	 * @param mappings		Field mappings
+	 * @param compiler		Structure compiler
+	 */
+	CompiledStructureTransformer(Supplier<NativeStructure> factory, GroupLayout layout, List<FieldMapping> mappings, StructureCompiler compiler) {
+		super(factory, layout, mappings);
+		this.marshal = requireNonNull(compiler.marshal(mappings));
+		this.unmarshal = requireNonNull(compiler.unmarshal(mappings));
+	}
+
+	@Override
+	protected void marshal(NativeStructure structure, MemorySegment address, SegmentAllocator allocator) {
+		try {
+			marshal.invokeExact(structure, address, allocator);
+		}
+		catch(RuntimeException e) {
+			throw e;
+		}
+		catch(Throwable e) {
+			throw new RuntimeException("Error marshalling structure: " + structure, e);
+		}
+	}
+
+	@Override
+	protected void unmarshal(MemorySegment address, NativeStructure structure) {
+		try {
+			unmarshal.invokeExact(address, structure);
+		}
+		catch(RuntimeException e) {
+			throw e;
+		}
+		catch(Throwable e) {
+			throw new RuntimeException("Error unmarshalling structure: " + structure, e);
+		}
+	}
+}
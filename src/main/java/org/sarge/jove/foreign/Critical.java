@@ -0,0 +1,28 @@
+package org.sarge.jove.foreign;
+
+import java.lang.annotation.*;
+
+/**
+ * The <i>critical</i> annotation denotes a trivial native method that is linked using {@link java.lang.foreign.Linker.Option#critical(boolean)}.
+ * <p>
+ * A critical method avoids the overhead of the thread state transition of a normal downcall.
+ * The native method <b>must</b> be short-lived, must not block, and must not call back into Java.
+ * Therefore a critical method cannot accept a {@link Callback} parameter.
+ * <p>
+ * Note that a native library may also call back into Java <i>indirectly</i>, e.g. Vulkan validation layers invoke the registered diagnostic handler from within the command that reported the error.
+ * An upcall from a critical method is undefined behaviour, therefore this annotation is ignored unless critical linking is explicitly enabled on the factory.
+ * <p>
+ * If {@link #heap()} is enabled primitive array arguments are passed directly to the native method as heap segments rather than being copied off-heap.
+ * Note that by-reference primitive arrays are then updated in-place.
+ * <p>
+ * @see NativeLibraryFactory#critical(boolean)
+ * @author Sarge
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Critical {
+	/**
+	 * @return Whether primitive array arguments can be passed as heap segments
+	 */
+	boolean heap() default false;
+}
@@ -1,5 +1,7 @@
 package org.sarge.jove.foreign;
 
+import java.lang.foreign.MemorySegment;
+
 import org.sarge.jove.common.*;
 import org.sarge.jove.common.Handle.HandleTransformer;
 import org.sarge.jove.common.NativeObject.NativeObjectTransformer;
@@ -21,10 +23,12 @@ public final class DefaultRegistry {
 	 * <ul>
 	 * <li>primitives</li>
 	 * <li>strings</li>
+	 * <li>off-heap memory, see {@link MemorySegmentTransformer}</li>
 	 * <li>enumerations</li>
 	 * <li>standard JOVE types, e.g. {@link Handle}</li>
 	 * <li>by-reference parameters</li>
 	 * <li>structures</li>
+	 * <li>structure array views, see {@link StructureArray}</li>
 	 * </ul>
 	 * @return Default registry
 	 * @see PrimitiveTransformer#register(Registry)
@@ -32,6 +36,29 @@ public final class DefaultRegistry {
 	 * @see StructureTransformerFactory
 	 */
 	public static Registry create() {
+		return create(StructureMarshaller.Index.EMPTY);
+	}
+
+	/**
+	 * Creates a default registry with the given index of code-generated structure marshallers.
+	 * @param index Structure marshaller index
+	 * @return Default registry
+	 * @see #create()
+	 * @see StructureTransformerFactory#index(StructureMarshaller.Index)
+	 */
+	public static Registry create(StructureMarshaller.Index index) {
+		return create(index, false);
+	}
+
+	/**
+	 * Creates a default registry with the given index of code-generated structure marshallers.
+	 * @param index			Structure marshaller index
+	 * @param compile		Whether to compile the marshalling of structures that are not present in the index
+	 * @return Default registry
+	 * @see #create()
+	 * @see StructureTransformerFactory#StructureTransformerFactory(Registry, boolean)
+	 */
+	public static Registry create(StructureMarshaller.Index index, boolean compile) {
 		// Create registry
 		final Registry registry = new Registry();
 
@@ -41,6 +68,7 @@ public final class DefaultRegistry {
 
 		// Common types
 		registry.add(String.class, new StringTransformer());
+		registry.add(MemorySegment.class, new MemorySegmentTransformer());
 		registry.add(NativeReference.class, new NativeReferenceTransformer());
 
 		// Enumerations
@@ -50,9 +78,10 @@ public final class DefaultRegistry {
 		// JOVE types
 		registry.add(Handle.class, new HandleTransformer());
 		registry.add(NativeObject.class, new NativeObjectTransformer());
-		registry.add(NativeStructure.class, new StructureTransformerFactory(registry));
-
-		// TODO - returned arrays, or are they handled in registry itself?
+		final var structures = new StructureTransformerFactory(registry, compile);
+		structures.index(index);
+		registry.add(NativeStructure.class, structures);
+		registry.add(StructureArray.class, new StructureArrayTransformer(registry));
 
 		return registry;
 	}
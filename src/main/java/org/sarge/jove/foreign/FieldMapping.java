@@ -29,6 +29,14 @@ class FieldMapping {
 		this.marshal = requireNonNull(marshal);
 	}
 
+	/**
+	 * @return Transformer for this field
+	 */
+	@SuppressWarnings("rawtypes")
+	public Transformer transformer() {
+		return transformer;
+	}
+
 	/**
 	 * Marshals this structure field.
 	 * @param structure		Structure
@@ -0,0 +1,36 @@
+package org.sarge.jove.foreign;
+
+import java.lang.foreign.*;
+
+/**
+ * The <i>heap array transformer</i> marshals a primitive array <b>without</b> copying to off-heap memory.
+ * <p>
+ * The array is wrapped by a heap segment that can only be passed to a native method linked with heap access.
+ * Since the native method operates directly on the array no update step is required for a by-reference parameter.
+ * <p>
+ * @see Critical#heap()
+ * @author Sarge
+ */
+class HeapArrayTransformer implements Transformer<Object, MemorySegment> {
+	/**
+	 * @param type Parameter type
+	 * @return Whether the given type is supported by this transformer
+	 */
+	static boolean isSupported(Class<?> type) {
+		return type.isArray() && type.getComponentType().isPrimitive() && (type != boolean[].class);
+	}
+
+	@Override
+	public MemorySegment marshal(Object array, SegmentAllocator allocator) {
+		return switch(array) {
+			case byte[] bytes		-> MemorySegment.ofArray(bytes);
+			case char[] chars		-> MemorySegment.ofArray(chars);
+			case short[] shorts		-> MemorySegment.ofArray(shorts);
+			case int[] ints			-> MemorySegment.ofArray(ints);
+			case long[] longs		-> MemorySegment.ofArray(longs);
+			case float[] floats		-> MemorySegment.ofArray(floats);
+			case double[] doubles	-> MemorySegment.ofArray(doubles);
+			default -> throw new IllegalArgumentException("Unsupported heap array: " + array.getClass());
+		};
+	}
+}
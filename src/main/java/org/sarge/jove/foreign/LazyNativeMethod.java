@@ -0,0 +1,108 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * A <i>lazy native method</i> defers linking of the underlying native method until it is first invoked.
+ * <p>
+ * Linking is thread-safe, i.e. the native method is linked <b>once</b> and safely published to all threads.
+ * <p>
+ * The given listener is notified when the method is first <i>used</i>, which is distinct from linking since a lazy method can also be linked in advance.
+ * <p>
+ * Note that any errors linking the native method (e.g. an unknown symbol or an unsupported parameter) are only reported on first invocation or when explicitly {@link #link()}.
+ * <p>
+ * @see NativeLibraryFactory.Linking#LAZY
+ * @author Sarge
+ */
+class LazyNativeMethod implements NativeInvoker {
+	private final Method method;
+	private final Function<Method, NativeMethod> linker;
+	private final Runnable listener;
+	private volatile NativeMethod delegate;
+	private volatile boolean used;
+
+	/**
+	 * Constructor.
+	 * @param method		API method
+	 * @param linker		Links the native method
+	 * @param listener		Notified when this method is first invoked
+	 */
+	LazyNativeMethod(Method method, Function<Method, NativeMethod> linker, Runnable listener) {
+		this.method = requireNonNull(method);
+		this.linker = requireNonNull(linker);
+		this.listener = requireNonNull(listener);
+	}
+
+	/**
+	 * @return Whether this method has been linked
+	 */
+	boolean isLinked() {
+		return delegate != null;
+	}
+
+	/**
+	 * Links this native method as required.
+	 * @return Native method
+	 * @throws IllegalArgumentException if the native method cannot be linked
+	 */
+	NativeMethod link() {
+		NativeMethod result = delegate;
+		if(result == null) {
+			synchronized(this) {
+				result = delegate;
+				if(result == null) {
+					result = linker.apply(method);
+					delegate = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return Whether this method has been invoked
+	 */
+	boolean isUsed() {
+		return used;
+	}
+
+	@Override
+	public Object invoke(Object[] args) {
+		final NativeMethod result = link();
+		if(!used) {
+			use();
+		}
+		return result.invoke(args);
+	}
+
+	/**
+	 * Marks this method as used and notifies the listener.
+	 */
+	private synchronized void use() {
+		if(!used) {
+			used = true;
+			listener.run();
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return method.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return
+				(obj == this) ||
+				(obj instanceof LazyNativeMethod that) &&
+				this.method.equals(that.method);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LazyNativeMethod[%s linked=%b used=%b]", method.getName(), isLinked(), used);
+	}
+}
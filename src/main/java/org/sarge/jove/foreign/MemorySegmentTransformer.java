@@ -0,0 +1,43 @@
+package org.sarge.jove.foreign;
+
+import java.lang.foreign.*;
+import java.util.function.*;
+
+/**
+ * The <i>memory segment transformer</i> passes an off-heap memory segment to/from a native method as-is, i.e. without copying.
+ * <p>
+ * A <i>heap</i> segment is always copied to off-heap memory, including for methods that are {@link Critical} with heap access enabled.
+ * A by-reference heap segment is copied back after invocation.
+ * <p>
+ * @author Sarge
+ */
+public class MemorySegmentTransformer implements Transformer<MemorySegment, MemorySegment> {
+	@Override
+	public MemorySegment marshal(MemorySegment segment, SegmentAllocator allocator) {
+		if(segment.isNative()) {
+			return segment;
+		}
+		else {
+			return allocator.allocate(segment.byteSize(), Long.BYTES).copyFrom(segment);
+		}
+	}
+
+	@Override
+	public Function<MemorySegment, MemorySegment> unmarshal() {
+		return Function.identity();
+	}
+
+	@Override
+	public AbstractArrayTransformer array() {
+		return new AddressArrayTransformer<>(this);
+	}
+
+	@Override
+	public BiConsumer<MemorySegment, MemorySegment> update() {
+		return (address, segment) -> {
+			if(!segment.isNative()) {
+				segment.copyFrom(address.reinterpret(segment.byteSize()));
+			}
+		};
+	}
+}
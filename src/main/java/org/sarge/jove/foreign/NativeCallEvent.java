@@ -0,0 +1,34 @@
+package org.sarge.jove.foreign;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for an instrumented native invocation.
+ * @see NativeMetrics
+ * @author Sarge
+ */
+@Name("org.sarge.jove.NativeCall")
+@Label("Native Call")
+@Category({"JOVE", "Foreign"})
+@Description("Invocation of an instrumented native method")
+@StackTrace(false)
+class NativeCallEvent extends Event {
+	@Label("Method")
+	String method;
+
+	@Label("Marshal")
+	@Timespan
+	long marshal;
+
+	@Label("Downcall")
+	@Timespan
+	long downcall;
+
+	@Label("Unmarshal")
+	@Timespan
+	long unmarshal;
+
+	@Label("Allocated")
+	@DataAmount
+	long bytes;
+}
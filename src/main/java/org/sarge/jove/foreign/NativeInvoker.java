@@ -0,0 +1,19 @@
+package org.sarge.jove.foreign;
+
+/**
+ * A <i>native invoker</i> is the entry-point for an API method that is bound to a native method.
+ * @see NativeMethod
+ * @see LazyNativeMethod
+ * @author Sarge
+ */
+@FunctionalInterface
+public interface NativeInvoker {
+	/**
+	 * Invokes the native method with the given arguments.
+	 * @param args Arguments
+	 * @return Return value
+	 * @throws IllegalArgumentException if an argument or the return value cannot be marshalled
+	 * @throws RuntimeException if the native method fails
+	 */
+	Object invoke(Object[] args);
+}
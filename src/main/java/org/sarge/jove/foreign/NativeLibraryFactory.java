@@ -6,7 +6,9 @@ import static java.util.stream.Collectors.toMap;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import java.util.function.*;
 
 /**
@@ -16,9 +18,22 @@ import java.util.function.*;
  * The method parameters and return type are mapped to the corresponding transformers via the provided {@link Registry}.
  * <p>
  * By-reference parameters are denoted by the {@link Updated} annotation and are mapped to a {@link UpdateTransformer}.
+ * Output only by-reference parameters can be denoted by the {@link Returned} annotation, in which case the argument is not marshalled.
+ * <p>
+ * Trivial native methods denoted by the {@link Critical} annotation are linked as <i>critical</i> downcalls if enabled by {@link #critical(boolean)}.
  * <p>
  * The {@link #handler(Consumer)} method can be used to configure validation or logging of native return values.
  * <p>
+ * The native library is implemented as a {@link Proxy} by default, alternatively a hidden class can be generated that binds each API method directly to the native method.
+ * See {@link #implementation(Implementation)}.
+ * <p>
+ * Native methods are linked when the library is constructed by default.
+ * Alternatively methods can be linked on first invocation and optionally pre-linked in the background, see {@link #linking(Linking)}.
+ * Linking performance can be queried via {@link #statistics()}.
+ * <p>
+ * Native methods can optionally be instrumented to record invocation metrics, see {@link #metrics(NativeMetrics)}.
+ * Invocations can also be recorded to a binary trace for offline replay, see {@link #trace(NativeTrace.Writer)}.
+ * <p>
  * @see NativeMethod
  * @author Sarge
  */
@@ -30,10 +45,74 @@ public class NativeLibraryFactory {
 		// Ignored
 	};
 
+	/**
+	 * Implementation strategies for a native library.
+	 */
+	public enum Implementation {
+		/**
+		 * Implements the native library as a proxy that looks up the native method on each invocation.
+		 */
+		PROXY,
+
+		/**
+		 * Generates a hidden class implementation that delegates directly to each native method.
+		 * @see NativeLibraryGenerator
+		 */
+		GENERATED
+	}
+
+	/**
+	 * Linking strategies for native methods.
+	 */
+	public enum Linking {
+		/**
+		 * Links all native methods when the library is constructed.
+		 */
+		EAGER,
+
+		/**
+		 * Links each native method on first invocation.
+		 * Note that linking errors are only reported when the method is invoked.
+		 * @see LazyNativeMethod
+		 */
+		LAZY,
+
+		/**
+		 * Links each native method on first invocation and pre-links all methods on a background thread.
+		 */
+		BACKGROUND
+	}
+
+	/**
+	 * Linking statistics.
+	 * @param methods		Number of native methods
+	 * @param linked		Number of methods that have been linked, whether eagerly, on first invocation or by the background pre-link
+	 * @param used			Number of lazily linked methods that have been invoked, i.e. always zero for an {@link Linking#EAGER} library
+	 * @param time			Total time spent linking native methods (on any thread)
+	 * @param startup		Time spent constructing native libraries, i.e. the linking cost incurred at startup
+	 */
+	public record Statistics(int methods, int linked, int used, Duration time, Duration startup) {
+		@Override
+		public String toString() {
+			return String.format("Statistics[methods=%d linked=%d used=%d time=%dms startup=%dms]", methods, linked, used, time.toMillis(), startup.toMillis());
+		}
+	}
+
 	private final Linker linker = Linker.nativeLinker();
 	private final SymbolLookup lookup;
 	private final Registry registry;
 	private Consumer<Object> returns = IGNORE;
+	private Implementation implementation = Implementation.PROXY;
+	private Linking linking = Linking.EAGER;
+	private boolean critical;
+	private NativeMetrics metrics;
+	private NativeTrace.Writer trace;
+	private final AtomicInteger count = new AtomicInteger();
+	private final AtomicInteger linked = new AtomicInteger();
+	private final AtomicInteger used = new AtomicInteger();
+	private final AtomicLong time = new AtomicLong();
+	private final AtomicLong startup = new AtomicLong();
+
 	/**
 	 * Constructor.
 	 * @param lookup		Native lookup service
@@ -65,28 +144,119 @@ public class NativeLibraryFactory {
 	}
 
 	/**
-	 * Constructs a proxy implementation of the given native API.
+	 * Sets the implementation strategy for native libraries constructed by this factory.
+	 * Note that the return value {@link #handler(Consumer)} is bound to a {@link Implementation#GENERATED} library when it is constructed.
+	 * @param implementation Implementation strategy
+	 */
+	public void implementation(Implementation implementation) {
+		this.implementation = requireNonNull(implementation);
+	}
+
+	/**
+	 * Sets the linking strategy for native libraries constructed by this factory.
+	 * @param linking Linking strategy
+	 */
+	public void linking(Linking linking) {
+		this.linking = requireNonNull(linking);
+	}
+
+	/**
+	 * Sets whether methods denoted by the {@link Critical} annotation are linked as critical downcalls (disabled by default).
+	 * Critical linking <b>must</b> be disabled if the native library can call back into Java during a critical method, e.g. Vulkan validation layers.
+	 * @param critical Whether to enable critical linking
+	 */
+	public void critical(boolean critical) {
+		this.critical = critical;
+	}
+
+	/**
+	 * Instruments native methods constructed by this factory.
+	 * @param metrics Native metrics or {@code null} to disable instrumentation
+	 */
+	public void metrics(NativeMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Records invocations of native methods constructed by this factory.
+	 * @param trace Trace writer or {@code null} to disable recording
+	 * @see TraceReplay
+	 */
+	public void trace(NativeTrace.Writer trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * @return Linking statistics for all libraries constructed by this factory
+	 */
+	public Statistics statistics() {
+		return new Statistics(count.get(), linked.get(), used.get(), Duration.ofNanos(time.get()), Duration.ofNanos(startup.get()));
+	}
+
+	/**
+	 * Constructs an implementation of the given native API.
 	 * @param api API interface(s)
-	 * @return Native proxy
+	 * @return Native library
 	 * @throws IllegalArgumentException if any {@link #api} is not an interface
 	 * @throws IllegalArgumentException if any API method is not present in the native library
 	 * @throws IllegalArgumentException if the return type or any parameter of an API method are unsupported
+	 * @see #implementation(Implementation)
+	 * @see #linking(Linking)
 	 */
 	public Object build(List<Class<?>> api) {
+		final long start = System.nanoTime();
+		try {
+			return library(api);
+		}
+		finally {
+			startup.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Enumerates the native methods of the given API and builds the implementation.
+	 */
+	private Object library(List<Class<?>> api) {
 		// Enumerate API methods
-		final Map<Method, NativeMethod> methods = api
+		final Collection<Method> declared = api
     			.stream()
     			.peek(NativeLibraryFactory::validate)		// TODO - bad
     			.map(Class::getMethods)
     			.flatMap(Arrays::stream)
     			.filter(NativeLibraryFactory::isNativeMethod)
-    			.collect(toMap(Function.identity(), this::build));
+    			.collect(toMap(Signature::of, Function.identity(), NativeLibraryFactory::merge, LinkedHashMap::new))
+    			.values();
+
+		// Build native methods
+		final Map<Method, NativeInvoker> methods = declared
+				.stream()
+				.collect(toMap(Function.identity(), this::method, (left, _) -> left, LinkedHashMap::new));
+
+		// Pre-link methods
+		count.addAndGet(methods.size());
+		if(linking == Linking.BACKGROUND) {
+			prelink(methods.values());
+		}
+
+		// Build implementation
+		return switch(implementation) {
+			case PROXY -> proxy(api, methods);
+			case GENERATED -> generate(api, methods);
+		};
+	}
 
+	/**
+	 * Builds a proxy implementation of the given native API.
+	 * @param api			API interface(s)
+	 * @param methods		Native methods
+	 * @return Proxy implementation
+	 */
+	private Object proxy(List<Class<?>> api, Map<Method, NativeInvoker> methods) {
 		// Delegate API calls to the underlying native methods
 		final var handler = new InvocationHandler() {
     		@Override
     		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-    			final NativeMethod delegate = methods.get(method);
+    			final NativeInvoker delegate = methods.get(method);
     			final Object result = delegate.invoke(args);
     			returns.accept(result);
     			return result;
@@ -99,6 +269,18 @@ public class NativeLibraryFactory {
     	return Proxy.newProxyInstance(loader, interfaces, handler);
 	}
 
+	/**
+	 * Generates a hidden class implementation of the given native API.
+	 * @param api			API interface(s)
+	 * @param methods		Native methods
+	 * @return Generated implementation
+	 * @see NativeLibraryGenerator
+	 */
+	private Object generate(List<Class<?>> api, Map<Method, NativeInvoker> methods) {
+		final var generator = new NativeLibraryGenerator(api, List.copyOf(methods.keySet()));
+		return generator.build(List.copyOf(methods.values()), returns);
+	}
+
 	/**
 	 * Checks that a declared API is indeed an interface.
 	 */
@@ -108,6 +290,19 @@ public class NativeLibraryFactory {
 		}
 	}
 
+	/**
+	 * Checks that a critical method does not accept a callback.
+	 * @param method Critical method
+	 * @throws IllegalArgumentException if the method has a callback parameter
+	 */
+	private static void validate(Method method) {
+		for(Class<?> type : method.getParameterTypes()) {
+			if(Callback.class.isAssignableFrom(type)) {
+				throw new IllegalArgumentException("Critical method cannot accept a callback: " + type);
+			}
+		}
+	}
+
 	/**
 	 * @return Whether the given API method is an appropriate native method
 	 */
@@ -116,20 +311,83 @@ public class NativeLibraryFactory {
 		return Modifier.isAbstract(modifiers) && !Modifier.isStatic(modifiers);
 	}
 
+	/**
+	 * The <i>signature</i> of an API method used to de-duplicate methods that are declared by more than one API interface.
+	 */
+	private record Signature(String name, List<Class<?>> parameters) {
+		static Signature of(Method method) {
+			return new Signature(method.getName(), List.of(method.getParameterTypes()));
+		}
+	}
+
+	/**
+	 * Merges API methods with the same signature, retaining the method declared by the foremost interface (as per a {@link Proxy}).
+	 * @throws IllegalArgumentException if the return types of the methods differ
+	 */
+	private static Method merge(Method left, Method right) {
+		if(left.getReturnType() != right.getReturnType()) {
+			throw new IllegalArgumentException("Conflicting return types for API method: %s and %s".formatted(left, right));
+		}
+		return left;
+	}
+
+	/**
+	 * Creates the native method for the given API method according to the configured linking strategy.
+	 * @param method API method
+	 * @return Native method
+	 */
+	private NativeInvoker method(Method method) {
+		return switch(linking) {
+			case EAGER -> build(method);
+			case LAZY, BACKGROUND -> new LazyNativeMethod(method, this::build, used::incrementAndGet);
+		};
+	}
+
+	/**
+	 * Links the given lazy native methods on a background thread.
+	 * Any methods that cannot be linked are ignored here and will fail when invoked.
+	 * @param methods Native methods
+	 */
+	private static void prelink(Collection<NativeInvoker> methods) {
+		final List<LazyNativeMethod> lazy = methods
+				.stream()
+				.map(LazyNativeMethod.class::cast)
+				.toList();
+
+		final Runnable task = () -> {
+			for(LazyNativeMethod method : lazy) {
+				try {
+					method.link();
+				}
+				catch(IllegalArgumentException e) {
+					// Ignored
+				}
+			}
+		};
+
+		Thread.ofPlatform().name("native-prelink").daemon().start(task);
+	}
+
 	/**
 	 * Builds a native method for the given API method.
 	 * @param method API method
 	 * @return Native method
 	 */
 	private NativeMethod build(Method method) {
+		final long start = System.nanoTime();
 		try {
-			return buildLocal(method);
+			final NativeMethod result = buildLocal(method);
+			linked.incrementAndGet();
+			return result;
 		}
 		catch(Exception e) {
 			final Class<?> type = method.getDeclaringClass();
 			final String reason = String.format("%s in %s::%s", e.getMessage(), type, method.getName());
 			throw new IllegalArgumentException(reason, e);
 		}
+		finally {
+			time.addAndGet(System.nanoTime() - start);
+		}
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -139,14 +397,29 @@ public class NativeLibraryFactory {
 				.find(method.getName())
 				.orElseThrow(() -> new IllegalArgumentException("Unknown native method: " + method));
 
+		// Check for critical methods
+		final Critical annotation = method.getAnnotation(Critical.class);
+		if(annotation != null) {
+			validate(method);
+		}
+		final Critical critical = this.critical ? annotation : null;
+		final boolean heap = (critical != null) && critical.heap();
+
 		// Init transformer mapper that wraps by-reference parameters
 		final var mapper = new NativeMethodMapper(registry) {
 			@SuppressWarnings("unchecked")
 			@Override
 			protected Transformer parameter(Parameter parameter) {
+				if(heap && HeapArrayTransformer.isSupported(parameter.getType())) {
+					return new HeapArrayTransformer();
+				}
+
 				final Transformer transformer = super.parameter(parameter);
-				final boolean updated = parameter.isAnnotationPresent(Updated.class);
-				if(updated) {
+				if(parameter.isAnnotationPresent(Returned.class)) {
+					return new UpdateTransformer(transformer, true);
+				}
+				else
+				if(parameter.isAnnotationPresent(Updated.class)) {
 					return new UpdateTransformer(transformer);
 				}
 				else {
@@ -161,7 +434,20 @@ public class NativeLibraryFactory {
 
 		// Link native method
 		final FunctionDescriptor descriptor = NativeMethodMapper.descriptor(returns, parameters);
-		MethodHandle handle = linker.downcallHandle(descriptor).bindTo(symbol);
-		return new NativeMethod(handle, returns, parameters);
+		final Linker.Option[] options = (critical == null) ? new Linker.Option[0] : new Linker.Option[]{Linker.Option.critical(heap)};
+		final MethodHandle handle = linker.downcallHandle(descriptor, options).bindTo(symbol);
+		final var result = new NativeMethod(handle, returns, parameters);
+
+		// Instrument method
+		if(metrics != null) {
+			result.instrument(metrics.recorder(method.getName()));
+		}
+
+		// Record invocations
+		if(trace != null) {
+			result.trace(method.getName(), trace);
+		}
+
+		return result;
 	}
 }
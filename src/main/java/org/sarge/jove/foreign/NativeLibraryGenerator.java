@@ -0,0 +1,300 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.classfile.ClassFile.*;
+import static java.lang.constant.ConstantDescs.*;
+import static java.util.Objects.requireNonNull;
+
+import java.lang.classfile.*;
+import java.lang.constant.*;
+import java.lang.invoke.*;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The <i>native library generator</i> is an alternative to a {@link Proxy} that generates a hidden class implementation of a native API.
+ * <p>
+ * The generated class binds each API method <b>directly</b> to the corresponding {@link NativeInvoker} held in a final field.
+ * This avoids the reflective dispatch and method lookup of a proxy implementation and allows the JIT to inline the native invocation.
+ * <p>
+ * The hidden class is defined in the package of the <b>first</b> API interface, therefore any other interface must either be public or reside in the same package.
+ * <p>
+ * @see NativeLibraryFactory.Implementation#GENERATED
+ * @author Sarge
+ */
+class NativeLibraryGenerator {
+	private static final ClassDesc NATIVE_INVOKER = NativeInvoker.class.describeConstable().orElseThrow();
+	private static final ClassDesc CONSUMER = Consumer.class.describeConstable().orElseThrow();
+	private static final MethodTypeDesc INVOKE = MethodTypeDesc.of(CD_Object, CD_Object.arrayType());
+	private static final MethodTypeDesc ACCEPT = MethodTypeDesc.of(CD_void, CD_Object);
+	private static final MethodTypeDesc CONSTRUCTOR = MethodTypeDesc.of(CD_void, NATIVE_INVOKER.arrayType(), CONSUMER);
+	private static final String HANDLER = "handler";
+
+	private final List<Class<?>> api;
+	private final List<Method> methods;
+	private final ClassDesc desc;
+
+	/**
+	 * Constructor.
+	 * @param api			API interface(s)
+	 * @param methods		API methods
+	 * @throws IllegalArgumentException if any API is not accessible to the generated implementation
+	 */
+	public NativeLibraryGenerator(List<Class<?>> api, List<Method> methods) {
+		this.api = List.copyOf(api);
+		this.methods = List.copyOf(methods);
+		this.desc = name(api.getFirst());
+		validate();
+	}
+
+	/**
+	 * @return Name of the generated class in the package of the given API
+	 */
+	private static ClassDesc name(Class<?> api) {
+		final String pkg = api.getPackageName();
+		final String name = "NativeLibraryImplementation";
+		if(pkg.isEmpty()) {
+			return ClassDesc.of(name);
+		}
+		else {
+			return ClassDesc.of(pkg, name);
+		}
+	}
+
+	/**
+	 * Checks that each API interface can be implemented by the generated class.
+	 */
+	private void validate() {
+		final String pkg = desc.packageName();
+		for(Class<?> type : api) {
+			if(!Modifier.isPublic(type.getModifiers()) && !type.getPackageName().equals(pkg)) {
+				throw new IllegalArgumentException("Native API is not accessible to the generated implementation: " + type);
+			}
+		}
+	}
+
+	/**
+	 * Generates and instantiates the native library.
+	 * @param bindings		Native method for each API method (in the same order)
+	 * @param handler		Return value handler
+	 * @return Native library
+	 * @throws RuntimeException if the implementation cannot be generated
+	 */
+	public Object build(List<? extends NativeInvoker> bindings, Consumer<Object> handler) {
+		if(bindings.size() != methods.size()) {
+			throw new IllegalArgumentException("Mismatched native method bindings");
+		}
+		requireNonNull(handler);
+
+		try {
+			final Lookup lookup = MethodHandles.privateLookupIn(api.getFirst(), MethodHandles.lookup());
+			final Lookup hidden = lookup.defineHiddenClass(generate(), true);
+			final MethodHandle constructor = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class, NativeInvoker[].class, Consumer.class));
+			return constructor.invoke(bindings.toArray(NativeInvoker[]::new), handler);
+		}
+		catch(Throwable e) {
+			throw new RuntimeException("Error generating native library: " + api, e);
+		}
+	}
+
+	/**
+	 * Generates the class file of the native library implementation.
+	 * @return Class file
+	 */
+	byte[] generate() {
+		final List<ClassDesc> interfaces = api
+				.stream()
+				.map(NativeLibraryGenerator::describe)
+				.toList();
+
+		return ClassFile.of().build(desc, builder -> {
+			builder
+					.withFlags(ACC_PUBLIC | ACC_FINAL | ACC_SUPER)
+					.withSuperclass(CD_Object)
+					.withInterfaceSymbols(interfaces)
+					.withField(HANDLER, CONSUMER, ACC_PRIVATE | ACC_FINAL);
+
+			for(int n = 0; n < methods.size(); ++n) {
+				builder.withField(field(n), NATIVE_INVOKER, ACC_PRIVATE | ACC_FINAL);
+			}
+
+			builder.withMethodBody(INIT_NAME, CONSTRUCTOR, ACC_PUBLIC, this::constructor);
+
+			for(int n = 0; n < methods.size(); ++n) {
+				final Method method = methods.get(n);
+				final int index = n;
+				builder.withMethodBody(method.getName(), describe(method), ACC_PUBLIC | ACC_FINAL, code -> method(index, method, code));
+			}
+		});
+	}
+
+	/**
+	 * @return Name of the field for the given native method
+	 */
+	private static String field(int index) {
+		return "method" + index;
+	}
+
+	/**
+	 * Generates the constructor that initialises the native method fields.
+	 */
+	private void constructor(CodeBuilder code) {
+		code.aload(0);
+		code.invokespecial(CD_Object, INIT_NAME, MethodTypeDesc.of(CD_void));
+
+		for(int n = 0; n < methods.size(); ++n) {
+			code.aload(0);
+			code.aload(1);
+			code.loadConstant(n);
+			code.aaload();
+			code.putfield(desc, field(n), NATIVE_INVOKER);
+		}
+
+		code.aload(0);
+		code.aload(2);
+		code.putfield(desc, HANDLER, CONSUMER);
+		code.return_();
+	}
+
+	/**
+	 * Generates an API method that delegates to the corresponding native method.
+	 * @param index			Native method index
+	 * @param method		API method
+	 * @param code			Code builder
+	 */
+	private void method(int index, Method method, CodeBuilder code) {
+		// Load native method
+		code.aload(0);
+		code.getfield(desc, field(index), NATIVE_INVOKER);
+
+		// Build arguments array
+		final Class<?>[] parameters = method.getParameterTypes();
+		if(parameters.length == 0) {
+			code.aconst_null();
+		}
+		else {
+			code.loadConstant(parameters.length);
+			code.anewarray(CD_Object);
+			int slot = 1;
+			for(int n = 0; n < parameters.length; ++n) {
+				code.dup();
+				code.loadConstant(n);
+				slot = load(parameters[n], slot, code);
+				code.aastore();
+			}
+		}
+
+		// Invoke native method
+		code.invokeinterface(NATIVE_INVOKER, "invoke", INVOKE);
+
+		// Delegate to return value handler
+		code.dup();
+		code.aload(0);
+		code.getfield(desc, HANDLER, CONSUMER);
+		code.swap();
+		code.invokeinterface(CONSUMER, "accept", ACCEPT);
+
+		// Return result
+		returns(method.getReturnType(), code);
+	}
+
+	/**
+	 * Loads and boxes a method argument.
+	 * @param type		Parameter type
+	 * @param slot		Local variable slot
+	 * @param code		Code builder
+	 * @return Next slot
+	 */
+	private static int load(Class<?> type, int slot, CodeBuilder code) {
+		if(!type.isPrimitive()) {
+			code.aload(slot);
+			return slot + 1;
+		}
+
+		if(type == long.class) {
+			code.lload(slot);
+		}
+		else
+		if(type == double.class) {
+			code.dload(slot);
+		}
+		else
+		if(type == float.class) {
+			code.fload(slot);
+		}
+		else {
+			code.iload(slot);
+		}
+
+		final ClassDesc primitive = describe(type);
+		final ClassDesc wrapper = describe(wrapper(type));
+		code.invokestatic(wrapper, "valueOf", MethodTypeDesc.of(wrapper, primitive));
+
+		return slot + ((type == long.class) || (type == double.class) ? 2 : 1);
+	}
+
+	/**
+	 * Casts or unboxes the return value and returns from the method.
+	 * @param type		Return type
+	 * @param code		Code builder
+	 */
+	private static void returns(Class<?> type, CodeBuilder code) {
+		if(type == void.class) {
+			code.pop();
+			code.return_();
+			return;
+		}
+
+		if(!type.isPrimitive()) {
+			code.checkcast(describe(type));
+			code.areturn();
+			return;
+		}
+
+		final ClassDesc wrapper = describe(wrapper(type));
+		code.checkcast(wrapper);
+		code.invokevirtual(wrapper, type.getName() + "Value", MethodTypeDesc.of(describe(type)));
+
+		if(type == long.class) {
+			code.lreturn();
+		}
+		else
+		if(type == double.class) {
+			code.dreturn();
+		}
+		else
+		if(type == float.class) {
+			code.freturn();
+		}
+		else {
+			code.ireturn();
+		}
+	}
+
+	/**
+	 * @return Wrapper type of the given primitive
+	 */
+	private static Class<?> wrapper(Class<?> type) {
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+	/**
+	 * @return Descriptor for the given type
+	 */
+	private static ClassDesc describe(Class<?> type) {
+		return type.describeConstable().orElseThrow();
+	}
+
+	/**
+	 * @return Descriptor for the given method
+	 */
+	private static MethodTypeDesc describe(Method method) {
+		final ClassDesc[] parameters = Arrays
+				.stream(method.getParameterTypes())
+				.map(NativeLibraryGenerator::describe)
+				.toArray(ClassDesc[]::new);
+
+		return MethodTypeDesc.of(describe(method.getReturnType()), parameters);
+	}
+}
@@ -9,14 +9,28 @@ import java.util.function.Function;
 
 /**
  * A <i>native method</i> composes an FFM method handle and transformers for its return type and parameters.
+ * <p>
+ * The underlying method handle is adapted on construction to accept a spread array of arguments and return an {@link Object}.
+ * This allows the handle to be invoked <i>exactly</i> rather than via the generic {@link MethodHandle#invokeWithArguments(Object...)} path.
+ * Note that the arguments are still passed as a boxed array and the invoker is not a constant, i.e. the downcall is not inlined into the caller.
+ * <p>
+ * Off-heap arguments are allocated from the {@link StackAllocator} for the current thread which is reset on completion of the invocation.
+ * <p>
+ * A native method can optionally be instrumented to record invocation metrics, see {@link NativeMetrics}.
+ * Invocations can also be recorded to a {@link NativeTrace}.
+ * <p>
  * @see Transformer
  * @author Sarge
  */
-public class NativeMethod {
+public class NativeMethod implements NativeInvoker {
 	private final MethodHandle handle;
+	private final MethodHandle invoker;
 	private final Function<Object, ?> returns;
 	@SuppressWarnings("rawtypes")
 	private final Transformer[] parameters;
+	private NativeMetrics.Recorder recorder;
+	private String name;
+	private NativeTrace.Writer trace;
 
 	/**
 	 * Constructor.
@@ -34,10 +48,23 @@ public class NativeMethod {
 		}
 
 		this.handle = requireNonNull(handle);
+		this.invoker = invoker(handle);
 		this.returns = returns(signature.returnType(), returns);
 		this.parameters = parameters.toArray(Transformer[]::new);
 	}
 
+	/**
+	 * Adapts the given native method handle to a generic invoker with the signature {@code (Object[]) Object}.
+	 * @param handle Native method
+	 * @return Invoker
+	 */
+	private static MethodHandle invoker(MethodHandle handle) {
+		final int count = handle.type().parameterCount();
+		return handle
+				.asSpreader(Object[].class, count)
+				.asType(MethodType.methodType(Object.class, Object[].class));
+	}
+
 	/**
 	 * Extracts the unmarshalling function for the return type of this method.
 	 * @param type			Return type
@@ -62,21 +89,111 @@ public class NativeMethod {
 	}
 
 	/**
-	 * Invokes this native method with the given arguments.
-	 * @param args Arguments
-	 * @return Return value
-	 * @throws IllegalArgumentException if an argument or the return value cannot be marshalled
-	 * @throws RuntimeException if the native method fails
+	 * Instruments this native method.
+	 * @param recorder Metrics recorder
 	 */
+	void instrument(NativeMetrics.Recorder recorder) {
+		this.recorder = requireNonNull(recorder);
+	}
+
+	/**
+	 * Records invocations of this native method.
+	 * @param name			Method name
+	 * @param trace			Trace writer
+	 */
+	void trace(String name, NativeTrace.Writer trace) {
+		this.name = requireNonNull(name);
+		this.trace = requireNonNull(trace);
+	}
+
+	@Override
 	public Object invoke(Object[] args) {
+		if((recorder != null) || (trace != null)) {
+			return instrumented(args);
+		}
+
 		if(args == null) {
 			return invokeLocal(null);
 		}
 
-		final Object[] foreign = marshal(args);
-   		final Object result = invokeLocal(foreign);
-		update(args, foreign);
-		return result;
+		final StackAllocator allocator = StackAllocator.local();
+		allocator.push();
+		try {
+			final Object[] foreign = marshal(args, allocator);
+	   		final Object result = invokeLocal(foreign);
+			update(args, foreign);
+			return result;
+		}
+		finally {
+			allocator.pop();
+		}
+	}
+
+	/**
+	 * Invokes this native method and records the latency of each phase of the invocation and/or a trace of the invocation.
+	 * @param args Arguments
+	 * @return Return value
+	 */
+	private Object instrumented(Object[] args) {
+		final var event = new NativeCallEvent();
+		event.begin();
+
+		final StackAllocator allocator = StackAllocator.local();
+		allocator.push();
+		try {
+			// Marshal arguments
+			final long start = System.nanoTime();
+			final long allocated = allocator.allocated();
+			final Object[] foreign = (args == null) ? null : marshal(args, allocator);
+			final long marshalled = System.nanoTime();
+
+			// Capture inputs before the native method can modify them
+			final byte[][] inputs = (trace == null) ? null : trace.capture(foreign);
+			final long captured = System.nanoTime();
+
+			// Invoke native method
+			final Object result = downcall(foreign);
+			final long invoked = System.nanoTime();
+
+			// Record invocation
+			if(trace != null) {
+				trace.write(name, foreign, inputs, result);
+			}
+			final long traced = System.nanoTime();
+
+			// Unmarshal results
+			final Object value = unmarshal(result);
+			if(args != null) {
+				update(args, foreign);
+			}
+			final long end = System.nanoTime();
+
+			// Skip metrics if not instrumented
+			if(recorder == null) {
+				return value;
+			}
+
+			// Record metrics
+			final long bytes = allocator.allocated() - allocated;
+			final long unmarshalled = end - traced;
+			recorder.record(marshalled - start, invoked - captured, unmarshalled, bytes);
+
+			// Record JFR event
+			event.end();
+			if(event.shouldCommit()) {
+				event.method = recorder.name();
+				event.marshal = marshalled - start;
+				event.downcall = invoked - captured;
+				event.unmarshal = unmarshalled;
+				event.bytes = bytes;
+				event.commit();
+			}
+
+			return value;
+		}
+		finally {
+			allocator.pop();
+		}
 	}
 
 	/**
@@ -85,9 +202,18 @@ public class NativeMethod {
 	 * @return Unmarshalled return value
 	 */
 	private Object invokeLocal(Object[] args) {
+		final Object result = downcall(args);
+		return unmarshal(result);
+	}
+
+	/**
+	 * Invokes the underlying native method.
+	 * @param args Marshalled arguments
+	 * @return Native return value
+	 */
+	private Object downcall(Object[] args) {
 		try {
-			final Object result = handle.invokeWithArguments(args);
-			return unmarshal(result);
+			return (Object) invoker.invokeExact(args);
 		}
 		catch(Throwable e) {
 			throw new RuntimeException("Error invoking native method: " + this, e);
@@ -112,12 +238,11 @@ public class NativeMethod {
 
 	/**
 	 * Marshals method arguments to the corresponding FFM types.
-	 * @param arg Domain arguments
+	 * @param arg			Domain arguments
+	 * @param allocator		Off-heap allocator
 	 * @return Transformed arguments
 	 */
-	@SuppressWarnings("resource")
-	private Object[] marshal(Object[] args) {
-		final var allocator = Arena.ofAuto();
+	private Object[] marshal(Object[] args, SegmentAllocator allocator) {
 		final Object[] foreign = new Object[args.length];
 		for(int n = 0; n < args.length; ++n) {
 			foreign[n] = Transformer.marshal(args[n], parameters[n], allocator);
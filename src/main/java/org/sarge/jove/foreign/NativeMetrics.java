@@ -0,0 +1,183 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The <i>native metrics</i> service records invocation statistics for instrumented native methods.
+ * <p>
+ * For each native method the following are recorded:
+ * <ul>
+ * <li>the number of invocations</li>
+ * <li>the cumulative and maximum latency of each phase of an invocation, i.e. marshalling the arguments, the downcall itself, and unmarshalling the results</li>
+ * <li>the number of bytes of off-heap memory allocated from the {@link StackAllocator}</li>
+ * </ul>
+ * <p>
+ * The metrics can be queried by a {@link #snapshot()} which is ordered by total latency, i.e. the most expensive native methods first.
+ * Each invocation is also recorded as a JFR event, see {@link NativeCallEvent}.
+ * <p>
+ * Instrumentation is opt-in and is enabled by {@link NativeLibraryFactory#metrics(NativeMetrics)}.
+ * Native methods that are not instrumented incur negligible overhead.
+ * <p>
+ * This class is thread-safe.
+ * <p>
+ * @author Sarge
+ */
+public class NativeMetrics {
+	/**
+	 * Latency of a phase of a native invocation.
+	 * @param total		Cumulative latency
+	 * @param max		Maximum latency
+	 */
+	public record Latency(Duration total, Duration max) {
+	}
+
+	/**
+	 * Snapshot of the metrics for a native method.
+	 * @param name			Method name
+	 * @param count			Number of invocations
+	 * @param marshal		Marshalling latency
+	 * @param downcall		Downcall latency
+	 * @param unmarshal		Unmarshalling latency
+	 * @param bytes			Off-heap memory allocated (bytes)
+	 */
+	public record Snapshot(String name, long count, Latency marshal, Latency downcall, Latency unmarshal, long bytes) {
+		/**
+		 * @return Total latency of this method
+		 */
+		public Duration total() {
+			return marshal.total.plus(downcall.total).plus(unmarshal.total);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s[count=%d total=%dus marshal=%dus downcall=%dus unmarshal=%dus bytes=%d]", name, count, total().toNanos() / 1000, marshal.total.toNanos() / 1000, downcall.total.toNanos() / 1000, unmarshal.total.toNanos() / 1000, bytes);
+		}
+	}
+
+	/**
+	 * Accumulates the latency of an invocation phase.
+	 */
+	private static class Phase {
+		private final LongAdder total = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		void record(long nanos) {
+			total.add(nanos);
+			max.accumulate(nanos);
+		}
+
+		Latency latency() {
+			return new Latency(Duration.ofNanos(total.sum()), Duration.ofNanos(max.get()));
+		}
+
+		void reset() {
+			total.reset();
+			max.reset();
+		}
+	}
+
+	/**
+	 * A <i>recorder</i> accumulates the metrics for a native method.
+	 */
+	static class Recorder {
+		private final String name;
+		private final LongAdder count = new LongAdder();
+		private final Phase marshal = new Phase();
+		private final Phase downcall = new Phase();
+		private final Phase unmarshal = new Phase();
+		private final LongAdder bytes = new LongAdder();
+
+		/**
+		 * Constructor.
+		 * @param name Method name
+		 */
+		Recorder(String name) {
+			this.name = requireNonNull(name);
+		}
+
+		/**
+		 * @return Method name
+		 */
+		String name() {
+			return name;
+		}
+
+		/**
+		 * Records a native invocation.
+		 * @param marshal		Marshalling latency (ns)
+		 * @param downcall		Downcall latency (ns)
+		 * @param unmarshal		Unmarshalling latency (ns)
+		 * @param bytes			Allocated off-heap memory
+		 */
+		void record(long marshal, long downcall, long unmarshal, long bytes) {
+			count.increment();
+			this.marshal.record(marshal);
+			this.downcall.record(downcall);
+			this.unmarshal.record(unmarshal);
+			this.bytes.add(bytes);
+		}
+
+		/**
+		 * @return Snapshot of the metrics for this method
+		 */
+		Snapshot snapshot() {
+			return new Snapshot(name, count.sum(), marshal.latency(), downcall.latency(), unmarshal.latency(), bytes.sum());
+		}
+
+		private void reset() {
+			count.reset();
+			marshal.reset();
+			downcall.reset();
+			unmarshal.reset();
+			bytes.reset();
+		}
+	}
+
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+	/**
+	 * Retrieves or creates the recorder for the given native method.
+	 * @param name Method name
+	 * @return Recorder
+	 */
+	Recorder recorder(String name) {
+		return recorders.computeIfAbsent(name, Recorder::new);
+	}
+
+	/**
+	 * @return Snapshot of the metrics for all instrumented native methods ordered by total latency
+	 */
+	public List<Snapshot> snapshot() {
+		return recorders
+				.values()
+				.stream()
+				.map(Recorder::snapshot)
+				.sorted(Comparator.comparing(Snapshot::total).reversed())
+				.toList();
+	}
+
+	/**
+	 * Retrieves a snapshot of the metrics for the given native method.
+	 * @param name Method name
+	 * @return Snapshot
+	 */
+	public Optional<Snapshot> snapshot(String name) {
+		return Optional
+				.ofNullable(recorders.get(name))
+				.map(Recorder::snapshot);
+	}
+
+	/**
+	 * Resets all metrics.
+	 */
+	public void reset() {
+		for(Recorder recorder : recorders.values()) {
+			recorder.reset();
+		}
+	}
+}
@@ -90,11 +90,15 @@ public abstract class NativeReference<T> {
 
 	/**
 	 * Transformer for native references.
+	 * <p>
+	 * Note that the referenced value is unmarshalled <i>lazily</i> and therefore the off-heap memory is allocated independently of the provided allocator.
+	 * <p>
 	 */
 	public static class NativeReferenceTransformer implements Transformer<NativeReference<?>, MemorySegment> {
+		@SuppressWarnings("resource")
 		@Override
 		public MemorySegment marshal(NativeReference<?> ref, SegmentAllocator allocator) {
-			return ref.allocate(allocator);
+			return ref.allocate(Arena.ofAuto());
 		}
 
 		@Override
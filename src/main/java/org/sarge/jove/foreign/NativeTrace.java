@@ -0,0 +1,420 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.util.*;
+
+/**
+ * A <i>native trace</i> is a compact binary recording of native invocations.
+ * <p>
+ * Each invocation is recorded as the method identifier, the <i>marshalled</i> arguments and the native return value.
+ * The contents of off-heap arguments allocated during marshalling (e.g. structures or arrays) are recorded along with the address.
+ * <p>
+ * Argument contents are captured <b>before</b> the native method is invoked, see {@link Writer#capture(Object[])}.
+ * Off-heap arguments that are modified by the native method (i.e. <i>out</i> parameters) are recorded separately as <i>outputs</i>.
+ * <p>
+ * The trace has the following format:
+ * <pre>
+ * trace     := header record*
+ * header    := MAGIC VERSION
+ * record    := DEFINE id name | CALL id count value* value outputs output*
+ * value     := tag payload
+ * output    := index size contents
+ * </pre>
+ * where each method is defined once when first invoked and values are encoded according to their type.
+ * <p>
+ * Recording is enabled by {@link NativeLibraryFactory#trace(NativeTrace.Writer)}.
+ * A trace can be loaded and replayed using a {@link TraceReplay}.
+ * <p>
+ * @author Sarge
+ */
+public final class NativeTrace {
+	private static final int MAGIC = 0x4A4F5645;
+	private static final short VERSION = 2;
+
+	private static final byte DEFINE = 0;
+	private static final byte CALL = 1;
+
+	private static final byte VOID = 0;
+	private static final byte BYTE = 'B';
+	private static final byte CHAR = 'C';
+	private static final byte SHORT = 'S';
+	private static final byte INT = 'I';
+	private static final byte LONG = 'J';
+	private static final byte FLOAT = 'F';
+	private static final byte DOUBLE = 'D';
+	private static final byte ADDRESS = 'A';
+
+	/**
+	 * Maximum size of the recorded contents of an off-heap argument.
+	 */
+	public static final long MAX_CONTENTS = 1 << 16;
+
+	private NativeTrace() {
+	}
+
+	/**
+	 * A <i>call</i> is a recorded native invocation.
+	 * <p>
+	 * Off-heap arguments are represented as follows:
+	 * <ul>
+	 * <li>an argument with recorded contents is a <i>heap</i> segment containing a copy of the off-heap data</li>
+	 * <li>otherwise the argument is a zero-length segment with the recorded address</li>
+	 * </ul>
+	 * The recorded arguments are the <i>inputs</i> to the invocation.
+	 * The <i>outputs</i> are the contents of any off-heap arguments that were modified by the native method, indexed by argument.
+	 * <p>
+	 * @param method		Method name
+	 * @param args			Marshalled arguments
+	 * @param result		Native return value or {@code null} for a {@code void} method
+	 * @param outputs		Modified off-heap arguments indexed by argument
+	 */
+	public record Call(String method, List<Object> args, Object result, Map<Integer, MemorySegment> outputs) {
+		/**
+		 * Constructor.
+		 */
+		public Call {
+			requireNonNull(method);
+			args = Collections.unmodifiableList(new ArrayList<>(args));
+			outputs = Map.copyOf(outputs);
+		}
+
+		/**
+		 * Constructor for an invocation without outputs.
+		 * @param method		Method name
+		 * @param args			Marshalled arguments
+		 * @param result		Native return value
+		 */
+		public Call(String method, List<Object> args, Object result) {
+			this(method, args, result, Map.of());
+		}
+	}
+
+	/**
+	 * A <i>writer</i> records native invocations to an output stream.
+	 * This class is thread-safe.
+	 */
+	public static class Writer implements AutoCloseable {
+		private final DataOutputStream out;
+		private final Map<String, Integer> methods = new HashMap<>();
+		private int count;
+
+		/**
+		 * Constructor.
+		 * @param out Output stream
+		 * @throws UncheckedIOException if the trace header cannot be written
+		 */
+		public Writer(OutputStream out) {
+			this.out = new DataOutputStream(new BufferedOutputStream(out));
+			try {
+				this.out.writeInt(MAGIC);
+				this.out.writeShort(VERSION);
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * @return Number of recorded invocations
+		 */
+		public synchronized int count() {
+			return count;
+		}
+
+		/**
+		 * Captures the contents of the off-heap arguments of a native invocation.
+		 * This method should be invoked <b>before</b> the native method so that the recorded arguments are the actual inputs.
+		 * @param args Marshalled arguments or {@code null} if none
+		 * @return Captured contents indexed by argument
+		 * @see #write(String, Object[], byte[][], Object)
+		 */
+		public byte[][] capture(Object[] args) {
+			if(args == null) {
+				return new byte[0][];
+			}
+
+			final byte[][] inputs = new byte[args.length][];
+			for(int n = 0; n < args.length; ++n) {
+				if(args[n] instanceof MemorySegment address) {
+					inputs[n] = contents(address);
+				}
+			}
+			return inputs;
+		}
+
+		/**
+		 * Records a native invocation using the <i>current</i> contents of any off-heap arguments.
+		 * @param method		Method name
+		 * @param args			Marshalled arguments or {@code null} if none
+		 * @param result		Native return value
+		 * @throws UncheckedIOException if the invocation cannot be recorded
+		 */
+		public void write(String method, Object[] args, Object result) {
+			write(method, args, capture(args), result);
+		}
+
+		/**
+		 * Records a native invocation.
+		 * The given inputs are recorded as the contents of the off-heap arguments.
+		 * Any off-heap arguments that were subsequently modified by the native method are recorded as outputs.
+		 * @param method		Method name
+		 * @param args			Marshalled arguments or {@code null} if none
+		 * @param inputs		Argument contents captured before the invocation
+		 * @param result		Native return value
+		 * @throws UncheckedIOException if the invocation cannot be recorded
+		 * @see #capture(Object[])
+		 */
+		public synchronized void write(String method, Object[] args, byte[][] inputs, Object result) {
+			try {
+				// Record inputs
+				final int id = define(method);
+				final int length = (args == null) ? 0 : args.length;
+				out.writeByte(CALL);
+				out.writeInt(id);
+				out.writeByte(length);
+				for(int n = 0; n < length; ++n) {
+					if(args[n] instanceof MemorySegment address) {
+						address(address, inputs[n]);
+					}
+					else {
+						value(args[n]);
+					}
+				}
+				value(result);
+
+				// Enumerate modified arguments
+				final Map<Integer, byte[]> outputs = new LinkedHashMap<>();
+				for(int n = 0; n < length; ++n) {
+					if((inputs[n] != null) && (args[n] instanceof MemorySegment address)) {
+						final byte[] contents = address.toArray(ValueLayout.JAVA_BYTE);
+						if(!Arrays.equals(inputs[n], contents)) {
+							outputs.put(n, contents);
+						}
+					}
+				}
+
+				// Record outputs
+				out.writeByte(outputs.size());
+				for(var entry : outputs.entrySet()) {
+					final byte[] contents = entry.getValue();
+					out.writeByte(entry.getKey());
+					out.writeInt(contents.length);
+					out.write(contents);
+				}
+
+				++count;
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Looks up or defines the identifier for the given method.
+		 */
+		private int define(String method) throws IOException {
+			final Integer prev = methods.get(method);
+			if(prev != null) {
+				return prev;
+			}
+
+			final int id = methods.size();
+			methods.put(method, id);
+			out.writeByte(DEFINE);
+			out.writeInt(id);
+			out.writeUTF(method);
+
+			return id;
+		}
+
+		/**
+		 * Writes a marshalled value.
+		 */
+		private void value(Object value) throws IOException {
+			switch(value) {
+				case null -> out.writeByte(VOID);
+				case Byte b -> {
+					out.writeByte(BYTE);
+					out.writeByte(b);
+				}
+				case Character c -> {
+					out.writeByte(CHAR);
+					out.writeChar(c);
+				}
+				case Short s -> {
+					out.writeByte(SHORT);
+					out.writeShort(s);
+				}
+				case Integer n -> {
+					out.writeByte(INT);
+					out.writeInt(n);
+				}
+				case Long n -> {
+					out.writeByte(LONG);
+					out.writeLong(n);
+				}
+				case Float f -> {
+					out.writeByte(FLOAT);
+					out.writeFloat(f);
+				}
+				case Double d -> {
+					out.writeByte(DOUBLE);
+					out.writeDouble(d);
+				}
+				case MemorySegment address -> address(address, contents(address));
+				default -> throw new IllegalArgumentException("Unsupported native value: " + value.getClass());
+			}
+		}
+
+		/**
+		 * Writes an off-heap value and its contents.
+		 */
+		private void address(MemorySegment address, byte[] contents) throws IOException {
+			out.writeByte(ADDRESS);
+			out.writeLong(address.address());
+			if(contents == null) {
+				out.writeInt(0);
+			}
+			else {
+				out.writeInt(contents.length);
+				out.write(contents);
+			}
+		}
+
+		/**
+		 * Copies the contents of an off-heap value.
+		 * @return Contents or {@code null} if empty or too large to be recorded
+		 */
+		private static byte[] contents(MemorySegment address) {
+			final long size = address.byteSize();
+			if((size > 0) && (size <= MAX_CONTENTS)) {
+				return address.toArray(ValueLayout.JAVA_BYTE);
+			}
+			else {
+				return null;
+			}
+		}
+
+		/**
+		 * Flushes any buffered invocations.
+		 * @throws UncheckedIOException if the trace cannot be flushed
+		 */
+		public synchronized void flush() {
+			try {
+				out.flush();
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			out.close();
+		}
+	}
+
+	/**
+	 * Loads a native trace.
+	 * @param in Input stream
+	 * @return Recorded invocations
+	 * @throws IOException if the trace cannot be read
+	 * @throws IllegalArgumentException if the stream is not a valid native trace
+	 */
+	public static List<Call> read(InputStream in) throws IOException {
+		final var data = new DataInputStream(new BufferedInputStream(in));
+
+		// Check header
+		if((data.readInt() != MAGIC) || (data.readShort() != VERSION)) {
+			throw new IllegalArgumentException("Invalid native trace");
+		}
+
+		// Load records
+		final Map<Integer, String> methods = new HashMap<>();
+		final List<Call> calls = new ArrayList<>();
+		while(true) {
+			final int type = data.read();
+			switch(type) {
+				case -1 -> {
+					return calls;
+				}
+				case DEFINE -> {
+					final int id = data.readInt();
+					methods.put(id, data.readUTF());
+				}
+				case CALL -> {
+					final String method = methods.get(data.readInt());
+					if(method == null) {
+						throw new IllegalArgumentException("Undefined method in native trace");
+					}
+					final int count = data.readUnsignedByte();
+					final List<Object> args = new ArrayList<>(count);
+					for(int n = 0; n < count; ++n) {
+						args.add(value(data));
+					}
+					final Object result = value(data);
+					final int modified = data.readUnsignedByte();
+					final Map<Integer, MemorySegment> outputs = new HashMap<>();
+					for(int n = 0; n < modified; ++n) {
+						final int index = data.readUnsignedByte();
+						final byte[] contents = new byte[data.readInt()];
+						data.readFully(contents);
+						outputs.put(index, MemorySegment.ofArray(contents));
+					}
+					calls.add(new Call(method, args, result, outputs));
+				}
+				default -> throw new IllegalArgumentException("Invalid native trace record: " + type);
+			}
+		}
+	}
+
+	/**
+	 * Reads a marshalled value.
+	 */
+	private static Object value(DataInputStream in) throws IOException {
+		final byte tag = in.readByte();
+		return switch(tag) {
+			case VOID		-> null;
+			case BYTE		-> in.readByte();
+			case CHAR		-> in.readChar();
+			case SHORT		-> in.readShort();
+			case INT		-> in.readInt();
+			case LONG		-> in.readLong();
+			case FLOAT		-> in.readFloat();
+			case DOUBLE		-> in.readDouble();
+			case ADDRESS	-> {
+				final long address = in.readLong();
+				final int size = in.readInt();
+				if(size == 0) {
+					yield MemorySegment.ofAddress(address);
+				}
+				final byte[] contents = new byte[size];
+				in.readFully(contents);
+				yield MemorySegment.ofArray(contents);
+			}
+			default -> throw new IllegalArgumentException("Invalid native trace value: " + tag);
+		};
+	}
+
+	/**
+	 * Derives the memory layout of a recorded value.
+	 * @param value Recorded value
+	 * @return Layout
+	 */
+	static MemoryLayout layout(Object value) {
+		return switch(value) {
+			case Byte _				-> ValueLayout.JAVA_BYTE;
+			case Character _		-> ValueLayout.JAVA_CHAR;
+			case Short _			-> ValueLayout.JAVA_SHORT;
+			case Integer _			-> ValueLayout.JAVA_INT;
+			case Long _				-> ValueLayout.JAVA_LONG;
+			case Float _			-> ValueLayout.JAVA_FLOAT;
+			case Double _			-> ValueLayout.JAVA_DOUBLE;
+			case MemorySegment _	-> ValueLayout.ADDRESS;
+			default -> throw new IllegalArgumentException("Unsupported native value: " + value);
+		};
+	}
+}
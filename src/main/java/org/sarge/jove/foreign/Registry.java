@@ -3,9 +3,16 @@ package org.sarge.jove.foreign;
 import static java.util.Objects.requireNonNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A <i>registry</i> maps built-in and domain types to the corresponding native transformer.
+ * <p>
+ * Resolved transformers (including unsupported types) are cached per type using a {@link ClassValue} such that lookups are thread-safe and lock-free.
+ * The cache is discarded whenever a new transformer or factory is registered.
+ * <p>
+ * The registry can be {@link #freeze()} once the application has been initialised to prevent further modifications.
+ * <p>
  * @author Sarge
  */
 public class Registry {
@@ -24,38 +31,51 @@ public class Registry {
 	}
 
 	@SuppressWarnings("rawtypes")
-	private final Map<Class<?>, Transformer> registry = new HashMap<>();
-	private final Map<Class<?>, Factory<?>> factories = new HashMap<>();
+	private final Map<Class<?>, Transformer> registry = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Factory<?>> factories = new ConcurrentHashMap<>();
+	private volatile ClassValue<Optional<Transformer<?, ?>>> cache = cache();
+	private volatile boolean frozen;
+
+	/**
+	 * Creates the transformer cache.
+	 */
+	private ClassValue<Optional<Transformer<?, ?>>> cache() {
+		return new ClassValue<>() {
+			@Override
+			protected Optional<Transformer<?, ?>> computeValue(Class<?> type) {
+				return find(type);
+			}
+		};
+	}
 
 	/**
 	 * Finds the registered transformer for the given type.
 	 * @param type Type
 	 * @return Transformer
 	 */
-	@SuppressWarnings("rawtypes")
+	@SuppressWarnings({"rawtypes", "unchecked"})
 	public Optional<Transformer> transformer(Class<?> type) {
-		return Optional
-				.ofNullable(registry.get(type))
-				.or(() -> find(type));
+		return (Optional) cache.get(type);
 	}
 
 	/**
-	 * Finds and registers the transformer for the given type.
+	 * Finds the transformer for the given type.
 	 * @param type Type
 	 * @return Transformer
 	 */
-	@SuppressWarnings("rawtypes")
-	private Optional<Transformer> find(Class<?> type) {
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private Optional<Transformer<?, ?>> find(Class<?> type) {
+		final Transformer transformer = registry.get(type);
+		if(transformer != null) {
+			return Optional.of(transformer);
+		}
+
 		if(type.isArray()) {
 			final Class<?> component = type.getComponentType();
-    		final Optional<Transformer> array = transformer(component).map(Transformer::array);
-    		register(type, array);
-    		return array;
-    	}
+			return (Optional) transformer(component).map(Transformer::array);
+		}
 		else {
-			final Optional<Transformer> transformer = find(type, registry).or(() -> factory(type));
-    		register(type, transformer);
-			return transformer;
+			return (Optional) find(type, registry).or(() -> factory(type));
 		}
 	}
 
@@ -85,24 +105,19 @@ public class Registry {
 		return find(type, factories).map(factory -> factory.transformer((Class) type));
 	}
 
-	/**
-	 * Registers a derived transformer as a side-effect.
-	 */
-	@SuppressWarnings("rawtypes")
-	private void register(Class<?> type, Optional<Transformer> transformer) {
-		transformer.ifPresent(t -> registry.put(type, t));
-	}
-
 	/**
 	 * Registers the transformer for the given type.
 	 * @param <T> Type
 	 * @param type				Type
 	 * @param transformer		Transformer
+	 * @throws IllegalStateException if this registry has been frozen
 	 */
 	public <T> void add(Class<T> type, Transformer<? extends T, ?> transformer) {
 		requireNonNull(type);
 		requireNonNull(transformer);
+		check();
 		registry.put(type, transformer);
+		cache = cache();
 	}
 
 	/**
@@ -110,10 +125,36 @@ public class Registry {
 	 * @param <T> Type
 	 * @param type			Type
 	 * @param factory		Transformer factory
+	 * @throws IllegalStateException if this registry has been frozen
 	 */
 	public <T> void add(Class<T> type, Factory<? extends T> factory) {
 		requireNonNull(type);
 		requireNonNull(factory);
+		check();
 		factories.put(type, factory);
+		cache = cache();
+	}
+
+	/**
+	 * @throws IllegalStateException if this registry has been frozen
+	 */
+	private void check() {
+		if(frozen) {
+			throw new IllegalStateException("Registry has been frozen");
+		}
+	}
+
+	/**
+	 * Freezes this registry, i.e. no further transformers or factories can be registered.
+	 */
+	public void freeze() {
+		frozen = true;
+	}
+
+	/**
+	 * @return Whether this registry has been frozen
+	 */
+	public boolean isFrozen() {
+		return frozen;
 	}
 }
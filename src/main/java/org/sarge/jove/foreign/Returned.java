@@ -0,0 +1,34 @@
+package org.sarge.jove.foreign;
+
+import java.lang.annotation.*;
+
+/**
+ * The <i>returned</i> annotation denotes an <i>output only</i> by-reference parameter that is populated by a native method.
+ * <p>
+ * Unlike an {@link Updated} parameter the argument is <b>not</b> marshalled, the off-heap memory is merely allocated and initialised to zero.
+ * The argument is then unmarshalled as normal after invocation.
+ * <p>
+ * Alternatively the parameter can be declared as a {@link StructureArray} to reuse the off-heap memory across invocations, e.g. a single returned structure that is queried repeatedly.
+ * The memory is zeroed before each invocation and the structure is unmarshalled lazily from the view.
+ * <p>
+ * Example:
+ * <pre>
+ * interface Library {
+ *     void method(@Returned StructureArray&lt;SomeStructure&gt; result);
+ * }
+ *
+ * var result = new StructureArray&lt;&gt;(SomeStructure.class, 1, segment);
+ * library.method(result);
+ * SomeStructure structure = result.getFirst();
+ * </pre>
+ * <p>
+ * Note that this annotation should only be applied to structures and arrays that do not contain any input data, e.g. a structure without an {@code sType} or {@code pNext} chain.
+ * <p>
+ * @see Updated
+ * @author Sarge
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Returned {
+	// Marker
+}
@@ -0,0 +1,176 @@
+package org.sarge.jove.foreign;
+
+import static org.sarge.jove.util.Validation.requireOneOrMore;
+
+import java.lang.foreign.*;
+
+/**
+ * A <i>stack allocator</i> is a re-usable, per-thread allocator for the off-heap arguments of a native method.
+ * <p>
+ * Memory is allocated from a pre-allocated <i>slab</i> using a simple bump pointer and is released <i>en masse</i> when the allocator is {@link #reset()}.
+ * The slab is grown as required, i.e. the allocator quickly reaches a steady state where no further off-heap memory is reserved.
+ * <p>
+ * A native method {@link #push()} the allocator before marshalling its arguments and {@link #pop()} on completion.
+ * The allocator is only reset when the <i>outermost</i> invocation completes, e.g. to support native methods that are invoked from a {@link Callback}.
+ * <p>
+ * Alternatively the application can elect to {@link #retain(boolean)} allocated memory, e.g. for the duration of a frame, in which case the application is responsible for resetting the allocator.
+ * <p>
+ * Note that memory allocated by this class is only valid until the allocator is reset.
+ * Transformers for arguments that must outlive an invocation should allocate off-heap memory independently, see {@link NativeReference}.
+ * <p>
+ * @author Sarge
+ */
+public class StackAllocator implements SegmentAllocator {
+	/**
+	 * Default slab size.
+	 */
+	public static final long DEFAULT_SIZE = 16 * 1024;
+
+	private static final ThreadLocal<StackAllocator> LOCAL = ThreadLocal.withInitial(StackAllocator::new);
+
+	/**
+	 * @return Allocator for the current thread
+	 */
+	public static StackAllocator local() {
+		return LOCAL.get();
+	}
+
+	private MemorySegment slab;
+	private long offset;
+	private int depth;
+	private boolean retain;
+	private long allocated;
+	private long reserved;
+
+	/**
+	 * Constructor.
+	 * @param size Initial slab size (bytes)
+	 */
+	public StackAllocator(long size) {
+		slab = slab(requireOneOrMore(size));
+	}
+
+	/**
+	 * Default constructor.
+	 */
+	public StackAllocator() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Reserves a new slab of off-heap memory.
+	 * @param size Slab size
+	 * @return New slab
+	 */
+	@SuppressWarnings("resource")
+	private MemorySegment slab(long size) {
+		reserved += size;
+		return Arena.ofAuto().allocate(size, Long.BYTES);
+	}
+
+	/**
+	 * @return Size of the current slab (bytes)
+	 */
+	public long size() {
+		return slab.byteSize();
+	}
+
+	/**
+	 * @return Number of bytes currently allocated from the slab
+	 */
+	public long used() {
+		return offset;
+	}
+
+	/**
+	 * @return Total number of bytes allocated by this allocator
+	 */
+	public long allocated() {
+		return allocated;
+	}
+
+	/**
+	 * @return Total number of bytes of off-heap memory reserved by this allocator
+	 */
+	public long reserved() {
+		return reserved;
+	}
+
+	/**
+	 * Sets whether this allocator retains allocated memory on completion of a native method.
+	 * @param retain Whether to retain allocated memory until the next {@link #reset()}
+	 */
+	public void retain(boolean retain) {
+		this.retain = retain;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The allocated memory is initialised to zero.
+	 * If the current slab is exhausted a larger slab is reserved, previously allocated memory is released when no longer referenced.
+	 */
+	@Override
+	public MemorySegment allocate(long size, long alignment) {
+		// Align allocation
+		final long base = slab.address();
+		final long start = align(base + offset, alignment) - base;
+
+		// Grow slab as required
+		if(start + size > slab.byteSize()) {
+			final long next = Math.max(slab.byteSize() * 2, size + alignment);
+			slab = slab(next);
+			offset = 0;
+			return allocate(size, alignment);
+		}
+
+		// Allocate slice
+		final MemorySegment segment = slab.asSlice(start, size);
+		segment.fill((byte) 0);
+		offset = start + size;
+		allocated += size;
+
+		return segment;
+	}
+
+	/**
+	 * Aligns the given address.
+	 */
+	private static long align(long address, long alignment) {
+		return (address + alignment - 1) & -alignment;
+	}
+
+	/**
+	 * Marks the start of a native invocation.
+	 */
+	void push() {
+		++depth;
+	}
+
+	/**
+	 * Marks the end of a native invocation and resets this allocator if appropriate.
+	 * @see #retain(boolean)
+	 */
+	void pop() {
+		--depth;
+		if((depth == 0) && !retain) {
+			offset = 0;
+		}
+	}
+
+	/**
+	 * Resets this allocator, i.e. releases <b>all</b> allocated memory.
+	 * @throws IllegalStateException if a native method is currently being invoked
+	 */
+	public void reset() {
+		if(depth > 0) {
+			throw new IllegalStateException("Cannot reset during a native invocation");
+		}
+		offset = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StackAllocator[size=%d used=%d allocated=%d reserved=%d]", slab.byteSize(), offset, allocated, reserved);
+	}
+}
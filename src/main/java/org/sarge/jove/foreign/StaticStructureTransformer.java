@@ -0,0 +1,73 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.foreign.*;
+import java.util.List;
+
+/**
+ * A <i>static structure transformer</i> delegates to a code-generated {@link StructureMarshaller}.
+ * <p>
+ * Primitive fields are marshalled directly by the generated code.
+ * Other fields are delegated to the {@link FieldMarshal} and transformer for each field.
+ * <p>
+ * @author Sarge
+ */
+class StaticStructureTransformer extends StructureTransformer {
+	/**
+	 * Marshalling for a non-primitive structure field.
+	 * @param transformer		Field transformer
+	 * @param marshal			Off-heap marshalling
+	 */
+	@SuppressWarnings("rawtypes")
+	record StaticField(Transformer transformer, FieldMarshal marshal) {
+		/**
+		 * Constructor.
+		 * @param transformer		Field transformer
+		 * @param marshal			Off-heap marshalling
+		 */
+		StaticField {
+			requireNonNull(transformer);
+			requireNonNull(marshal);
+		}
+	}
+
+	private final StructureMarshaller<NativeStructure> marshaller;
+	private final StaticField[] fields;
+	private final StructureMarshaller.Fields delegate = new StructureMarshaller.Fields() {
+		@SuppressWarnings("unchecked")
+		@Override
+		public void marshal(int index, Object value, MemorySegment address, SegmentAllocator allocator) {
+			final StaticField field = fields[index];
+			field.marshal.marshal(value, field.transformer, address, allocator);
+		}
+
+		@Override
+		public Object unmarshal(int index, MemorySegment address) {
+			final StaticField field = fields[index];
+			return field.marshal.unmarshal(address, field.transformer);
+		}
+	};
+
+	/**
+	 * Constructor.
+	 * @param marshaller		Structure marshaller
+	 * @param layout			Structure layout
+	 * @param fields			Field marshalling in layout order
+	 */
+	StaticStructureTransformer(StructureMarshaller<NativeStructure> marshaller, GroupLayout layout, List<StaticField> fields) {
+		super(marshaller::create, layout, List.of());
+		this.marshaller = marshaller;
+		this.fields = fields.toArray(StaticField[]::new);
+	}
+
+	@Override
+	protected void marshal(NativeStructure structure, MemorySegment address, SegmentAllocator allocator) {
+		marshaller.marshal(structure, address, delegate, allocator);
+	}
+
+	@Override
+	protected void unmarshal(MemorySegment address, NativeStructure structure) {
+		marshaller.unmarshal(address, structure, delegate);
+	}
+}
@@ -0,0 +1,148 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+import static org.sarge.jove.util.Validation.requireZeroOrMore;
+
+import java.lang.foreign.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A <i>structure array</i> is a read-only view of an array of native structures that remains backed by off-heap memory.
+ * <p>
+ * A structure array is an alternative to a by-reference structure array parameter for methods that return a large number of results, e.g. enumerating extensions.
+ * Rather than unmarshalling <b>every</b> element when the native method returns, each element is unmarshalled <i>lazily</i> when it is first accessed.
+ * <p>
+ * Example:
+ * <pre>
+ * interface Library {
+ *     void method(IntegerReference count, StructureArray&lt;SomeStructure&gt; array);
+ * }
+ *
+ * var array = new StructureArray&lt;&gt;(SomeStructure.class, length);
+ * library.method(count, array);
+ * SomeStructure first = array.getFirst();
+ * </pre>
+ * <p>
+ * The off-heap memory is allocated when the array is first passed to a native method and is released when the view is no longer referenced.
+ * Alternatively the application can provide the off-heap memory, e.g. to reuse a segment for repeated queries.
+ * The same view can also be passed to a native method repeatedly, in which case the off-heap memory is reused.
+ * Elements are unmarshalled on demand and cached, i.e. the structure instances returned by this view should be treated as read-only.
+ * <p>
+ * @param <T> Structure type
+ * @see StructureArrayTransformer
+ * @author Sarge
+ */
+public final class StructureArray<T extends NativeStructure> extends AbstractList<T> implements RandomAccess {
+	private final Class<T> type;
+	private final Object[] elements;
+	private MemorySegment address;
+	private long stride;
+	private Function<MemorySegment, NativeStructure> unmarshal;
+
+	/**
+	 * Constructor.
+	 * @param type			Structure type
+	 * @param length		Array length
+	 */
+	public StructureArray(Class<T> type, int length) {
+		this.type = requireNonNull(type);
+		this.elements = new Object[requireZeroOrMore(length)];
+	}
+
+	/**
+	 * Constructor for a structure array backed by the given off-heap memory.
+	 * @param type			Structure type
+	 * @param length		Array length
+	 * @param address		Off-heap memory
+	 */
+	public StructureArray(Class<T> type, int length, MemorySegment address) {
+		this(type, length);
+		this.address = requireNonNull(address);
+	}
+
+	/**
+	 * @return Structure type
+	 */
+	public Class<T> type() {
+		return type;
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * @return Whether this array is backed by off-heap memory
+	 */
+	public boolean isBound() {
+		return unmarshal != null;
+	}
+
+	/**
+	 * Allocates or resets the off-heap memory for this array.
+	 * @param transformer Structure transformer
+	 * @return Off-heap array
+	 * @throws IllegalArgumentException if the memory provided by the application is too small for this array
+	 */
+	@SuppressWarnings("resource")
+	MemorySegment bind(StructureTransformer transformer) {
+		if(unmarshal == null) {
+			final MemoryLayout layout = transformer.layout();
+			final long size = layout.byteSize() * elements.length;
+			if(address == null) {
+				address = Arena.ofAuto().allocate(layout, elements.length);
+			}
+			else
+			if(address.byteSize() < size) {
+				throw new IllegalArgumentException("Insufficient memory for structure array: required=%d actual=%d".formatted(size, address.byteSize()));
+			}
+			stride = layout.byteSize();
+			unmarshal = transformer.unmarshal();
+		}
+		else {
+			Arrays.fill(elements, null);
+		}
+		return address;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The element is unmarshalled from off-heap memory when first accessed.
+	 * @throws IllegalStateException if this array has not been populated by a native method
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		Objects.checkIndex(index, elements.length);
+
+		if(unmarshal == null) {
+			throw new IllegalStateException("Structure array has not been populated");
+		}
+
+		Object element = elements[index];
+		if(element == null) {
+			element = unmarshal.apply(address.asSlice(index * stride, stride));
+			elements[index] = element;
+		}
+
+		return (T) element;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj == this;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StructureArray[type=%s length=%d bound=%b]", type.getSimpleName(), elements.length, isBound());
+	}
+}
@@ -0,0 +1,42 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.foreign.*;
+import java.util.function.BiConsumer;
+
+/**
+ * The <i>structure array transformer</i> marshals a {@link StructureArray} view.
+ * <p>
+ * The off-heap memory for the array is owned by the view itself, therefore the native method populates the view directly and no update step is required.
+ * The transformer for the structure type is looked up from the registry when the array is first marshalled.
+ * <p>
+ * @author Sarge
+ */
+public class StructureArrayTransformer implements Transformer<StructureArray<?>, MemorySegment> {
+	private final Registry registry;
+
+	/**
+	 * Constructor.
+	 * @param registry Transformer registry
+	 */
+	public StructureArrayTransformer(Registry registry) {
+		this.registry = requireNonNull(registry);
+	}
+
+	@Override
+	public MemorySegment marshal(StructureArray<?> array, SegmentAllocator allocator) {
+		final var transformer = (StructureTransformer) registry
+				.transformer(array.type())
+				.orElseThrow(() -> new IllegalArgumentException("Unsupported structure: " + array.type()));
+
+		return array.bind(transformer);
+	}
+
+	@Override
+	public BiConsumer<MemorySegment, StructureArray<?>> update() {
+		return (_, _) -> {
+			// Populated in-place
+		};
+	}
+}
@@ -0,0 +1,272 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.Objects.requireNonNull;
+
+import java.lang.foreign.*;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.invoke.*;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle.AccessMode;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The <i>structure compiler</i> composes the field mappings of a native structure into a single method handle tree for marshalling and unmarshalling.
+ * <p>
+ * Atomic fields (primitives and simple reference types) are compiled to a handle that reads the structure field and writes directly to the off-heap field at its precomputed offset, or vice-versa.
+ * Primitive fields with an identity transformer are accessed without boxing.
+ * Other fields (arrays, nested structures) delegate to the existing {@link FieldMapping}.
+ * <p>
+ * @see CompiledStructureTransformer
+ * @author Sarge
+ */
+class StructureCompiler {
+	/**
+	 * Signature of a compiled marshalling handle.
+	 */
+	static final MethodType MARSHAL = methodType(void.class, NativeStructure.class, MemorySegment.class, SegmentAllocator.class);
+
+	/**
+	 * Signature of a compiled unmarshalling handle.
+	 */
+	static final MethodType UNMARSHAL = methodType(void.class, MemorySegment.class, NativeStructure.class);
+
+	private static final MethodHandle MAPPING_MARSHAL;
+	private static final MethodHandle MAPPING_UNMARSHAL;
+	private static final MethodHandle TRANSFORM_MARSHAL;
+	private static final MethodHandle TRANSFORM_UNMARSHAL;
+
+	static {
+		final Lookup lookup = MethodHandles.lookup();
+		try {
+			MAPPING_MARSHAL = lookup.findVirtual(FieldMapping.class, "marshal", MARSHAL);
+			MAPPING_UNMARSHAL = lookup.findVirtual(FieldMapping.class, "unmarshal", UNMARSHAL);
+			TRANSFORM_MARSHAL = lookup.findStatic(Transformer.class, "marshal", methodType(Object.class, Object.class, Transformer.class, SegmentAllocator.class));
+			TRANSFORM_UNMARSHAL = lookup.findStatic(StructureCompiler.class, "unmarshal", methodType(Object.class, Object.class, Function.class));
+		}
+		catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Lookup lookup = MethodHandles.lookup();
+	private final Class<? extends NativeStructure> type;
+	private final GroupLayout layout;
+
+	/**
+	 * Constructor.
+	 * @param type			Structure type
+	 * @param layout		Structure layout
+	 */
+	public StructureCompiler(Class<? extends NativeStructure> type, GroupLayout layout) {
+		this.type = requireNonNull(type);
+		this.layout = requireNonNull(layout);
+	}
+
+	/**
+	 * Compiles the marshalling handle for the given field mappings.
+	 * @param mappings Field mappings in the same order as the structure members
+	 * @return Marshalling handle
+	 * @see #MARSHAL
+	 */
+	public MethodHandle marshal(List<FieldMapping> mappings) {
+		return compile(mappings, MARSHAL, this::marshal);
+	}
+
+	/**
+	 * Compiles the unmarshalling handle for the given field mappings.
+	 * @param mappings Field mappings in the same order as the structure members
+	 * @return Unmarshalling handle
+	 * @see #UNMARSHAL
+	 */
+	public MethodHandle unmarshal(List<FieldMapping> mappings) {
+		return compile(mappings, UNMARSHAL, this::unmarshal);
+	}
+
+	/**
+	 * Compiles a field handle.
+	 */
+	@FunctionalInterface
+	private interface FieldCompiler {
+		/**
+		 * @param member		Structure member
+		 * @param mapping		Field mapping
+		 * @return Field handle
+		 */
+		MethodHandle compile(MemoryLayout member, FieldMapping mapping) throws ReflectiveOperationException;
+	}
+
+	/**
+	 * Compiles the given field mappings into a single method handle that invokes each field handle in turn.
+	 * @param mappings		Field mappings
+	 * @param signature		Handle signature
+	 * @param compiler		Field compiler
+	 * @return Compiled handle
+	 */
+	private MethodHandle compile(List<FieldMapping> mappings, MethodType signature, FieldCompiler compiler) {
+		final List<MemoryLayout> members = layout
+				.memberLayouts()
+				.stream()
+				.filter(member -> !(member instanceof PaddingLayout))
+				.toList();
+
+		if(members.size() != mappings.size()) {
+			throw new IllegalArgumentException("Mismatched field mappings for structure: " + type);
+		}
+
+		MethodHandle handle = MethodHandles.empty(signature);
+		for(int n = 0; n < members.size(); ++n) {
+			final MethodHandle field = field(members.get(n), mappings.get(n), compiler);
+			if(field != null) {
+				handle = MethodHandles.foldArguments(field, handle);
+			}
+		}
+
+		return handle;
+	}
+
+	/**
+	 * Compiles a field handle.
+	 * @return Field handle or {@code null} if the field is ignored
+	 * @throws RuntimeException if the field cannot be compiled
+	 */
+	private MethodHandle field(MemoryLayout member, FieldMapping mapping, FieldCompiler compiler) {
+		try {
+			return compiler.compile(member, mapping);
+		}
+		catch(ReflectiveOperationException e) {
+			throw new RuntimeException("Cannot compile structure field %s in %s".formatted(member, type), e);
+		}
+	}
+
+	/**
+	 * Compiles the marshalling handle for a structure field.
+	 */
+	private MethodHandle marshal(MemoryLayout member, FieldMapping mapping) throws ReflectiveOperationException {
+		// Delegate compound fields
+		if(!(member instanceof ValueLayout)) {
+			return MAPPING_MARSHAL.bindTo(mapping);
+		}
+
+		// Init structure field getter
+		final Field field = field(member);
+		final MethodHandle getter = lookup.unreflectGetter(field);
+
+		// Transform field value as required
+		final MethodHandle value;
+		if(isIdentity(field, mapping)) {
+			value = MethodHandles.dropArguments(getter, 1, SegmentAllocator.class);
+		}
+		else {
+			final MethodHandle transform = MethodHandles.insertArguments(TRANSFORM_MARSHAL, 1, mapping.transformer());
+			value = MethodHandles.filterArguments(transform, 0, getter.asType(methodType(Object.class, type)));
+		}
+
+		// Write off-heap field
+		final MethodHandle writer = handle(member).toMethodHandle(AccessMode.SET);
+		final MethodHandle result = MethodHandles.collectArguments(writer.asType(writer.type().changeParameterType(1, value.type().returnType())), 1, value);
+
+		// Reorder to (structure, address, allocator)
+		return MethodHandles.permuteArguments(result.asType(methodType(void.class, MemorySegment.class, NativeStructure.class, SegmentAllocator.class)), MARSHAL, 1, 0, 2);
+	}
+
+	/**
+	 * Compiles the unmarshalling handle for a structure field.
+	 * @return Unmarshalling handle or {@code null} if the field is final
+	 */
+	private MethodHandle unmarshal(MemoryLayout member, FieldMapping mapping) throws ReflectiveOperationException {
+		// Delegate compound fields
+		if(!(member instanceof ValueLayout)) {
+			return MAPPING_UNMARSHAL.bindTo(mapping);
+		}
+
+		// Skip final fields
+		final Field field = field(member);
+		if(Modifier.isFinal(field.getModifiers())) {
+			return null;
+		}
+		final MethodHandle setter = lookup.unreflectSetter(field);
+
+		// Init off-heap field reader
+		final MethodHandle reader = handle(member).toMethodHandle(AccessMode.GET);
+
+		// Transform off-heap value as required
+		final MethodHandle value;
+		if(isIdentity(field, mapping)) {
+			value = reader;
+		}
+		else {
+			final Function<?, ?> function = function(mapping);
+			if(function == null) {
+				return MAPPING_UNMARSHAL.bindTo(mapping);
+			}
+			final MethodHandle transform = MethodHandles.insertArguments(TRANSFORM_UNMARSHAL, 1, function);
+			value = MethodHandles.filterReturnValue(reader.asType(methodType(Object.class, MemorySegment.class)), transform);
+		}
+
+		// Write structure field
+		final MethodHandle result = MethodHandles.filterArguments(setter.asType(setter.type().changeParameterType(1, value.type().returnType())), 1, value);
+
+		// Reorder to (address, structure)
+		return MethodHandles.permuteArguments(result.asType(methodType(void.class, NativeStructure.class, MemorySegment.class)), UNMARSHAL, 1, 0);
+	}
+
+	/**
+	 * @return Structure field for the given member
+	 */
+	private Field field(MemoryLayout member) throws NoSuchFieldException {
+		final String name = member.name().orElseThrow();
+		return type.getField(name);
+	}
+
+	/**
+	 * @return Off-heap field handle for the given member
+	 */
+	private VarHandle handle(MemoryLayout member) {
+		final PathElement path = PathElement.groupElement(member.name().orElseThrow());
+		return Transformer.removeOffset(layout.varHandle(path));
+	}
+
+	/**
+	 * @return Whether the given field is a primitive that is marshalled as-is
+	 */
+	private static boolean isIdentity(Field field, FieldMapping mapping) {
+		return
+				field.getType().isPrimitive() &&
+				(mapping.transformer() instanceof PrimitiveTransformer<?> primitive) &&
+				(primitive.layout().carrier() == field.getType());
+	}
+
+	/**
+	 * @return Unmarshalling function or {@code null} if the field cannot be unmarshalled
+	 */
+	@SuppressWarnings("rawtypes")
+	private static Function<?, ?> function(FieldMapping mapping) {
+		try {
+			final Transformer transformer = mapping.transformer();
+			return transformer.unmarshal();
+		}
+		catch(UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Unmarshals an off-heap field value.
+	 * @param value			Off-heap value
+	 * @param function		Unmarshalling function
+	 * @return Unmarshalled value
+	 * @see AtomicFieldMarshal
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static Object unmarshal(Object value, Function function) {
+		if(MemorySegment.NULL.equals(value)) {
+			return null;
+		}
+		else {
+			return function.apply(value);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package org.sarge.jove.foreign;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.lang.foreign.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A <i>structure marshaller</i> is a static, reflection-free implementation of the marshalling logic for a native structure.
+ * <p>
+ * A structure marshaller is generally code-generated alongside the structure itself.
+ * Primitive fields are read and written directly at offsets that are precomputed by the generator.
+ * Any other field (e.g. enumerations, handles, strings, arrays, nested structures) is delegated to the {@link Fields} provided by the transformer.
+ * <p>
+ * Fields are identified by their <i>index</i> within the structure layout, ignoring padding.
+ * <p>
+ * @param <T> Structure type
+ * @see Index
+ * @see StructureTransformerFactory#index(Index)
+ * @author Sarge
+ */
+public interface StructureMarshaller<T extends NativeStructure> {
+	/**
+	 * @return Structure type
+	 */
+	Class<T> type();
+
+	/**
+	 * @return New structure instance
+	 */
+	T create();
+
+	/**
+	 * @return Types of the structure fields in layout order
+	 */
+	List<Class<?>> fields();
+
+	/**
+	 * Marshals a structure to off-heap memory.
+	 * @param structure		Structure
+	 * @param address		Off-heap structure
+	 * @param fields		Marshalling for non-primitive fields
+	 * @param allocator		Allocator
+	 */
+	void marshal(T structure, MemorySegment address, Fields fields, SegmentAllocator allocator);
+
+	/**
+	 * Unmarshals a structure from off-heap memory.
+	 * @param address		Off-heap structure
+	 * @param structure		Structure to update
+	 * @param fields		Marshalling for non-primitive fields
+	 */
+	void unmarshal(MemorySegment address, T structure, Fields fields);
+
+	/**
+	 * Marshals the non-primitive fields of a structure.
+	 */
+	interface Fields {
+		/**
+		 * Marshals a structure field.
+		 * @param index			Field index
+		 * @param value			Field value
+		 * @param address		Off-heap structure
+		 * @param allocator		Allocator
+		 */
+		void marshal(int index, Object value, MemorySegment address, SegmentAllocator allocator);
+
+		/**
+		 * Unmarshals a structure field.
+		 * @param index			Field index
+		 * @param address		Off-heap structure
+		 * @return Field value
+		 */
+		Object unmarshal(int index, MemorySegment address);
+	}
+
+	/**
+	 * An <i>index</i> maps a structure type to its marshaller.
+	 */
+	@FunctionalInterface
+	interface Index {
+		/**
+		 * Empty index.
+		 */
+		Index EMPTY = _ -> Optional.empty();
+
+		/**
+		 * Looks up the marshaller for the given structure.
+		 * @param type Structure type
+		 * @return Marshaller
+		 */
+		Optional<StructureMarshaller<?>> marshaller(Class<?> type);
+
+		/**
+		 * Creates an index for the given marshallers.
+		 * @param marshallers Structure marshallers
+		 * @return Index
+		 * @throws IllegalStateException for a duplicate structure type
+		 */
+		static Index of(List<StructureMarshaller<?>> marshallers) {
+			final Map<Class<?>, StructureMarshaller<?>> map = marshallers
+					.stream()
+					.collect(toMap(StructureMarshaller::type, Function.identity()));
+
+			return type -> Optional.ofNullable(map.get(type));
+		}
+
+		/**
+		 * Loads a code-generated index.
+		 * The index class is expected to declare a public static {@code INDEX} field.
+		 * @param name Class name of the generated index
+		 * @return Index or {@link #EMPTY} if the index has not been generated
+		 * @throws IllegalArgumentException if the index class is invalid
+		 */
+		static Index load(String name) {
+			try {
+				final Class<?> type = Class.forName(name);
+				return (Index) type.getField("INDEX").get(null);
+			}
+			catch(ClassNotFoundException e) {
+				return EMPTY;
+			}
+			catch(ReflectiveOperationException | ClassCastException e) {
+				throw new IllegalArgumentException("Invalid structure marshaller index: " + name, e);
+			}
+		}
+	}
+}
@@ -37,14 +37,16 @@ public class StructureTransformer implements Transformer<NativeStructure, Memory
 	@Override
 	public MemorySegment marshal(NativeStructure structure, SegmentAllocator allocator) {
 		final MemorySegment address = allocator.allocate(layout);
-		// TODO - no need to actually marshal if by-reference parameter
-//		for(FieldMapping f : mappings) {
-//			f.marshal(structure, address, allocator);
-//		}
 		marshal(structure, address, allocator);
 		return address;
 	}
 
+	/**
+	 * Marshals the given structure to off-heap memory.
+	 * @param structure		Structure
+	 * @param address		Off-heap memory
+	 * @param allocator		Allocator
+	 */
 	protected void marshal(NativeStructure structure, MemorySegment address, SegmentAllocator allocator) {
 		for(FieldMapping f : mappings) {
 			f.marshal(structure, address, allocator);
@@ -65,7 +67,7 @@ public class StructureTransformer implements Transformer<NativeStructure, Memory
 	 * @param address		Off-heap memory
 	 * @param structure		Structure to update
 	 */
-	private void unmarshal(MemorySegment address, NativeStructure structure) {
+	protected void unmarshal(MemorySegment address, NativeStructure structure) {
 		for(FieldMapping f : mappings) {
 			f.unmarshal(address, structure);
 		}
@@ -7,22 +7,52 @@ import java.lang.foreign.MemoryLayout.PathElement;
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Field;
-import java.util.List;
+import java.util.*;
 import java.util.function.*;
 
+import org.sarge.jove.foreign.StaticStructureTransformer.StaticField;
+
 /**
  * The <i>structure transformer factory</i> generates the transformer for a native structure.
+ * <p>
+ * By default structure fields are marshalled reflectively via the {@link FieldMapping} for each field.
+ * Alternatively the factory can be configured to <i>compile</i> the field mappings of each structure into a single method handle tree.
+ * <p>
+ * Structures that have a code-generated {@link StructureMarshaller} registered in the {@link #index(StructureMarshaller.Index)} are marshalled statically without reflection.
+ * <p>
+ * @see StructureCompiler
  * @author Sarge
  */
 public class StructureTransformerFactory implements Registry.Factory<NativeStructure> {
 	private final Registry registry;
+	private final boolean compile;
+	private StructureMarshaller.Index index = StructureMarshaller.Index.EMPTY;
 
 	/**
 	 * Constructor.
+	 * @param registry		Transformer registry
+	 * @param compile		Whether to compile structure marshalling
+	 * @see StructureCompiler
+	 */
+	public StructureTransformerFactory(Registry registry, boolean compile) {
+		this.registry = requireNonNull(registry);
+		this.compile = compile;
+	}
+
+	/**
+	 * Constructor for a factory that marshals structures reflectively.
 	 * @param registry Transformer registry
 	 */
 	public StructureTransformerFactory(Registry registry) {
-		this.registry = requireNonNull(registry);
+		this(registry, false);
+	}
+
+	/**
+	 * Sets the index of code-generated structure marshallers.
+	 * @param index Structure marshaller index
+	 */
+	public void index(StructureMarshaller.Index index) {
+		this.index = requireNonNull(index);
 	}
 
 	/**
@@ -36,6 +66,12 @@ public class StructureTransformerFactory implements Registry.Factory<NativeStruc
 	 */
 	@Override
 	public StructureTransformer transformer(Class<? extends NativeStructure> type) {
+		// Delegate to generated marshaller if available
+		final var marshaller = index.marshaller(type);
+		if(marshaller.isPresent()) {
+			return transformer(marshaller.get());
+		}
+
 		// Create structure factory
 		final Supplier<NativeStructure> factory = () -> instance(type);
 
@@ -54,7 +90,26 @@ public class StructureTransformerFactory implements Registry.Factory<NativeStruc
 		final List<FieldMapping> mappings = builder.build();
 
 		// Create transformer
-		return new StructureTransformer(factory, layout, mappings);
+		if(compile) {
+			final var compiler = new StructureCompiler(type, layout);
+			return new CompiledStructureTransformer(factory, layout, mappings, compiler);
+		}
+		else {
+			return new StructureTransformer(factory, layout, mappings);
+		}
+	}
+
+	/**
+	 * Creates a transformer that delegates to a code-generated marshaller.
+	 * @param marshaller Structure marshaller
+	 * @return Static transformer
+	 */
+	@SuppressWarnings("unchecked")
+	private StaticStructureTransformer transformer(StructureMarshaller<?> marshaller) {
+		final GroupLayout layout = marshaller.create().layout();
+		final var builder = new FieldMappingBuilder(marshaller.type(), layout);
+		final List<StaticField> fields = builder.build(marshaller.fields());
+		return new StaticStructureTransformer((StructureMarshaller<NativeStructure>) marshaller, layout, fields);
 	}
 
 	/**
@@ -105,11 +160,41 @@ public class StructureTransformerFactory implements Registry.Factory<NativeStruc
 		}
 
 		private List<FieldMapping> buildLocal() {
+			return members()
+					.stream()
+					.map(this::mapping)
+					.toList();
+		}
+
+		/**
+		 * Builds the field marshalling for a structure with a code-generated marshaller.
+		 * @param types Field types in layout order
+		 * @return Field marshalling
+		 * @throws IllegalArgumentException if the field types do not match the structure layout
+		 */
+		private List<StaticField> build(List<Class<?>> types) {
+			final List<MemoryLayout> members = members();
+			if(members.size() != types.size()) {
+				throw new IllegalArgumentException("Mismatched structure marshaller fields: " + structure);
+			}
+
+			final var fields = new ArrayList<StaticField>();
+			for(int n = 0; n < types.size(); ++n) {
+				final MemoryLayout member = members.get(n);
+				final Class<?> type = types.get(n);
+				fields.add(new StaticField(transformer(type, member), marshal(member, type)));
+			}
+			return fields;
+		}
+
+		/**
+		 * @return Structure members excluding padding
+		 */
+		private List<MemoryLayout> members() {
 			return layout
 					.memberLayouts()
 					.stream()
 					.filter(Predicate.not(member -> member instanceof PaddingLayout))
-					.map(this::mapping)
 					.toList();
 		}
 
@@ -119,33 +204,52 @@ public class StructureTransformerFactory implements Registry.Factory<NativeStruc
 		 * @return Field mapping
 		 */
 		private FieldMapping mapping(MemoryLayout member) {
-			// Lookup member name
-			final String name = member
-					.name()
-					.orElseThrow(() -> new IllegalArgumentException("Anonymous structure member: " + member));
-
 			// Get handle to structure field
-			final VarHandle local = local(name);
+			final VarHandle local = local(name(member));
 			final Class<?> type = local.varType();
 
-			// Lookup field transformer
-			final var transformer = registry
+			// Create mapping
+			return new FieldMapping(local, transformer(type, member), marshal(member, type));
+		}
+
+		/**
+		 * @return Name of the given structure member
+		 * @throws IllegalArgumentException if the member is anonymous
+		 */
+		private static String name(MemoryLayout member) {
+			return member
+					.name()
+					.orElseThrow(() -> new IllegalArgumentException("Anonymous structure member: " + member));
+		}
+
+		/**
+		 * Looks up the transformer for a structure field.
+		 * @param type			Field type
+		 * @param member		Structure member
+		 * @return Field transformer
+		 * @throws IllegalArgumentException if the field type is not supported
+		 */
+		@SuppressWarnings("rawtypes")
+		private Transformer transformer(Class<?> type, MemoryLayout member) {
+			return registry
 					.transformer(type)
 					.orElseThrow(() -> new IllegalArgumentException("Unsupported field type %s in %s".formatted(type, member)));
+		}
 
-			// Init path to this member
-			final PathElement path = PathElement.groupElement(name);
-
-			// Build field marshalling adapter depending on layout
-			final FieldMarshal marshal = switch(member) {
+		/**
+		 * Builds the off-heap marshalling for a structure field depending on its layout.
+		 * @param member		Structure member
+		 * @param type			Field type
+		 * @return Field marshalling
+		 */
+		private FieldMarshal marshal(MemoryLayout member, Class<?> type) {
+			final PathElement path = PathElement.groupElement(name(member));
+			return switch(member) {
 				case ValueLayout _			-> value(path);
 				case SequenceLayout seq		-> sequence(path, type, seq);
 				case GroupLayout nested		-> nested(path, nested);
 				default -> throw new IllegalArgumentException("Unsupported structure field layout: " + member);
 			};
-
-			// Create mapping
-			return new FieldMapping(local, transformer, marshal);
 		}
 
 		/**
@@ -0,0 +1,203 @@
+package org.sarge.jove.foreign;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.lang.invoke.*;
+import java.util.*;
+
+import org.sarge.jove.foreign.NativeTrace.Call;
+
+/**
+ * A <i>trace replay</i> drives a recorded stream of native invocations against a target implementation.
+ * <p>
+ * A trace can be replayed against:
+ * <ul>
+ * <li>a Java {@link Target}, e.g. a stub that validates the call stream in a regression test</li>
+ * <li>a native library via a {@link SymbolLookup}</li>
+ * <li>local no-op native functions, i.e. to benchmark the overhead of the native invocations without the underlying library or hardware</li>
+ * </ul>
+ * <p>
+ * For a native replay each method is linked <b>once</b> using the signature of the first recorded invocation.
+ * Recorded off-heap contents are copied to off-heap memory for each invocation.
+ * The replayed arguments are the recorded <i>inputs</i>, i.e. the contents of off-heap arguments before the original invocation, see {@link Call#outputs()}.
+ * Note that other addresses (e.g. handles) are replayed as-is and are therefore only meaningful for a stub implementation.
+ * <p>
+ * @see NativeTrace
+ * @author Sarge
+ */
+public class TraceReplay {
+	/**
+	 * A <i>target</i> is a Java implementation of the replayed invocations.
+	 */
+	@FunctionalInterface
+	public interface Target {
+		/**
+		 * Invokes a recorded native method.
+		 * @param method		Method name
+		 * @param args			Marshalled arguments
+		 * @return Return value
+		 */
+		Object invoke(String method, Object[] args);
+	}
+
+	private final Linker linker = Linker.nativeLinker();
+	private final List<Call> calls;
+
+	/**
+	 * Constructor.
+	 * @param calls Recorded invocations
+	 */
+	public TraceReplay(List<Call> calls) {
+		this.calls = List.copyOf(calls);
+	}
+
+	/**
+	 * Loads a trace.
+	 * @param in Input stream
+	 * @return Replay
+	 * @throws IOException if the trace cannot be loaded
+	 * @see NativeTrace#read(InputStream)
+	 */
+	public static TraceReplay load(InputStream in) throws IOException {
+		return new TraceReplay(NativeTrace.read(in));
+	}
+
+	/**
+	 * @return Recorded invocations
+	 */
+	public List<Call> calls() {
+		return calls;
+	}
+
+	/**
+	 * Replays the recorded invocations against the given Java target.
+	 * @param target Target
+	 */
+	public void replay(Target target) {
+		for(Call call : calls) {
+			target.invoke(call.method(), call.args().toArray());
+		}
+	}
+
+	/**
+	 * Replays the recorded invocations against the given native library.
+	 * @param lookup Native library
+	 * @throws IllegalArgumentException if a recorded method is not present in the library
+	 */
+	public void replay(SymbolLookup lookup) {
+		replayNative(call -> lookup
+				.find(call.method())
+				.orElseThrow(() -> new IllegalArgumentException("Unknown native method: " + call.method())));
+	}
+
+	/**
+	 * Replays the recorded invocations against local no-op native functions that return zero.
+	 */
+	public void replay() {
+		try(Arena arena = Arena.ofConfined()) {
+			replayNative(call -> stub(call, arena));
+		}
+	}
+
+	/**
+	 * Creates a no-op native function for the given invocation.
+	 * @param call			Invocation
+	 * @param arena			Arena
+	 * @return Function address
+	 */
+	private MemorySegment stub(Call call, Arena arena) {
+		final FunctionDescriptor descriptor = descriptor(call);
+		final MethodType type = descriptor.toMethodType();
+		final MethodHandle empty = (type.returnType() == MemorySegment.class) ? address(type) : MethodHandles.empty(type);
+		return linker.upcallStub(empty, descriptor, arena);
+	}
+
+	/**
+	 * @return No-op method that returns a {@code NULL} pointer
+	 */
+	private static MethodHandle address(MethodType type) {
+		final MethodHandle constant = MethodHandles.constant(MemorySegment.class, MemorySegment.NULL);
+		return MethodHandles.dropArguments(constant, 0, type.parameterList());
+	}
+
+	/**
+	 * Resolves the native function for an invocation.
+	 */
+	private interface Resolver {
+		MemorySegment resolve(Call call);
+	}
+
+	/**
+	 * Replays the recorded invocations.
+	 * @param resolver Resolves native functions
+	 */
+	private void replayNative(Resolver resolver) {
+		final Map<String, MethodHandle> handles = new HashMap<>();
+		final var allocator = new StackAllocator();
+		for(Call call : calls) {
+			// Link native method
+			final MethodHandle handle = handles.computeIfAbsent(call.method(), _ -> link(call, resolver.resolve(call)));
+
+			// Copy recorded off-heap arguments
+			final Object[] args = call.args().toArray();
+			allocator.push();
+			try {
+				for(int n = 0; n < args.length; ++n) {
+					if((args[n] instanceof MemorySegment segment) && !segment.isNative()) {
+						args[n] = allocator.allocate(segment.byteSize(), Long.BYTES).copyFrom(segment);
+					}
+				}
+
+				// Invoke native method
+				final Object _ = (Object) handle.invokeExact(args);
+			}
+			catch(Throwable e) {
+				throw new RuntimeException("Error replaying native method: " + call.method(), e);
+			}
+			finally {
+				allocator.pop();
+			}
+		}
+	}
+
+	/**
+	 * Links the native method for the given invocation.
+	 * @param call			Invocation
+	 * @param address		Function address
+	 * @return Native method adapted to {@code (Object[]) Object}
+	 */
+	private MethodHandle link(Call call, MemorySegment address) {
+		final FunctionDescriptor descriptor = descriptor(call);
+		final MethodHandle handle = linker.downcallHandle(address, descriptor);
+		return handle
+				.asSpreader(Object[].class, call.args().size())
+				.asType(MethodType.methodType(Object.class, Object[].class));
+	}
+
+	/**
+	 * Derives the function descriptor of a recorded invocation.
+	 * @param call Invocation
+	 * @return Function descriptor
+	 */
+	static FunctionDescriptor descriptor(Call call) {
+		final MemoryLayout[] layouts = call
+				.args()
+				.stream()
+				.map(NativeTrace::layout)
+				.toArray(MemoryLayout[]::new);
+
+		if(call.result() == null) {
+			return FunctionDescriptor.ofVoid(layouts);
+		}
+		else {
+			return FunctionDescriptor.of(NativeTrace.layout(call.result()), layouts);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TraceReplay[calls=%d]", calls.size());
+	}
+}
@@ -3,6 +3,7 @@ package org.sarge.jove.foreign;
 import static java.util.Objects.requireNonNull;
 
 import java.lang.foreign.*;
+import java.lang.reflect.Array;
 import java.util.function.*;
 
 /**
@@ -15,20 +16,45 @@ import java.util.function.*;
  * <li>Cannot be returned from a native method</li>
  * </ul>
  * <p>
+ * An <i>output only</i> parameter is not marshalled, the off-heap memory is simply allocated and zeroed before the native method is invoked.
+ * For a {@link StructureArray} the memory bound to the view is reused and zeroed, i.e. no memory is allocated for repeated invocations.
+ * <p>
+ * @see Updated
+ * @see Returned
+ * <p>
  * @author Sarge
  */
 class UpdateTransformer<T> implements Transformer<T, MemorySegment> {
 	private final Transformer<T, MemorySegment> delegate;
 	private final BiConsumer<MemorySegment, T> update;
+	private final boolean output;
 
 	/**
 	 * Constructor.
-	 * @param delegate Delegate transformer
+	 * @param delegate		Delegate transformer
+	 * @param output		Whether this is an output only parameter
 	 * @throws UnsupportedOperationException if {#link delegate} cannot be used as a by-reference parameter
 	 */
-	public UpdateTransformer(Transformer<T, MemorySegment> delegate) {
+	public UpdateTransformer(Transformer<T, MemorySegment> delegate, boolean output) {
 		this.delegate = requireNonNull(delegate);
 		this.update = delegate.update();
+		this.output = output;
+	}
+
+	/**
+	 * Constructor.
+	 * @param delegate Delegate transformer
+	 * @throws UnsupportedOperationException if {#link delegate} cannot be used as a by-reference parameter
+	 */
+	public UpdateTransformer(Transformer<T, MemorySegment> delegate) {
+		this(delegate, false);
+	}
+
+	/**
+	 * @return Whether this is an output only parameter
+	 */
+	public boolean isOutput() {
+		return output;
 	}
 
 	@Override
@@ -38,7 +64,28 @@ class UpdateTransformer<T> implements Transformer<T, MemorySegment> {
 
 	@Override
 	public MemorySegment marshal(T arg, SegmentAllocator allocator) {
-		return delegate.marshal(arg, allocator);
+		if(output) {
+			return allocate(arg, allocator);
+		}
+		else {
+			return delegate.marshal(arg, allocator);
+		}
+	}
+
+	/**
+	 * Allocates off-heap memory for an output only parameter.
+	 * @param arg			Argument
+	 * @param allocator		Allocator
+	 * @return Zeroed off-heap memory
+	 * @see StructureArray#bind(StructureTransformer)
+	 */
+	private MemorySegment allocate(T arg, SegmentAllocator allocator) {
+		return switch(delegate) {
+			case StructureTransformer structure -> allocator.allocate(structure.layout());
+			case AbstractArrayTransformer array -> allocator.allocate(array.component.layout(), Array.getLength(arg));
+			case StructureArrayTransformer _ -> delegate.marshal(arg, allocator).fill((byte) 0);
+			default -> delegate.marshal(arg, allocator);
+		};
 	}
 
 	@Override
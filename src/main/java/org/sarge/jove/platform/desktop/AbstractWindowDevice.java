@@ -43,7 +43,7 @@ abstract class AbstractWindowDevice<E extends Event, T extends Callback> impleme
 
 		// Bind listener to callback
 		final BiConsumer<Window, T> method = method((DeviceLibrary) window.library());
-		method.accept(window, callback);
+		window.register(getClass(), callback, method);
 
 		return callback;
 	}
@@ -70,7 +70,7 @@ abstract class AbstractWindowDevice<E extends Event, T extends Callback> impleme
 		}
 
 		final BiConsumer<Window, T> method = method((DeviceLibrary) window.library());
-		method.accept(window, null);
+		window.register(getClass(), null, method);
 
 		callback = null;
 	}
@@ -37,7 +37,8 @@ public class Desktop implements TransientObject {
 
 		// TODO
 		final var registry = DefaultRegistry.create();
-		registry.add(Callback.class, new CallbackTransformerFactory(registry));
+		final var callbacks = new CallbackTransformerFactory(registry);
+		registry.add(Callback.class, callbacks);
 
 		// Load native library
 		final var factory = new NativeLibraryFactory("C:/GLFW/lib-mingw-w64/glfw3.dll", registry); // TODO - name
@@ -48,10 +49,11 @@ public class Desktop implements TransientObject {
 				DeviceLibrary.class,
 		};
 		final var library = (DesktopLibrary) factory.build(List.of(api));
+		registry.freeze();
 		// TODO - JoystickManager.init(lib);
 
 		// Create desktop service
-		return new Desktop(library);
+		return new Desktop(library, callbacks);
 	}
 
 	/**
@@ -64,15 +66,18 @@ public class Desktop implements TransientObject {
 	}
 
 	private final DesktopLibrary library;
+	private final CallbackTransformerFactory callbacks;
 	private boolean destroyed;
 
 	/**
 	 * Constructor.
-	 * @param library GLFW library
+	 * @param library		GLFW library
+	 * @param callbacks		Callback factory
 	 * @throws RuntimeException if GLFW fails to initialise
 	 */
-	Desktop(DesktopLibrary library) {
+	Desktop(DesktopLibrary library, CallbackTransformerFactory callbacks) {
 		this.library = requireNonNull(library);
+		this.callbacks = requireNonNull(callbacks);
 		init();
 	}
 
@@ -137,6 +142,14 @@ public class Desktop implements TransientObject {
 		return AbstractArrayTransformer.unmarshal(handle.address(), count.get(), StringTransformer::unmarshal);
 	}
 
+	/**
+	 * Releases a registration of a callback that is no longer referenced by GLFW.
+	 * @param callback Callback to release
+	 */
+	void release(Callback callback) {
+		callbacks.release(callback);
+	}
+
 	@Override
 	public boolean isDestroyed() {
 		return destroyed;
@@ -147,6 +160,7 @@ public class Desktop implements TransientObject {
 	public void destroy() {
 		if(destroyed) throw new IllegalStateException();
 		library.glfwTerminate();
+		callbacks.release();
 		destroyed = true;
 	}
 }
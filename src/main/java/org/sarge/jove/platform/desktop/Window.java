@@ -5,7 +5,7 @@ import static org.sarge.jove.util.Validation.requireNotEmpty;
 
 import java.lang.foreign.MemorySegment;
 import java.util.*;
-import java.util.function.BiConsumer;
+import java.util.function.*;
 
 import org.sarge.jove.common.*;
 import org.sarge.jove.foreign.*;
@@ -67,15 +67,19 @@ public class Window extends AbstractNativeObject {
 	private final Keyboard keyboard = new Keyboard(this);
 	private final Mouse mouse = new Mouse(new MouseButtons(this), new MousePointer(this), new MouseWheel(this));
 	private final WindowLibrary library;
+	private final Consumer<Callback> release;
+	private final Map<Object, Callback> callbacks = new HashMap<>();
 
 	/**
 	 * Constructor.
 	 * @param window	Window handle
 	 * @param library	Window library
+	 * @param release	Releases a callback registration that has been replaced or removed from this window
 	 */
-	Window(Handle window, WindowLibrary library) {
+	Window(Handle window, WindowLibrary library, Consumer<Callback> release) {
 		super(window);
 		this.library = requireNonNull(library);
+		this.release = requireNonNull(release);
 	}
 
 	/**
@@ -85,6 +89,28 @@ public class Window extends AbstractNativeObject {
 		return library;
 	}
 
+	/**
+	 * Registers a GLFW callback with this window.
+	 * The registration of the previous callback (if any) is released.
+	 * @param <T> Callback type
+	 * @param key			Callback key
+	 * @param callback		Callback or {@code null} to remove the callback
+	 * @param setter		GLFW callback setter
+	 */
+	@MainThread
+	<T extends Callback> void register(Object key, T callback, BiConsumer<Window, T> setter) {
+		// Register callback
+		setter.accept(this, callback);
+
+		// Record callback
+		final Callback previous = (callback == null) ? callbacks.remove(key) : callbacks.put(key, callback);
+
+		// Release replaced callback
+		if(previous != null) {
+			release.accept(previous);
+		}
+	}
+
 	/**
 	 * @return Keyboard device for this window
 	 */
@@ -213,7 +239,7 @@ public class Window extends AbstractNativeObject {
 			case MINIMISE	-> library::glfwSetWindowIconifyCallback;
 			case CLOSE		-> library::glfwSetWindowCloseCallback;
 		};
-		method.accept(this, listener);
+		register(type, listener, method);
 	}
 
 	/**
@@ -235,13 +261,15 @@ public class Window extends AbstractNativeObject {
 	 */
 	@MainThread
 	public void resize(WindowResizeListener listener) {
-		library.glfwSetFramebufferSizeCallback(this, listener);
+		register(WindowResizeListener.class, listener, library::glfwSetFramebufferSizeCallback);
 	}
 
 	@Override
 	@MainThread
 	protected void release() {
 		library.glfwDestroyWindow(this);
+		callbacks.values().forEach(release);
+		callbacks.clear();
 	}
 
 	@Override
@@ -328,7 +356,7 @@ public class Window extends AbstractNativeObject {
 			}
 
 			// Create domain object
-			return new Window(window, library);
+			return new Window(window, library, desktop::release);
 		}
 	}
 }
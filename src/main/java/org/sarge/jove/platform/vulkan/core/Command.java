@@ -207,10 +207,13 @@ public interface Command {
 		 * Resets this command buffer.
 		 * @param flags Reset flags
 		 * @throws IllegalStateException if this buffer has not been recorded
+		 * @throws IllegalStateException if the pool does not support {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER}
 		 */
 		public void reset(VkCommandBufferResetFlags... flags) {
 			check(Stage.EXECUTABLE);
-			// TODO - check pool has flag
+			if(!pool.flags().contains(VkCommandPoolCreateFlags.RESET_COMMAND_BUFFER)) {
+				throw new IllegalStateException("Command pool does not support resettable command buffers: " + this);
+			}
 			final EnumMask<VkCommandBufferResetFlags> mask = new EnumMask<>(flags);
 			pool.library.vkResetCommandBuffer(this, mask);
 			stage(Stage.INITIAL);
@@ -268,10 +271,11 @@ public interface Command {
 			library.vkCreateCommandPool(device, info, null, pointer);
 
 			// Create domain object
-			return new Pool(pointer.handle(), device, queue);
+			return new Pool(pointer.handle(), device, queue, Set.of(flags));
 		}
 
 		private final WorkQueue queue;
+		private final Set<VkCommandPoolCreateFlags> flags;
 		private final Library library;
 		private final List<Buffer> buffers = new ArrayList<>();
 
@@ -280,13 +284,25 @@ public interface Command {
 		 * @param handle 		Command pool handle
 		 * @param device		Logical device
 		 * @param queue			Work queue
+		 * @param flags			Creation flags
 		 */
-		Pool(Handle handle, LogicalDevice device, WorkQueue queue) {
+		Pool(Handle handle, LogicalDevice device, WorkQueue queue, Set<VkCommandPoolCreateFlags> flags) {
 			super(handle, device);
 			this.queue = requireNonNull(queue);
+			this.flags = Set.copyOf(flags);
 			this.library = device.library();
 		}
 
+		/**
+		 * Constructor for a pool without creation flags.
+		 * @param handle 		Command pool handle
+		 * @param device		Logical device
+		 * @param queue			Work queue
+		 */
+		Pool(Handle handle, LogicalDevice device, WorkQueue queue) {
+			this(handle, device, queue, Set.of());
+		}
+
 		/**
 		 * @return Work queue for this pool
 		 */
@@ -294,6 +310,13 @@ public interface Command {
 			return queue;
 		}
 
+		/**
+		 * @return Creation flags of this pool
+		 */
+		public Set<VkCommandPoolCreateFlags> flags() {
+			return flags;
+		}
+
 		/**
 		 * @return Buffers allocated by this pool
 		 */
@@ -0,0 +1,87 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import java.util.*;
+
+import org.sarge.jove.common.TransientObject;
+
+/**
+ * A <i>destruction queue</i> defers the destruction of resources that may still be in use by work executing on the hardware.
+ * <p>
+ * Resources are queued by {@link #add(TransientObject)} and are destroyed when the queue is {@link #flush()}ed.
+ * The queue should be flushed once the work that last used the queued resources has completed, e.g. after the fence of an in-flight frame has been signalled.
+ * This avoids the need to block on {@link LogicalDevice#waitIdle()} before destroying a resource.
+ * <p>
+ * The queue also records the following metrics:
+ * <ul>
+ * <li>{@link #size()} is the number of resources awaiting destruction</li>
+ * <li>{@link #peak()} is the maximum size of the queue</li>
+ * <li>{@link #destroyed()} is the total number of resources destroyed by this queue</li>
+ * </ul>
+ * <p>
+ * @see org.sarge.jove.platform.vulkan.present.FrameState#queue()
+ * @author Sarge
+ */
+public class DestructionQueue {
+	private final List<TransientObject> queue = new ArrayList<>();
+	private int peak, destroyed;
+
+	/**
+	 * @return Number of resources awaiting destruction
+	 */
+	public synchronized int size() {
+		return queue.size();
+	}
+
+	/**
+	 * @return Maximum number of resources that have been queued
+	 */
+	public synchronized int peak() {
+		return peak;
+	}
+
+	/**
+	 * @return Number of resources destroyed by this queue
+	 */
+	public synchronized int destroyed() {
+		return destroyed;
+	}
+
+	/**
+	 * Queues a resource to be destroyed.
+	 * @param object Resource to destroy
+	 * @throws IllegalArgumentException if the resource has already been destroyed or queued
+	 */
+	public synchronized void add(TransientObject object) {
+		if(object.isDestroyed()) {
+			throw new IllegalArgumentException("Resource has already been destroyed: " + object);
+		}
+		if(queue.contains(object)) {
+			throw new IllegalArgumentException("Resource has already been queued: " + object);
+		}
+		queue.add(object);
+		peak = Math.max(peak, queue.size());
+	}
+
+	/**
+	 * Destroys all queued resources.
+	 * Resources that have been destroyed in the meantime are ignored.
+	 * @return Number of destroyed resources
+	 */
+	public synchronized int flush() {
+		int count = 0;
+		for(TransientObject object : queue) {
+			if(!object.isDestroyed()) {
+				object.destroy();
+				++count;
+			}
+		}
+		queue.clear();
+		destroyed += count;
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("DestructionQueue[size=%d peak=%d destroyed=%d]", size(), peak(), destroyed());
+	}
+}
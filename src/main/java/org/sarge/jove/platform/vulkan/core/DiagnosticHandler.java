@@ -17,7 +17,11 @@ import org.sarge.jove.util.IntEnum.ReverseMapping;
 
 /**
  * A <i>diagnostic handler</i> is a listener for Vulkan diagnostic messages.
+ * <p>
+ * Note that the handler is invoked from within the Vulkan command that generated the message, therefore the library <b>must</b> be created without critical linking.
+ * <p>
  * @see Vulkan#STANDARD_VALIDATION
+ * @see Vulkan#create(boolean, boolean)
  * @author Sarge
  */
 public class DiagnosticHandler extends AbstractNativeObject {
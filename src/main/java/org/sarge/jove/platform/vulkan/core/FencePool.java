@@ -0,0 +1,100 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.*;
+
+import org.sarge.jove.common.AbstractTransientObject;
+
+/**
+ * A <i>fence pool</i> recycles fences used to synchronise one-off work submissions.
+ * <p>
+ * A fence is obtained by {@link #acquire()} which reuses a previously recycled fence or creates a new fence as required.
+ * Fences are {@link Fence#reset()} and returned to the pool by {@link #recycle(Fence)}.
+ * <p>
+ * Usage:
+ * <pre>
+ * FencePool pool = new FencePool(device);
+ * Fence fence = pool.acquire();
+ * work.submit(fence);
+ * fence.waitReady();
+ * pool.recycle(fence);
+ * </pre>
+ * @author Sarge
+ */
+public class FencePool extends AbstractTransientObject {
+	private final LogicalDevice device;
+	private final Deque<Fence> free = new ArrayDeque<>();
+	private int created, reused;
+
+	/**
+	 * Constructor.
+	 * @param device Logical device
+	 */
+	public FencePool(LogicalDevice device) {
+		this.device = requireNonNull(device);
+	}
+
+	/**
+	 * @return Number of fences available for reuse
+	 */
+	public synchronized int size() {
+		return free.size();
+	}
+
+	/**
+	 * @return Number of fences created by this pool
+	 */
+	public synchronized int created() {
+		return created;
+	}
+
+	/**
+	 * @return Number of times a fence has been reused
+	 */
+	public synchronized int reused() {
+		return reused;
+	}
+
+	/**
+	 * Acquires an unsignalled fence from this pool.
+	 * @return Fence
+	 */
+	public synchronized Fence acquire() {
+		final Fence fence = free.poll();
+		if(fence == null) {
+			++created;
+			return Fence.create(device);
+		}
+		else {
+			++reused;
+			return fence;
+		}
+	}
+
+	/**
+	 * Resets the given fence and returns it to this pool.
+	 * @param fence Fence to recycle
+	 * @throws IllegalArgumentException if the fence has already been recycled
+	 */
+	public synchronized void recycle(Fence fence) {
+		if(free.contains(fence)) {
+			throw new IllegalArgumentException("Fence has already been recycled: " + fence);
+		}
+		fence.reset();
+		free.add(fence);
+	}
+
+	@Override
+	protected synchronized void release() {
+		for(Fence fence : free) {
+			fence.destroy();
+		}
+		free.clear();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FencePool[free=%d created=%d reused=%d]", size(), created(), reused());
+	}
+}
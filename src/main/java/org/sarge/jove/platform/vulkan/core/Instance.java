@@ -50,23 +50,25 @@ public class Instance extends AbstractNativeObject {
 
 	/**
 	 * Enumerates the extensions supported by this Vulkan implementation.
+	 * Note that each extension is only unmarshalled when it is accessed, see {@link StructureArray}.
 	 * @param library		Instance library
 	 * @param layer			Optional layer name
 	 * @return Supported extensions
 	 */
-	public static VkExtensionProperties[] extensions(Library library, String layer) {
-		final VulkanFunction<VkExtensionProperties[]> extensions = (count, array) -> library.vkEnumerateInstanceExtensionProperties(layer, count, array);
-		return VulkanFunction.invoke(extensions, VkExtensionProperties[]::new);
+	public static List<VkExtensionProperties> extensions(Library library, String layer) {
+		final VulkanFunction<StructureArray<VkExtensionProperties>> extensions = (count, array) -> library.vkEnumerateInstanceExtensionProperties(layer, count, array);
+		return VulkanFunction.invoke(extensions, size -> new StructureArray<>(VkExtensionProperties.class, size));
 	}
 
 	/**
 	 * Enumerates the layers supported by this Vulkan implementation.
+	 * Note that each layer is only unmarshalled when it is accessed, see {@link StructureArray}.
 	 * @param library Instance library
 	 * @return Supported layers
 	 */
-	public static VkLayerProperties[] layers(Library library) {
-		final VulkanFunction<VkLayerProperties[]> layers = (count, array) -> library.vkEnumerateInstanceLayerProperties(count, array);
-		return VulkanFunction.invoke(layers, VkLayerProperties[]::new);
+	public static List<VkLayerProperties> layers(Library library) {
+		final VulkanFunction<StructureArray<VkLayerProperties>> layers = (count, array) -> library.vkEnumerateInstanceLayerProperties(count, array);
+		return VulkanFunction.invoke(layers, size -> new StructureArray<>(VkLayerProperties.class, size));
 	}
 
 	/**
@@ -136,7 +138,9 @@ public class Instance extends AbstractNativeObject {
 
 		/**
 		 * Registers a required validation layer.
+		 * Note that the library <b>must</b> be created without critical linking when validation layers are enabled.
 		 * @param layer Validation layer descriptor
+		 * @see Vulkan#create(boolean, boolean)
 		 */
 		public Builder layer(String layer) {
 			requireNotEmpty(layer);
@@ -218,7 +222,7 @@ public class Instance extends AbstractNativeObject {
 		 * @param pProperties		Extensions
 		 * @return Result
 		 */
-		VkResult vkEnumerateInstanceExtensionProperties(String pLayerName, IntegerReference pPropertyCount, @Updated VkExtensionProperties[] pProperties);
+		VkResult vkEnumerateInstanceExtensionProperties(String pLayerName, IntegerReference pPropertyCount, StructureArray<VkExtensionProperties> pProperties);
 
 		/**
 		 * Enumerates supported layers.
@@ -226,7 +230,7 @@ public class Instance extends AbstractNativeObject {
 		 * @param pProperties		Layers
 		 * @return Result
 		 */
-		VkResult vkEnumerateInstanceLayerProperties(IntegerReference pPropertyCount, @Updated VkLayerProperties[] pProperties);
+		VkResult vkEnumerateInstanceLayerProperties(IntegerReference pPropertyCount, StructureArray<VkLayerProperties> pProperties);
 
 		/**
 		 * Looks up a function pointer of this instance.
@@ -76,12 +76,27 @@ public class PhysicalDevice implements NativeObject {
 	}
 
 	/**
+	 * Enumerates the extensions supported by this device.
+	 * Note that each extension is only unmarshalled when it is accessed, see {@link StructureArray}.
 	 * @param layer Optional layer name
 	 * @return Extensions supported by this device
 	 */
-	public VkExtensionProperties[] extensions(String layer) {
-		final VulkanFunction<VkExtensionProperties[]> enumerate = (count, array) -> library.vkEnumerateDeviceExtensionProperties(this, layer, count, array);
-		return VulkanFunction.invoke(enumerate, VkExtensionProperties[]::new);
+	public List<VkExtensionProperties> extensions(String layer) {
+		final VulkanFunction<StructureArray<VkExtensionProperties>> enumerate = (count, array) -> library.vkEnumerateDeviceExtensionProperties(this, layer, count, array);
+		return VulkanFunction.invoke(enumerate, size -> new StructureArray<>(VkExtensionProperties.class, size));
+	}
+
+	/**
+	 * Helper.
+	 * Determines whether this device supports the given extension.
+	 * Enumerated extensions are only unmarshalled up to the first match.
+	 * @param extension Extension name
+	 * @return Whether supported
+	 */
+	public boolean supports(String extension) {
+		return extensions(null)
+				.stream()
+				.anyMatch(properties -> extension.equals(properties.extensionName));
 	}
 
 	/**
@@ -226,21 +241,21 @@ public class PhysicalDevice implements NativeObject {
 		 * @param device		Device handle
 		 * @param props			Device properties
 		 */
-		void vkGetPhysicalDeviceProperties(PhysicalDevice device, @Updated VkPhysicalDeviceProperties props);
+		void vkGetPhysicalDeviceProperties(PhysicalDevice device, @Returned VkPhysicalDeviceProperties props);
 
 		/**
 		 * Retrieves the memory properties of the given physical device.
 		 * @param device				Device
 		 * @param pMemoryProperties		Memory properties
 		 */
-		void vkGetPhysicalDeviceMemoryProperties(PhysicalDevice device, @Updated VkPhysicalDeviceMemoryProperties pMemoryProperties);
+		void vkGetPhysicalDeviceMemoryProperties(PhysicalDevice device, @Returned VkPhysicalDeviceMemoryProperties pMemoryProperties);
 
 		/**
 		 * Retrieves the supported features of the given physical device.
 		 * @param device		Device handle
 		 * @param features		Returned features
 		 */
-		void vkGetPhysicalDeviceFeatures(Handle device, @Updated VkPhysicalDeviceFeatures features);
+		void vkGetPhysicalDeviceFeatures(Handle device, @Returned VkPhysicalDeviceFeatures features);
 
 		/**
 		 * Enumerates the queue families of a device.
@@ -257,9 +272,9 @@ public class PhysicalDevice implements NativeObject {
 		 * @param count			Number of extensions
 		 * @param extensions	Returned extensions (pointer-to-array)
 		 * @return Result
-		 * @see Instance.Library#vkEnumerateInstanceExtensionProperties(String, IntegerReference, VkExtensionProperties[])
+		 * @see Instance.Library#vkEnumerateInstanceExtensionProperties(String, IntegerReference, StructureArray)
 		 */
-		VkResult vkEnumerateDeviceExtensionProperties(PhysicalDevice device, String layer, IntegerReference count, @Updated VkExtensionProperties[] extensions);
+		VkResult vkEnumerateDeviceExtensionProperties(PhysicalDevice device, String layer, IntegerReference count, StructureArray<VkExtensionProperties> extensions);
 
 		/**
 		 * Enumerates device-specific validation layers.
@@ -268,7 +283,7 @@ public class PhysicalDevice implements NativeObject {
 		 * @param extensions	Returned layers (pointer-to-array)
 		 * @return Result
 		 * @deprecated Since 1.0.13 device-only layers are deprecated and this method <b>must</b> return the layers for the Vulkan implementation
-		 * @see Instance.Library#vkEnumerateInstanceLayerProperties(IntegerReference, VkLayerProperties[])
+		 * @see Instance.Library#vkEnumerateInstanceLayerProperties(IntegerReference, StructureArray)
 		 */
 		@Deprecated
 		VkResult vkEnumerateDeviceLayerProperties(PhysicalDevice device, IntegerReference count, @Updated VkLayerProperties[] layers);
@@ -279,6 +294,6 @@ public class PhysicalDevice implements NativeObject {
 		 * @param format		Format
 		 * @param props			Returned format properties
 		 */
-		void vkGetPhysicalDeviceFormatProperties(PhysicalDevice device, VkFormat format, @Updated VkFormatProperties props);
+		void vkGetPhysicalDeviceFormatProperties(PhysicalDevice device, VkFormat format, @Returned VkFormatProperties props);
 	}
 }
@@ -7,7 +7,7 @@ import java.lang.foreign.MemorySegment;
 import java.util.Set;
 
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.Pointer;
+import org.sarge.jove.foreign.*;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.Command.Buffer;
 import org.sarge.jove.util.EnumMask;
@@ -256,8 +256,8 @@ public interface Query {
 		}
 
 		/**
-		 * TODO - MemorySegment transformer
 		 * Retrieves query results to the given memory.
+		 * Note that a heap segment is copied to off-heap memory and the results are copied back after invocation.
 		 * @param results Results memory
 		 */
 		public void get(MemorySegment results) {
@@ -377,8 +377,7 @@ public interface Query {
 		 * @param stride			Data stride (bytes)
 		 * @param flags				Query flags
 		 */
-		VkResult vkGetQueryPoolResults(LogicalDevice device, Pool queryPool, int firstQuery, int queryCount, long dataSize, MemorySegment pData, long stride, EnumMask<VkQueryResultFlags> flags);
-		// TODO - MemorySegment transformer
+		VkResult vkGetQueryPoolResults(LogicalDevice device, Pool queryPool, int firstQuery, int queryCount, long dataSize, @Updated MemorySegment pData, long stride, EnumMask<VkQueryResultFlags> flags);
 
 		/**
 		 * Writes query results to a Vulkan buffer.
@@ -0,0 +1,260 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static java.util.Objects.requireNonNull;
+import static org.sarge.jove.util.Validation.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.*;
+
+import org.sarge.jove.common.AbstractTransientObject;
+import org.sarge.jove.platform.vulkan.VkBufferUsageFlags;
+
+/**
+ * A <i>staging ring</i> is a single, persistently mapped staging buffer that is sub-allocated for transient uploads.
+ * <p>
+ * Each upload is allocated a {@link Region} of the buffer that is associated with the fence of the frame (or work) that consumes that region, see {@link org.sarge.jove.platform.vulkan.present.FrameState#fence()}.
+ * Regions are allocated sequentially and wrap around to the start of the buffer when the end is reached.
+ * A region is only reused once the fence that <b>last</b> used it has been signalled, i.e. allocation blocks if the ring is exhausted.
+ * <p>
+ * Each frame is a separate <i>submission</i> that is started by {@link #begin(Fence)} with the fence of that frame once the fence of that frame has been waited on and reset, see {@link org.sarge.jove.platform.vulkan.present.FrameState#acquire(org.sarge.jove.platform.vulkan.present.Swapchain)}.
+ * Regions are allocated for the fence of the current submission and those staged by a previous submission for the same fence are reused <b>without</b> blocking.
+ * <p>
+ * Note that the regions staged for a single submission must fit within the ring and the ring is <b>not</b> thread-safe.
+ * <p>
+ * Usage:
+ * <pre>
+ * // Create ring
+ * StagingRing ring = StagingRing.create(factory, 4 * 1024 * 1024);
+ *
+ * // Start the current frame
+ * frame.acquire(swapchain);
+ * ring.begin(frame.fence());
+ *
+ * // Stage data for the current frame
+ * Region region = ring.allocate(data.byteSize());
+ * region.segment().copyFrom(data);
+ *
+ * // Record upload
+ * Command copy = region.copy(destination, 0);
+ * </pre>
+ * @author Sarge
+ */
+public class StagingRing extends AbstractTransientObject {
+	/**
+	 * Default alignment of each region.
+	 */
+	public static final long DEFAULT_ALIGNMENT = 16;
+
+	/**
+	 * Creates a staging ring.
+	 * @param factory		Buffer factory
+	 * @param size			Size of the ring (bytes)
+	 * @return New staging ring
+	 * @see VulkanBuffer.Factory#staging(long)
+	 */
+	public static StagingRing create(VulkanBuffer.Factory factory, long size) {
+		final VulkanBuffer buffer = factory.staging(size);
+		return new StagingRing(buffer, DEFAULT_ALIGNMENT);
+	}
+
+	/**
+	 * A <i>region</i> is a writable slice of the staging ring.
+	 * @param buffer		Staging buffer
+	 * @param offset		Offset of this region
+	 * @param segment		Mapped memory of this region
+	 */
+	public record Region(VulkanBuffer buffer, long offset, MemorySegment segment) {
+		/**
+		 * Constructor.
+		 * @param buffer		Staging buffer
+		 * @param offset		Offset of this region
+		 * @param segment		Mapped memory of this region
+		 */
+		public Region {
+			requireNonNull(buffer);
+			requireZeroOrMore(offset);
+			requireNonNull(segment);
+		}
+
+		/**
+		 * @return Size of this region (bytes)
+		 */
+		public long size() {
+			return segment.byteSize();
+		}
+
+		/**
+		 * Creates a command to copy this region to the given buffer.
+		 * @param destination		Destination buffer
+		 * @param offset			Destination offset
+		 * @return Copy command
+		 * @throws IllegalArgumentException if the destination buffer is too small
+		 * @throws IllegalStateException if the destination is not a {@link VkBufferUsageFlags#TRANSFER_DST}
+		 */
+		public BufferCopyCommand copy(VulkanBuffer destination, long offset) {
+			return new BufferCopyCommand.Builder()
+					.source(buffer)
+					.destination(destination)
+					.region(this.offset, offset, size())
+					.build();
+		}
+	}
+
+	/**
+	 * An in-flight span of the ring.
+	 * Note that offsets are <i>virtual</i>, i.e. increase monotonically as the ring wraps around.
+	 */
+	private record Span(long start, long end, Fence fence, long generation) {
+	}
+
+	private final VulkanBuffer buffer;
+	private final MemorySegment mapped;
+	private final long alignment;
+	private final Deque<Span> spans = new ArrayDeque<>();
+	private long head;
+	private long generation;
+	private Fence current;
+
+	/**
+	 * Constructor.
+	 * @param buffer			Persistently mapped staging buffer
+	 * @param alignment			Alignment of each region
+	 * @throws IllegalStateException if the buffer is not a {@link VkBufferUsageFlags#TRANSFER_SRC}
+	 * @throws IllegalArgumentException if the alignment is not a power-of-two
+	 */
+	public StagingRing(VulkanBuffer buffer, long alignment) {
+		if(Long.bitCount(alignment) != 1) {
+			throw new IllegalArgumentException("Alignment must be a power-of-two: " + alignment);
+		}
+		buffer.require(VkBufferUsageFlags.TRANSFER_SRC);
+		this.buffer = buffer;
+		this.mapped = buffer.map();
+		this.alignment = alignment;
+	}
+
+	/**
+	 * @return Staging buffer
+	 */
+	public VulkanBuffer buffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return Size of this ring (bytes)
+	 */
+	public long size() {
+		return buffer.length();
+	}
+
+	/**
+	 * @return Number of bytes currently in-flight
+	 */
+	public long used() {
+		if(spans.isEmpty()) {
+			return 0;
+		}
+		return head - spans.peekFirst().start;
+	}
+
+	/**
+	 * Starts a new submission for the given fence.
+	 * The fence <b>must</b> have been waited on before this method is invoked, i.e. regions previously staged for this fence are no longer in use.
+	 * @param fence Fence of the current frame
+	 */
+	public void begin(Fence fence) {
+		current = requireNonNull(fence);
+		++generation;
+	}
+
+	/**
+	 * Allocates a region of this ring for the current submission.
+	 * Blocks if the region is still in use by a previous frame.
+	 * @param size Region size (bytes)
+	 * @return New region
+	 * @throws IllegalArgumentException if the size is larger than this ring
+	 * @throws IllegalStateException if no submission has been started or the ring is exhausted by the current submission
+	 * @see #begin(Fence)
+	 */
+	public Region allocate(long size) {
+		requireOneOrMore(size);
+		if(current == null) {
+			throw new IllegalStateException("Submission has not been started");
+		}
+		final long capacity = buffer.length();
+		if(size > capacity) {
+			throw new IllegalArgumentException("Region is larger than the staging ring: size=%d ring=%d".formatted(size, capacity));
+		}
+
+		// Align region and wrap to the start of the buffer as required
+		long start = align(head);
+		if((start % capacity) + size > capacity) {
+			start = (start / capacity + 1) * capacity;
+		}
+		final long end = start + size;
+
+		// Wait for any previous frames that overlap this region
+		retire(end - capacity);
+
+		// Record in-flight region
+		add(start, end);
+		head = end;
+
+		// Create region
+		final long offset = start % capacity;
+		return new Region(buffer, offset, mapped.asSlice(offset, size));
+	}
+
+	/**
+	 * Releases in-flight spans that overlap the given virtual offset.
+	 * Spans previously staged for the current fence are released immediately since that fence has already been waited on, otherwise blocks on the fence of each span.
+	 * @param limit Virtual offset
+	 * @throws IllegalStateException if a span of the current submission would be overwritten
+	 */
+	private void retire(long limit) {
+		Fence prev = null;
+		while(!spans.isEmpty() && (spans.peekFirst().start < limit)) {
+			final Span span = spans.peekFirst();
+			if((span.fence == current) && (span.generation == generation)) {
+				throw new IllegalStateException("Staging ring exhausted by the current submission: " + this);
+			}
+			spans.removeFirst();
+			if((span.fence != current) && (span.fence != prev)) {
+				span.fence.waitReady();
+				prev = span.fence;
+			}
+		}
+	}
+
+	/**
+	 * Records an in-flight span, merging with the previous span of the same submission.
+	 */
+	private void add(long start, long end) {
+		final Span last = spans.peekLast();
+		if((last != null) && (last.fence == current) && (last.generation == generation)) {
+			spans.removeLast();
+			spans.addLast(new Span(last.start, end, current, generation));
+		}
+		else {
+			spans.addLast(new Span(start, end, current, generation));
+		}
+	}
+
+	/**
+	 * Aligns the given offset.
+	 */
+	private long align(long offset) {
+		return (offset + alignment - 1) & -alignment;
+	}
+
+	@Override
+	protected void release() {
+		spans.clear();
+		current = null;
+		buffer.destroy();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StagingRing[size=%d used=%d spans=%d]", buffer.length(), used(), spans.size());
+	}
+}
@@ -0,0 +1,128 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import java.util.*;
+
+import org.sarge.jove.common.AbstractTransientObject;
+import org.sarge.jove.platform.vulkan.VkCommandPoolCreateFlags;
+import org.sarge.jove.platform.vulkan.core.Command.*;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer.Stage;
+
+/**
+ * A <i>transient command pool</i> recycles the primary command buffers used for one-off work, e.g. uploads and layout transitions.
+ * <p>
+ * A buffer is obtained by {@link #acquire()} which reuses a previously recycled buffer or allocates a new buffer from the underlying pool.
+ * Buffers are reset and returned to this pool by {@link #recycle(Buffer)} which prevents unbounded growth of the buffers allocated by the underlying pool.
+ * <p>
+ * Note that the underlying pool <b>must</b> be created with the {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER} flag.
+ * <p>
+ * @see Work#submit(Command, TransientCommandPool, FencePool)
+ * @author Sarge
+ */
+public class TransientCommandPool extends AbstractTransientObject {
+	private final Pool pool;
+	private final Deque<Buffer> free = new ArrayDeque<>();
+	private int allocated, reused;
+
+	/**
+	 * Constructor.
+	 * @param pool Underlying command pool
+	 * @throws IllegalArgumentException if the pool does not support {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER}
+	 */
+	public TransientCommandPool(Pool pool) {
+		if(!pool.flags().contains(VkCommandPoolCreateFlags.RESET_COMMAND_BUFFER)) {
+			throw new IllegalArgumentException("Transient command pool requires resettable command buffers: " + pool);
+		}
+		this.pool = pool;
+	}
+
+	/**
+	 * @return Underlying command pool
+	 */
+	public Pool pool() {
+		return pool;
+	}
+
+	/**
+	 * @return Number of buffers available for reuse
+	 */
+	public synchronized int size() {
+		return free.size();
+	}
+
+	/**
+	 * @return Number of buffers allocated by this pool
+	 */
+	public synchronized int allocated() {
+		return allocated;
+	}
+
+	/**
+	 * @return Number of times a buffer has been reused
+	 */
+	public synchronized int reused() {
+		return reused;
+	}
+
+	/**
+	 * Acquires a primary command buffer that is ready for recording.
+	 * @return Command buffer
+	 */
+	public synchronized Buffer acquire() {
+		final Buffer buffer = free.poll();
+		if(buffer == null) {
+			++allocated;
+			return pool.allocate(1, true).getFirst();
+		}
+		else {
+			++reused;
+			return buffer;
+		}
+	}
+
+	/**
+	 * Resets the given buffer and returns it to this pool.
+	 * A buffer that is still recording is released back to the underlying pool.
+	 * @param buffer Command buffer to recycle
+	 * @throws IllegalArgumentException if the buffer was not allocated by this pool or has already been recycled
+	 */
+	public synchronized void recycle(Buffer buffer) {
+		// Check buffer can be recycled
+		if(buffer.pool() != pool) {
+			throw new IllegalArgumentException("Buffer was not allocated by this pool: " + buffer);
+		}
+		if(free.contains(buffer)) {
+			throw new IllegalArgumentException("Buffer has already been recycled: " + buffer);
+		}
+
+		// Reset buffer
+		switch(buffer.stage()) {
+			case EXECUTABLE -> buffer.reset();
+			case INITIAL -> {
+				// Already reset
+			}
+			default -> {
+				// Discard buffers that cannot be reset
+				if(buffer.stage() != Stage.INVALID) {
+					buffer.free();
+				}
+				return;
+			}
+		}
+
+		// Return to pool
+		free.add(buffer);
+	}
+
+	@Override
+	protected synchronized void release() {
+		if(!free.isEmpty()) {
+			pool.free(free);
+			free.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TransientCommandPool[free=%d allocated=%d reused=%d]", size(), allocated(), reused());
+	}
+}
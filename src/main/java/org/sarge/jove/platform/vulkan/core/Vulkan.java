@@ -21,14 +21,48 @@ public interface Vulkan {
 	 */
 	Version VERSION = new Version(1, 1, 0);
 
+	/**
+	 * Class name of the generated structure marshaller index.
+	 */
+	String INDEX = "org.sarge.jove.platform.vulkan.VulkanStructureIndex";
+
 	/**
 	 * Instantiates the Vulkan native library.
 	 * @return Vulkan library
+	 * @see #create(boolean)
 	 */
 	static VulkanCoreLibrary create() {
+		return create(false);
+	}
+
+	/**
+	 * Instantiates the Vulkan native library.
+	 * @param compile Whether to compile the marshalling of structures that do not have a code-generated marshaller
+	 * @return Vulkan library
+	 * @see #create(boolean, boolean)
+	 */
+	static VulkanCoreLibrary create(boolean compile) {
+		return create(compile, false);
+	}
+
+	/**
+	 * Instantiates the Vulkan native library.
+	 * <p>
+	 * If {@link #critical} is enabled the trivial command recording methods are linked as critical downcalls.
+	 * Note that critical linking <b>must</b> be disabled if validation layers or a {@link DiagnosticHandler} are configured, since the layers call the handler from within the command that reported the error.
+	 * <p>
+	 * @param compile		Whether to compile the marshalling of structures that do not have a code-generated marshaller
+	 * @param critical		Whether to enable critical linking, i.e. for applications without validation layers
+	 * @return Vulkan library
+	 * @see DefaultRegistry#create(StructureMarshaller.Index, boolean)
+	 * @see NativeLibraryFactory#critical(boolean)
+	 */
+	static VulkanCoreLibrary create(boolean compile, boolean critical) {
 		// Init API factory
-		final Registry registry = DefaultRegistry.create();
+		final Registry registry = DefaultRegistry.create(StructureMarshaller.Index.load(INDEX), compile);
+		registry.freeze();
 		final var factory = new NativeLibraryFactory("vulkan-1", registry);
+		factory.critical(critical);
 
 		// Configure success code handler
 		final Consumer<Object> handler = code -> {
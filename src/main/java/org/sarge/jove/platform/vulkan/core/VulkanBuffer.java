@@ -138,6 +138,17 @@ public class VulkanBuffer extends VulkanObject {
 		MemorySegment.copy(data, 0, address, ValueLayout.JAVA_BYTE, 0L, data.length);
 	}
 
+	/**
+	 * Helper.
+	 * Writes the given off-heap data to this buffer without an intermediate copy.
+	 * @param data Data to write
+	 * @see #map()
+	 */
+	public void write(MemorySegment data) {
+		final MemorySegment address = this.map();
+		MemorySegment.copy(data, 0L, address, 0L, data.byteSize());
+	}
+
 	/**
 	 * Creates a command to copy the whole of this buffer to the given destination.
 	 * @param destination Destination buffer
@@ -320,7 +331,16 @@ public class VulkanBuffer extends VulkanObject {
 		 * @param pBuffer					Buffer
 		 * @param pMemoryRequirements		Returned memory requirements
 		 */
-		void vkGetBufferMemoryRequirements(LogicalDevice device, Handle pBuffer, @Updated VkMemoryRequirements pMemoryRequirements);
+		void vkGetBufferMemoryRequirements(LogicalDevice device, Handle pBuffer, @Returned VkMemoryRequirements pMemoryRequirements);
+
+		/**
+		 * Queries the memory requirements of the given buffer into a reusable structure array of length one.
+		 * @param device					Logical device
+		 * @param pBuffer					Buffer
+		 * @param pMemoryRequirements		Returned memory requirements
+		 * @see Returned
+		 */
+		void vkGetBufferMemoryRequirements(LogicalDevice device, Handle pBuffer, @Returned StructureArray<VkMemoryRequirements> pMemoryRequirements);
 
 		/**
 		 * Binds the memory for the given buffer.
@@ -340,6 +360,7 @@ public class VulkanBuffer extends VulkanObject {
 		 * @param pBuffers			Buffer(s)
 		 * @param pOffsets			Buffer offset(s)
 		 */
+		@Critical(heap = true)
 		void vkCmdBindVertexBuffers(Buffer commandBuffer, int firstBinding, int bindingCount, VulkanBuffer[] pBuffers, long[] pOffsets);
 
 		/**
@@ -158,12 +158,13 @@ public record Work(List<Buffer> buffers, Map<VulkanSemaphore, Set<VkPipelineStag
 	/**
 	 * Helper.
 	 * Submits the given command as a {@link VkCommandBufferUsage#ONE_TIME_SUBMIT} primary command buffer and blocks until completion.
+	 * The command buffer is released back to the pool on completion.
 	 * @param cmd		Command
 	 * @param pool		Pool
-	 * @return Allocated command buffer
 	 * @see #submit(CommandBuffer)
+	 * @see #submit(Command, TransientCommandPool, FencePool)
 	 */
-	public static Buffer submit(Command cmd, Pool pool) {
+	public static void submit(Command cmd, Pool pool) {
 		final Buffer buffer = pool
 				.allocate(1, true)
 				.getFirst()
@@ -171,9 +172,35 @@ public record Work(List<Buffer> buffers, Map<VulkanSemaphore, Set<VkPipelineStag
 				.add(cmd)
 				.end();
 
-		submit(buffer);
+		try {
+			submit(buffer);
+		}
+		finally {
+			buffer.free();
+		}
+	}
 
-		return buffer;
+	/**
+	 * Helper.
+	 * Submits the given command as a {@link VkCommandBufferUsage#ONE_TIME_SUBMIT} primary command buffer and blocks until completion.
+	 * The command buffer and fence are recycled on completion.
+	 * @param cmd			Command
+	 * @param buffers		Transient command buffers
+	 * @param fences		Fence pool
+	 */
+	public static void submit(Command cmd, TransientCommandPool buffers, FencePool fences) {
+		final Buffer buffer = buffers.acquire();
+		try {
+			buffer
+					.begin(VkCommandBufferUsageFlags.ONE_TIME_SUBMIT)
+					.add(cmd)
+					.end();
+
+			submit(buffer, fences);
+		}
+		finally {
+			buffers.recycle(buffer);
+		}
 	}
 
 	/**
@@ -186,19 +213,40 @@ public record Work(List<Buffer> buffers, Map<VulkanSemaphore, Set<VkPipelineStag
 		final LogicalDevice device = buffer.pool().device();
 		final Fence fence = Fence.create(device);
 
-		// Create work instance
-		final Work work = new Builder().add(buffer).build();
-
 		// Submit work and block
 		try {
-			work.submit(fence);
-			fence.waitReady();
+			submit(buffer, fence);
 		}
 		finally {
 			fence.destroy();
 		}
 	}
 
+	/**
+	 * Helper.
+	 * Submits the given command buffer and blocks until completion using a fence from the given pool.
+	 * @param buffer		Command buffer
+	 * @param fences		Fence pool
+	 */
+	public static void submit(Buffer buffer, FencePool fences) {
+		final Fence fence = fences.acquire();
+		try {
+			submit(buffer, fence);
+		}
+		finally {
+			fences.recycle(fence);
+		}
+	}
+
+	/**
+	 * Submits the given buffer and blocks on the given fence.
+	 */
+	private static void submit(Buffer buffer, Fence fence) {
+		final Work work = new Builder().add(buffer).build();
+		work.submit(fence);
+		fence.waitReady();
+	}
+
 	/**
 	 * Builder for a work submission.
 	 */
@@ -1,12 +1,19 @@
 package org.sarge.jove.platform.vulkan.generator;
 
+import static java.util.stream.Collectors.joining;
 import static org.sarge.jove.platform.vulkan.generator.GeneratorHelper.UNDERSCORE;
 
-import java.util.Map;
+import java.util.*;
+import java.util.Map.Entry;
 import java.util.function.*;
 
+import org.sarge.jove.util.IntEnum.ReverseMapping.Tables;
+
 /**
  * The <i>enumeration generator</i> builds the template arguments for an enumeration.
+ * <p>
+ * The generated enumeration also declares the lookup {@link Tables} for its reverse mapping, i.e. the tables are not built at runtime.
+ * <p>
  * @author Sarge
  */
 class EnumerationGenerator {
@@ -36,18 +43,94 @@ class EnumerationGenerator {
 				.distinct()
 				.toList();
 
+		// Build reverse mapping lookup tables
+		final var tables = new TablesBuilder(values);
+
 		// Build template arguments
 		final String name = enumeration.name().replaceFirst("FlagBits", "Flags");
 		return Map.of(
 				"name", name,
-				"values", values
+				"values", values,
+				"dense", tables.dense(),
+				"bits", tables.bits(),
+				"keys", tables.keys(),
+				"sparse", tables.sparse()
 		);
 	}
 
+	/**
+	 * Builds the reverse mapping lookup tables of an enumeration as lists of constants.
+	 * @see Tables#build(Class)
+	 */
+	private static class TablesBuilder {
+		private final Map<Integer, String> small = new HashMap<>();
+		private final Map<Integer, String> large = new TreeMap<>();
+		private final String[] bits = new String[Integer.SIZE];
+
+		/**
+		 * Constructor.
+		 * @param values Enumeration constants
+		 */
+		TablesBuilder(List<Entry<String, Integer>> values) {
+			for(var entry : values) {
+				// Partition constants by value ignoring synonyms
+				final int value = entry.getValue();
+				final Map<Integer, String> map = (value >= 0) && (value < Tables.DENSE) ? small : large;
+				map.putIfAbsent(value, entry.getKey());
+
+				// Add single-bit constants
+				if(Integer.bitCount(value) == 1) {
+					final int index = Integer.numberOfTrailingZeros(value);
+					if(bits[index] == null) {
+						bits[index] = entry.getKey();
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return Dense lookup table for small values
+		 */
+		String dense() {
+			final int length = small.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+			final String[] dense = new String[length];
+			small.forEach((value, key) -> dense[value] = key);
+			return join(Arrays.asList(dense));
+		}
+
+		/**
+		 * @return Single-bit constants indexed by bit position
+		 */
+		String bits() {
+			return join(Arrays.asList(bits));
+		}
+
+		/**
+		 * @return Sorted remaining values
+		 */
+		String keys() {
+			return join(large.keySet());
+		}
+
+		/**
+		 * @return Constants for the remaining values
+		 */
+		String sparse() {
+			return join(large.values());
+		}
+
+		private static String join(Collection<?> entries) {
+			return entries
+					.stream()
+					.map(String::valueOf)
+					.collect(joining(", "));
+		}
+	}
+
 	/**
 	 * @return Truncate adapter for a enumeration entry
 	 */
-	private static UnaryOperator<Map.Entry<String, Integer>> adapter(String name) {
+	private static UnaryOperator<Entry<String, Integer>> adapter(String name) {
 		final var truncate = truncate(name);
 
 		return entry -> {
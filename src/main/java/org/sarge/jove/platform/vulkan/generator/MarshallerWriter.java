@@ -0,0 +1,139 @@
+package org.sarge.jove.platform.vulkan.generator;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import java.lang.foreign.*;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.util.*;
+
+/**
+ * The <i>marshaller writer</i> generates the source code for the static marshaller of a structure.
+ * <p>
+ * Primitive fields are read and written directly at the offset of the field within the structure layout.
+ * Any other field is delegated to the transformer for that field by its index.
+ * <p>
+ * @see org.sarge.jove.foreign.StructureMarshaller
+ * @author Sarge
+ */
+class MarshallerWriter {
+	private static final Set<String> PRIMITIVES = Set.of("byte", "short", "int", "long", "float", "double");
+	private static final String BOOLEAN = "boolean";
+
+	private final GroupLayout layout;
+	private final LayoutWriter writer = new LayoutWriter(1);
+
+	/**
+	 * Constructor.
+	 * @param layout Structure layout
+	 */
+	public MarshallerWriter(GroupLayout layout) {
+		this.layout = requireNonNull(layout);
+	}
+
+	/**
+	 * Writes the field types of the given structure.
+	 * @param fields Structure fields
+	 * @return Field types
+	 */
+	public String types(List<StructureField<NativeType>> fields) {
+		return fields
+				.stream()
+				.map(field -> erasure(field.type().name()) + ".class")
+				.collect(joining(", "));
+	}
+
+	/**
+	 * Writes the statements to marshal the given structure fields.
+	 * @param fields Structure fields
+	 * @return Marshalling statements
+	 */
+	public List<String> marshal(List<StructureField<NativeType>> fields) {
+		final var lines = new ArrayList<String>();
+		for(int n = 0; n < fields.size(); ++n) {
+			final StructureField<NativeType> field = fields.get(n);
+			final String name = field.name();
+			final String type = field.type().name();
+			final String value = "structure." + name;
+
+			if(isPrimitive(field)) {
+				final String primitive = type.equals(BOOLEAN) ? value + " ? 1 : 0" : value;
+				lines.add(String.format("address.set(%s, %dL, %s);", access(name), offset(name), primitive));
+			}
+			else {
+				lines.add(String.format("fields.marshal(%d, %s, address, allocator);", n, value));
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Writes the statements to unmarshal the given structure fields.
+	 * @param fields Structure fields
+	 * @return Unmarshalling statements
+	 */
+	public List<String> unmarshal(List<StructureField<NativeType>> fields) {
+		final var lines = new ArrayList<String>();
+		for(int n = 0; n < fields.size(); ++n) {
+			final StructureField<NativeType> field = fields.get(n);
+			final String name = field.name();
+			final String type = field.type().name();
+
+			if(isPrimitive(field)) {
+				final String get = String.format("address.get(%s, %dL)", access(name), offset(name));
+				final String value = type.equals(BOOLEAN) ? get + " != 0" : get;
+				lines.add(String.format("structure.%s = %s;", name, value));
+			}
+			else {
+				lines.add(String.format("structure.%s = (%s) fields.unmarshal(%d, address);", name, type, n));
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * @return Whether the given field can be marshalled directly
+	 */
+	private boolean isPrimitive(StructureField<NativeType> field) {
+		final String type = field.type().name();
+		if(!PRIMITIVES.contains(type) && !type.equals(BOOLEAN)) {
+			return false;
+		}
+
+		return member(field.name()) instanceof ValueLayout;
+	}
+
+	/**
+	 * @return Layout of the given structure member
+	 */
+	private MemoryLayout member(String name) {
+		return layout.select(PathElement.groupElement(name));
+	}
+
+	/**
+	 * @return Source code for the value layout used to access the given field
+	 */
+	private String access(String name) {
+		return writer.write(member(name));
+	}
+
+	/**
+	 * @return Offset of the given field
+	 */
+	private long offset(String name) {
+		return layout.byteOffset(PathElement.groupElement(name));
+	}
+
+	/**
+	 * @return Erasure of the given type name
+	 */
+	private static String erasure(String type) {
+		final int index = type.indexOf('<');
+		if(index == -1) {
+			return type;
+		}
+		else {
+			return type.substring(0, index);
+		}
+	}
+}
@@ -6,7 +6,7 @@ import java.lang.foreign.GroupLayout;
 import java.util.*;
 
 /**
- * The <i>structure generator</i> builds the template arguments for a structure or union.
+ * The <i>structure generator</i> builds the template arguments for a structure or union and its static marshaller.
  * Also registers the generated layout with the type mapper.
  * @author Sarge
  */
@@ -54,11 +54,17 @@ class StructureGenerator {
 		final var writer = new LayoutWriter(3);
 		final String layout = writer.write(group);
 
+		// Generate static marshaller
+		final var marshaller = new MarshallerWriter(group);
+
 		// Build template arguments
 		return Map.of(
-				"name",		structure.name(),
-				"fields",	arguments,
-				"layout",	layout
+				"name",			structure.name(),
+				"fields",		arguments,
+				"layout",		layout,
+				"types",		marshaller.types(fields),
+				"marshal",		marshaller.marshal(fields),
+				"unmarshal",	marshaller.unmarshal(fields)
 		);
 	}
 
@@ -17,6 +17,7 @@ class VulkanGenerator {
 	private final TemplateProcessor template = new TemplateProcessor();
 	private final Map<String, Integer> constants = new HashMap<>();
 	private final FilePrinter printer;
+	private final List<String> index = new ArrayList<>();
 
 	private int enumerations;
 	private int structures;
@@ -42,6 +43,16 @@ class VulkanGenerator {
 				case "VK_DEFINE_NON_DISPATCHABLE_HANDLE", "VK_DEFINE_HANDLE" -> handle();
 			}
 		}
+
+		index();
+	}
+
+	/**
+	 * Generates the index of the structure marshallers.
+	 */
+	private void index() {
+		final String source = template.generate("index-template.txt", Map.of("structures", index));
+		printer.print("VulkanStructureIndex", source);
 	}
 
 	/**
@@ -179,6 +190,7 @@ class VulkanGenerator {
 		// Generate source code
 		final String source = template.generate("structure-template.txt", arguments);
 		printer.print(structure.name(), source);
+		index.add(structure.name());
 		++structures;
 	}
 
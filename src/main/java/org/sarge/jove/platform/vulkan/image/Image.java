@@ -179,7 +179,16 @@ public interface Image extends NativeObject, TransientObject {
 		 * @param image					Image
 		 * @param pMemoryRequirements	Returned memory requirements
 		 */
-		void vkGetImageMemoryRequirements(LogicalDevice device, Handle image, @Updated VkMemoryRequirements pMemoryRequirements);
+		void vkGetImageMemoryRequirements(LogicalDevice device, Handle image, @Returned VkMemoryRequirements pMemoryRequirements);
+
+		/**
+		 * Retrieves the memory requirements for the given image into a reusable structure array of length one.
+		 * @param device				Logical device
+		 * @param image					Image
+		 * @param pMemoryRequirements	Returned memory requirements
+		 * @see Returned
+		 */
+		void vkGetImageMemoryRequirements(LogicalDevice device, Handle image, @Returned StructureArray<VkMemoryRequirements> pMemoryRequirements);
 
 		/**
 		 * Binds image memory.
@@ -3,7 +3,7 @@ package org.sarge.jove.platform.vulkan.pipeline;
 import static java.util.Objects.requireNonNull;
 
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.Updated;
+import org.sarge.jove.foreign.*;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.core.Command.Buffer;
@@ -110,6 +110,7 @@ public class Pipeline extends VulkanObject {
 		 * @param pipelineBindPoint		Bind-point
 		 * @param pipeline				Pipeline to bind
 		 */
+		@Critical
 		void vkCmdBindPipeline(Buffer commandBuffer, VkPipelineBindPoint pipelineBindPoint, Pipeline pipeline);
 
 		/**
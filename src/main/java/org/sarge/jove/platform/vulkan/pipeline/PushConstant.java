@@ -7,7 +7,6 @@ import static org.sarge.jove.util.Validation.*;
 import java.lang.foreign.*;
 import java.util.*;
 
-import org.sarge.jove.common.Handle;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.util.EnumMask;
@@ -211,8 +210,7 @@ public class PushConstant {
 		public void execute(Buffer buffer) {
 			final PipelineLayout.Library library = layout.device().library();
 			final var stages = new EnumMask<>(range.stages);
-			library.vkCmdPushConstants(buffer, layout, stages, range.offset, range.size, new Handle(data));
+			library.vkCmdPushConstants(buffer, layout, stages, range.offset, range.size, data);
 		}
 	}
-	// TODO - use MemorySegment directly rather than Handle?
 }
@@ -0,0 +1,322 @@
+package org.sarge.jove.platform.vulkan.pipeline;
+
+import static java.util.Objects.requireNonNull;
+import static org.sarge.jove.platform.vulkan.VkAccessFlags.*;
+import static org.sarge.jove.platform.vulkan.VkImageLayout.*;
+import static org.sarge.jove.platform.vulkan.VkPipelineStageFlags.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import org.sarge.jove.common.AbstractTransientObject;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.platform.vulkan.core.*;
+import org.sarge.jove.platform.vulkan.core.Command.*;
+import org.sarge.jove.platform.vulkan.core.WorkQueue.Family;
+import org.sarge.jove.platform.vulkan.image.Image;
+import org.sarge.jove.platform.vulkan.pipeline.Barrier.BarrierType;
+import org.sarge.jove.platform.vulkan.pipeline.Barrier.BarrierType.*;
+
+/**
+ * The <i>upload service</i> batches buffer and image transfers onto a dedicated transfer queue.
+ * <p>
+ * Uploads are queued by {@link #upload(Command, VulkanBuffer)} or {@link #upload(Command, Image, VkImageLayout)} which return a future for each transfer.
+ * Pending uploads are recorded into a single one-shot command buffer and submitted as one batch by {@link #flush()}.
+ * <p>
+ * Each upload is followed by a <i>release</i> barrier that transfers ownership of the resource from the transfer queue family to the destination family.
+ * The future for an upload is completed with the corresponding <i>acquire</i> barrier which <b>must</b> be recorded on the destination queue before the resource is used.
+ * Where the transfer and destination queues belong to the same family the release barrier also performs any image layout transition
+ * and the acquire barrier is a plain memory barrier that simply synchronises access to the uploaded resources.
+ * <p>
+ * Note that the service does not block on the submitted work, completed batches are detected and released by {@link #poll()}, e.g. once per frame.
+ * <p>
+ * Usage:
+ * <pre>
+ * // Create service
+ * UploadService service = new UploadService(pool, graphics.family());
+ *
+ * // Queue uploads
+ * CompletableFuture&lt;Barrier&gt; future = service.upload(copy, buffer);
+ * future.thenAccept(acquire -&gt; ...);
+ *
+ * // Submit pending uploads
+ * service.flush();
+ *
+ * // Complete finished uploads
+ * service.poll();
+ * </pre>
+ * @author Sarge
+ */
+public class UploadService extends AbstractTransientObject {
+	/**
+	 * A pending upload.
+	 * @param copy			Transfer command
+	 * @param barrier		Ownership barrier
+	 * @param layout		Whether the resource is an image that is transitioned to the transfer layout
+	 * @param acquire		Acquire barrier
+	 * @param future		Completion future
+	 */
+	private record Upload(Command copy, BarrierType barrier, boolean layout, Barrier acquire, CompletableFuture<Barrier> future) {
+	}
+
+	/**
+	 * An in-flight batch of uploads.
+	 * @param buffer		Command buffer
+	 * @param fence			Completion fence
+	 * @param uploads		Uploads in this batch
+	 */
+	private record Batch(Buffer buffer, Fence fence, List<Upload> uploads) {
+		/**
+		 * Completes the uploads in this batch and releases resources.
+		 */
+		void complete() {
+			buffer.free();
+			fence.destroy();
+			for(Upload upload : uploads) {
+				upload.future.complete(upload.acquire);
+			}
+		}
+	}
+
+	private final Pool pool;
+	private final LogicalDevice device;
+	private final Family source, destination;
+	private final List<Upload> pending = new ArrayList<>();
+	private final Deque<Batch> batches = new ArrayDeque<>();
+
+	/**
+	 * Constructor.
+	 * @param pool				Command pool for the transfer queue
+	 * @param destination		Queue family that consumes uploaded resources
+	 */
+	public UploadService(Pool pool, Family destination) {
+		this.pool = requireNonNull(pool);
+		this.device = pool.device();
+		this.destination = requireNonNull(destination);
+		this.source = pool.queue().family();
+	}
+
+	/**
+	 * @return Whether the transfer and destination queues belong to different families, i.e. whether ownership of uploaded resources is transferred
+	 */
+	public boolean isOwnershipTransfer() {
+		return !source.equals(destination);
+	}
+
+	/**
+	 * @return Number of uploads that have not been submitted
+	 */
+	public synchronized int pending() {
+		return pending.size();
+	}
+
+	/**
+	 * @return Number of submitted batches that have not been completed
+	 */
+	public synchronized int batches() {
+		return batches.size();
+	}
+
+	/**
+	 * Queues a buffer upload.
+	 * @param copy				Transfer command
+	 * @param buffer			Destination buffer
+	 * @return Future completed with the acquire barrier for the destination queue
+	 * @throws IllegalStateException if the buffer is not a {@link VkBufferUsageFlags#TRANSFER_DST}
+	 */
+	public CompletableFuture<Barrier> upload(Command copy, VulkanBuffer buffer) {
+		buffer.require(VkBufferUsageFlags.TRANSFER_DST);
+		final Family[] families = families();
+		final var barrier = new BufferBarrier(buffer, 0L, VulkanBuffer.VK_WHOLE_SIZE, families[0], families[1]);
+		return add(copy, barrier, false);
+	}
+
+	/**
+	 * Queues an image upload.
+	 * The image is transitioned to {@link VkImageLayout#TRANSFER_DST_OPTIMAL} before the transfer and to the given layout on completion.
+	 * @param copy				Transfer command
+	 * @param image				Destination image
+	 * @param layout			Final image layout
+	 * @return Future completed with the acquire barrier for the destination queue
+	 * @throws IllegalArgumentException if the final layout is {@link VkImageLayout#TRANSFER_DST_OPTIMAL}
+	 */
+	public CompletableFuture<Barrier> upload(Command copy, Image image, VkImageLayout layout) {
+		final Family[] families = families();
+		final var barrier = new ImageBarrier(image, image.descriptor(), TRANSFER_DST_OPTIMAL, layout, families[0], families[1]);
+		return add(copy, barrier, true);
+	}
+
+	/**
+	 * @return Source and destination families for ownership barriers
+	 */
+	private Family[] families() {
+		if(isOwnershipTransfer()) {
+			return new Family[]{source, destination};
+		}
+		else {
+			return new Family[]{Family.IGNORED, Family.IGNORED};
+		}
+	}
+
+	/**
+	 * Queues an upload.
+	 */
+	private synchronized CompletableFuture<Barrier> add(Command copy, BarrierType barrier, boolean layout) {
+		requireNonNull(copy);
+		checkAlive();
+		final var future = new CompletableFuture<Barrier>();
+		pending.add(new Upload(copy, barrier, layout, acquire(barrier), future));
+		return future;
+	}
+
+	/**
+	 * @throws IllegalStateException if this service has been destroyed
+	 */
+	private void checkAlive() {
+		if(isDestroyed()) {
+			throw new IllegalStateException("Upload service has been destroyed");
+		}
+	}
+
+	/**
+	 * Builds the barrier that acquires ownership of an uploaded resource on the destination queue.
+	 * If ownership is not transferred the image layout has already been transitioned by the release barrier, i.e. the acquire barrier is a memory barrier.
+	 */
+	private Barrier acquire(BarrierType barrier) {
+		if(isOwnershipTransfer()) {
+			return new Barrier.Builder()
+					.source(TOP_OF_PIPE)
+					.destination(ALL_COMMANDS)
+					.add(Set.of(), Set.of(MEMORY_READ), barrier)
+					.build(device);
+		}
+		else {
+			return new Barrier.Builder()
+					.source(TRANSFER)
+					.destination(ALL_COMMANDS)
+					.add(Set.of(TRANSFER_WRITE), Set.of(MEMORY_READ), new MemoryBarrier())
+					.build(device);
+		}
+	}
+
+	/**
+	 * Submits pending uploads to the transfer queue as a single batch.
+	 * Does nothing if there are no pending uploads.
+	 * @throws IllegalStateException if this service has been destroyed
+	 */
+	public synchronized void flush() {
+		// Ignore if nothing to upload
+		checkAlive();
+		if(pending.isEmpty()) {
+			return;
+		}
+
+		// Record transfer commands
+		final Buffer buffer = pool
+				.allocate(1, true)
+				.getFirst()
+				.begin(VkCommandBufferUsageFlags.ONE_TIME_SUBMIT);
+
+		transition().ifPresent(buffer::add);
+		for(Upload upload : pending) {
+			buffer.add(upload.copy);
+		}
+		buffer.add(ownership());
+		buffer.end();
+
+		// Submit batch
+		final Fence fence = Fence.create(device);
+		new Work.Builder()
+				.add(buffer)
+				.build()
+				.submit(fence);
+
+		// Record in-flight batch
+		batches.add(new Batch(buffer, fence, List.copyOf(pending)));
+		pending.clear();
+	}
+
+	/**
+	 * Builds the barrier that transitions pending images to the transfer layout.
+	 */
+	private Optional<Barrier> transition() {
+		final var builder = new Barrier.Builder()
+				.source(TOP_OF_PIPE)
+				.destination(TRANSFER);
+
+		boolean empty = true;
+		for(Upload upload : pending) {
+			if(upload.layout) {
+				final Image image = ((ImageBarrier) upload.barrier).image();
+				builder.add(Set.of(), Set.of(TRANSFER_WRITE), new ImageBarrier(image, UNDEFINED, TRANSFER_DST_OPTIMAL));
+				empty = false;
+			}
+		}
+
+		if(empty) {
+			return Optional.empty();
+		}
+
+		return Optional.of(builder.build(device));
+	}
+
+	/**
+	 * Builds the barrier that releases ownership of pending resources to the destination queue.
+	 */
+	private Barrier ownership() {
+		final var builder = new Barrier.Builder().source(TRANSFER);
+		final Set<VkAccessFlags> access;
+		if(isOwnershipTransfer()) {
+			builder.destination(BOTTOM_OF_PIPE);
+			access = Set.of();
+		}
+		else {
+			builder.destination(ALL_COMMANDS);
+			access = Set.of(MEMORY_READ);
+		}
+
+		for(Upload upload : pending) {
+			builder.add(Set.of(TRANSFER_WRITE), access, upload.barrier);
+		}
+
+		return builder.build(device);
+	}
+
+	/**
+	 * Completes any submitted batches that have finished execution.
+	 * @return Number of completed uploads
+	 */
+	public synchronized int poll() {
+		int count = 0;
+		while(!batches.isEmpty() && batches.peekFirst().fence.signalled()) {
+			final Batch batch = batches.removeFirst();
+			batch.complete();
+			count += batch.uploads.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Blocks until all submitted batches have completed.
+	 * Note that pending uploads are <b>not</b> submitted.
+	 */
+	public synchronized void waitIdle() {
+		final List<Fence> fences = batches.stream().map(Batch::fence).toList();
+		Fence.waitReady(fences, true, Long.MAX_VALUE);
+		poll();
+	}
+
+	@Override
+	protected synchronized void release() {
+		waitIdle();
+		for(Upload upload : pending) {
+			upload.future.cancel(false);
+		}
+		pending.clear();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("UploadService[source=%d destination=%d pending=%d batches=%d]", source.index(), destination.index(), pending(), batches());
+	}
+}
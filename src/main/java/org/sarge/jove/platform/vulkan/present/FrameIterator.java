@@ -4,12 +4,16 @@ import static org.sarge.jove.util.Validation.requireOneOrMore;
 
 import java.util.Arrays;
 
-import org.sarge.jove.common.AbstractTransientObject;
-import org.sarge.jove.platform.vulkan.core.LogicalDevice;
+import org.sarge.jove.common.*;
+import org.sarge.jove.platform.vulkan.core.*;
 
 /**
  * The <i>frame iterator</i> cycles through an array of in-flight frames.
  * The size of the array is usually the same as the number of swapchain attachments.
+ * <p>
+ * Resources that may still be in use by in-flight frames can be released using {@link #defer(TransientObject)}.
+ * The resource is queued against the current frame and is destroyed once that frame has completed, see {@link FrameState#queue()}.
+ * <p>
  * @see FrameState
  * @author Sarge
  */
@@ -49,6 +53,34 @@ public class FrameIterator extends AbstractTransientObject {
 		return frames[next++];
 	}
 
+	/**
+	 * @return Current frame
+	 */
+	public FrameState current() {
+		return frames[next == 0 ? 0 : next - 1];
+	}
+
+	/**
+	 * Defers destruction of the given resource until the current frame has completed.
+	 * @param object Resource to destroy
+	 * @see FrameState#queue()
+	 * @see DestructionQueue#add(TransientObject)
+	 */
+	public void defer(TransientObject object) {
+		current().queue().add(object);
+	}
+
+	/**
+	 * @return Total number of resources awaiting destruction
+	 */
+	public int deferred() {
+		int count = 0;
+		for(FrameState frame : frames) {
+			count += frame.queue().size();
+		}
+		return count;
+	}
+
 	@Override
 	protected void release() {
 		for(FrameState f : frames) {
@@ -3,6 +3,7 @@ package org.sarge.jove.platform.vulkan.present;
 import static java.util.Objects.requireNonNull;
 import static org.sarge.jove.util.Validation.requireZeroOrMore;
 
+import java.time.Duration;
 import java.util.Set;
 
 import org.sarge.jove.common.AbstractTransientObject;
@@ -13,6 +14,19 @@ import org.sarge.jove.platform.vulkan.present.Swapchain.Invalidated;
 
 /**
  * A <i>frame state</i> manages the synchronisation state of an <i>in-flight</i> frame during rendering.
+ * <p>
+ * A frame can be rendered in one of two modes:
+ * <ul>
+ * <li>{@link #render(Buffer)} submits the render sequence and blocks until completion</li>
+ * <li>{@link #dispatch(Buffer)} submits the render sequence without blocking, the fence is waited on when this frame is next acquired</li>
+ * </ul>
+ * The latter <i>pipelined</i> mode allows the recording of subsequent frames to overlap the execution of this frame.
+ * <p>
+ * The {@link #waiting()} duration measures the time spent blocked on the fence for the most recent frame.
+ * <p>
+ * Resources that may still be in use by this frame can be added to the destruction {@link #queue()}.
+ * Queued resources are destroyed when this frame is next acquired, i.e. once the fence has been signalled.
+ * <p>
  * @see FrameIterator
  * @author Sarge
  */
@@ -33,6 +47,8 @@ public class FrameState extends AbstractTransientObject {
 	private final int index;
 	private final VulkanSemaphore available, ready;
 	private final Fence fence;
+	private final DestructionQueue queue = new DestructionQueue();
+	private long waiting;
 
 	/**
 	 * Constructor.
@@ -59,15 +75,41 @@ public class FrameState extends AbstractTransientObject {
 		return index;
 	}
 
+	/**
+	 * @return Fence that is signalled when the rendering work for this frame has completed
+	 */
+	public Fence fence() {
+		return fence;
+	}
+
+	/**
+	 * @return Queue of resources to be destroyed once the work for this frame has completed
+	 */
+	public DestructionQueue queue() {
+		return queue;
+	}
+
+	/**
+	 * @return Time spent blocked on the fence of this frame since it was last acquired
+	 */
+	public Duration waiting() {
+		return Duration.ofNanos(waiting);
+	}
+
 	/**
 	 * Acquires the index of the next frame buffer.
+	 * Blocks until the previous work for this frame has completed.
 	 * @param swapchain Swapchain
 	 * @return Frame buffer index
 	 * @throws Invalidated if a frame buffer cannot be acquired
 	 */
 	public int acquire(Swapchain swapchain) throws Invalidated {
 		// Wait for the previous frame to be completed
-		fence.waitReady();
+		waiting = 0;
+		waitReady(fence);
+
+		// Release resources that were in use by the previous frame
+		queue.flush();
 
 		// Acquire next buffer
 		final int index = swapchain.acquire(available, null);
@@ -78,6 +120,24 @@ public class FrameState extends AbstractTransientObject {
 		return index;
 	}
 
+	/**
+	 * Blocks until the rendering work of another in-flight frame has completed, e.g. where both frames render to the same framebuffer.
+	 * The elapsed time is accumulated to the {@link #waiting()} duration of <b>this</b> frame.
+	 * @param frame Other in-flight frame
+	 */
+	public void waitFor(FrameState frame) {
+		waitReady(frame.fence);
+	}
+
+	/**
+	 * Blocks on the given fence and accumulates the elapsed time.
+	 */
+	private void waitReady(Fence fence) {
+		final long start = System.nanoTime();
+		fence.waitReady();
+		waiting += System.nanoTime() - start;
+	}
+
 	/**
 	 * Renders the next frame and blocks until completion.
 	 * @param sequence Render sequence
@@ -85,7 +145,17 @@ public class FrameState extends AbstractTransientObject {
 	 */
 	public void render(Buffer sequence) {
 		submit(sequence);
-		fence.waitReady();
+		waitReady(fence);
+	}
+
+	/**
+	 * Renders the next frame <b>without</b> blocking.
+	 * The fence is waited on when this frame is next {@link #acquire(Swapchain)}d.
+	 * @param sequence Render sequence
+	 * @see #submit(Buffer)
+	 */
+	public void dispatch(Buffer sequence) {
+		submit(sequence);
 	}
 
 	/**
@@ -121,8 +191,15 @@ public class FrameState extends AbstractTransientObject {
 		swapchain.present(queue, index, Set.of(ready));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Blocks until any pending work for this frame has completed before releasing queued resources and the synchronisation primitives.
+	 */
 	@Override
 	protected void release() {
+		fence.waitReady();
+		queue.flush();
 		available.destroy();
 		ready.destroy();
 		fence.destroy();
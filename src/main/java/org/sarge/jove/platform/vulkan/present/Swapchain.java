@@ -225,6 +225,16 @@ public class Swapchain extends VulkanObject {
 			info.clipped = true;
 		}
 
+		/**
+		 * Sets the previous swapchain that is replaced by the new instance (default is none).
+		 * The previous swapchain is <i>retired</i> when the new swapchain is created and should be destroyed once any in-flight work has completed.
+		 * @param previous Previous swapchain or {@code null} if none
+		 */
+		public Builder previous(Swapchain previous) {
+			info.oldSwapchain = previous == null ? null : previous.handle();
+			return this;
+		}
+
 		/**
 		 * Adds a creation flag for this swapchain.
 		 * @param flag Creation flag
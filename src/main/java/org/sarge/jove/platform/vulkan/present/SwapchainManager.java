@@ -6,12 +6,15 @@ import java.util.*;
 import java.util.function.Supplier;
 
 import org.sarge.jove.common.AbstractTransientObject;
-import org.sarge.jove.platform.vulkan.core.LogicalDevice;
+import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.present.Swapchain.*;
 import org.sarge.jove.platform.vulkan.present.VulkanSurface.Properties;
 
 /**
  * The <i>swapchain manager</i> recreates and configures the swapchain on-demand.
+ * <p>
+ * The swapchain can be recreated by {@link #recreate()} which blocks until the device is idle and destroys the previous swapchain.
+ * Alternatively {@link #recreate(DestructionQueue)} creates the new swapchain from the previous instance which is <i>retired</i> and queued for destruction, i.e. without stalling the device.
  * @see Invalidated
  * @see SwapchainConfiguration
  * @author Sarge
@@ -69,6 +72,31 @@ public class SwapchainManager extends AbstractTransientObject {
 		return swapchain;
 	}
 
+	/**
+	 * Recreates the swapchain without blocking.
+	 * The previous swapchain is retired and added to the given queue, which should be flushed once any in-flight frames that used that swapchain have completed.
+	 * @param retired Destruction queue for the previous swapchain
+	 * @return New swapchain
+	 * @see Builder#previous(Swapchain)
+	 */
+	public synchronized Swapchain recreate(DestructionQueue retired) {
+		requireNonNull(retired);
+		final Swapchain previous = swapchain;
+		swapchain = null;
+		builder.previous(previous);
+		try {
+			swapchain = build();
+		}
+		finally {
+			// Previous swapchain is retired even if recreation fails
+			builder.previous(null);
+			if(previous != null) {
+				retired.add(previous);
+			}
+		}
+		return swapchain;
+	}
+
 	/**
 	 * Applies the swapchain configuration and creates a new instance.
 	 */
@@ -87,7 +115,9 @@ public class SwapchainManager extends AbstractTransientObject {
 
 	@Override
 	protected synchronized void release() {
-		swapchain.destroy();
-		swapchain = null;
+		if(swapchain != null) {
+			swapchain.destroy();
+			swapchain = null;
+		}
 	}
 }
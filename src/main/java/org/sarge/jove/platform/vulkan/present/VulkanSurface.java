@@ -154,7 +154,7 @@ public class VulkanSurface extends AbstractNativeObject {
 		 * @param pSurfaceCapabilities		Returned capabilities
 		 * @return Result
 		 */
-		VkResult vkGetPhysicalDeviceSurfaceCapabilitiesKHR(PhysicalDevice device, VulkanSurface surface, @Updated VkSurfaceCapabilitiesKHR pSurfaceCapabilities);
+		VkResult vkGetPhysicalDeviceSurfaceCapabilitiesKHR(PhysicalDevice device, VulkanSurface surface, @Returned VkSurfaceCapabilitiesKHR pSurfaceCapabilities);
 
 		/**
 		 * Queries the supported surface formats.
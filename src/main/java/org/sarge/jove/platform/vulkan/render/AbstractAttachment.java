@@ -6,7 +6,7 @@ import java.util.*;
 
 import org.sarge.jove.common.*;
 import org.sarge.jove.platform.vulkan.VkAttachmentLoadOp;
-import org.sarge.jove.platform.vulkan.core.LogicalDevice;
+import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.image.*;
 
 /**
@@ -81,6 +81,18 @@ public abstract class AbstractAttachment extends AbstractTransientObject impleme
 		this.views = views(device, extents);
 	}
 
+	@Override
+	public final void recreate(LogicalDevice device, Dimensions extents, DestructionQueue retired) {
+		requireNonNull(retired);
+		if(views != null) {
+			for(View view : views) {
+				retired.add(view);
+			}
+		}
+
+		this.views = views(device, extents);
+	}
+
 	/**
 	 * Builds the image-views for this attachment.
 	 * @param allocator		Memory allocator for attachment image-views
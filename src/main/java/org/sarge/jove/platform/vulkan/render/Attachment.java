@@ -5,7 +5,7 @@ import static org.sarge.jove.util.Validation.requireZeroOrMore;
 
 import org.sarge.jove.common.Dimensions;
 import org.sarge.jove.platform.vulkan.*;
-import org.sarge.jove.platform.vulkan.core.LogicalDevice;
+import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.image.*;
 
 /**
@@ -61,6 +61,15 @@ public interface Attachment {
 	 */
 	void recreate(LogicalDevice device, Dimensions extents);
 
+	/**
+	 * Recreates the image-view(s) of this attachment without blocking.
+	 * The previous image-views are added to the given queue rather than being destroyed, since they may still be in use by in-flight frames.
+	 * @param device		Logical device
+	 * @param extents		Swapchain extents
+	 * @param retired		Destruction queue for the previous image-views
+	 */
+	void recreate(LogicalDevice device, Dimensions extents, DestructionQueue retired);
+
 	/**
 	 * An <i>attachment reference</i> configures this attachment for use in a subpass.
 	 */
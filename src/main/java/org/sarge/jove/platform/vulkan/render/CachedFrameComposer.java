@@ -0,0 +1,126 @@
+package org.sarge.jove.platform.vulkan.render;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.*;
+
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.platform.vulkan.core.Command;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer;
+
+/**
+ * The <i>cached frame composer</i> records the render sequence once and reuses the recorded command buffer for subsequent frames.
+ * <p>
+ * A command buffer is cached for each combination of in-flight frame and framebuffer.
+ * The cached buffer is only re-recorded when:
+ * <ul>
+ * <li>the {@link RenderSequence#version()} changes, e.g. when the sequence or a referenced resource has been modified</li>
+ * <li>the framebuffer has been recreated, e.g. after the swapchain has been invalidated</li>
+ * <li>the cache is explicitly {@link #invalidate()}d</li>
+ * </ul>
+ * <p>
+ * Notes:
+ * <ul>
+ * <li>Cached buffers are recorded <b>without</b> the {@link VkCommandBufferUsageFlags#ONE_TIME_SUBMIT} flag</li>
+ * <li>A cached buffer is only reused once the previous submission for that framebuffer has completed, as guaranteed by the {@link RenderTask}</li>
+ * <li>The command pool <b>must</b> be created with the {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER} flag</li>
+ * </ul>
+ * <p>
+ * @author Sarge
+ */
+public class CachedFrameComposer extends FrameComposer {
+	/**
+	 * Cache key.
+	 */
+	private record Key(int index, Framebuffer framebuffer) {
+	}
+
+	/**
+	 * Cached recording.
+	 */
+	private record Entry(Buffer buffer, long version, int generation) {
+	}
+
+	private final Map<Key, Entry> cache = new HashMap<>();
+	private int generation;
+	private int recorded;
+
+	/**
+	 * Constructor.
+	 * @param pool			Command pool
+	 * @param sequence		Rendering sequence
+	 */
+	public CachedFrameComposer(Command.Pool pool, RenderSequence sequence) {
+		super(pool, sequence);
+	}
+
+	/**
+	 * @return Number of times the render sequence has been recorded
+	 */
+	public int recorded() {
+		return recorded;
+	}
+
+	/**
+	 * @return Number of cached recordings
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	@Override
+	public Buffer compose(int index, Framebuffer framebuffer) {
+		requireNonNull(framebuffer);
+
+		// Release recordings for framebuffers that have been recreated
+		evict();
+
+		// Reuse cached recording if not stale
+		final Key key = new Key(index, framebuffer);
+		final Entry prev = cache.get(key);
+		final long version = sequence().version();
+		if((prev != null) && (prev.version == version) && (prev.generation == generation) && prev.buffer.isReady()) {
+			return prev.buffer;
+		}
+
+		// Otherwise re-record
+		final Buffer buffer = reuse(prev == null ? null : prev.buffer, pool(), true);
+		compose(buffer, index, framebuffer);
+		cache.put(key, new Entry(buffer, version, generation));
+		++recorded;
+
+		return buffer;
+	}
+
+	/**
+	 * Releases cached recordings for destroyed framebuffers.
+	 */
+	private void evict() {
+		final Iterator<Map.Entry<Key, Entry>> itr = cache.entrySet().iterator();
+		while(itr.hasNext()) {
+			final var entry = itr.next();
+			if(entry.getKey().framebuffer.isDestroyed()) {
+				entry.getValue().buffer.free();
+				itr.remove();
+			}
+		}
+	}
+
+	/**
+	 * Invalidates all cached recordings.
+	 * Note that the cached buffers are re-recorded when next composed since they may still be in use.
+	 */
+	public void invalidate() {
+		++generation;
+	}
+
+	/**
+	 * Begins recording to the given buffer.
+	 * Cached buffers are recorded without any usage flags since they may be submitted multiple times.
+	 * @param buffer Recording buffer
+	 */
+	@Override
+	protected void begin(Buffer buffer) {
+		buffer.begin(null, Set.of());
+	}
+}
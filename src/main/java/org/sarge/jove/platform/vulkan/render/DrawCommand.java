@@ -3,6 +3,7 @@ package org.sarge.jove.platform.vulkan.render;
 import static java.util.Objects.requireNonNull;
 import static org.sarge.jove.util.Validation.*;
 
+import org.sarge.jove.foreign.Critical;
 import org.sarge.jove.model.Mesh;
 import org.sarge.jove.platform.vulkan.core.*;
 
@@ -155,6 +156,7 @@ public record DrawCommand(int vertexCount, int instanceCount, int firstVertex, i
 		 * @param firstVertex			First vertex index
 		 * @param firstInstance			First index index
 		 */
+		@Critical
 		void vkCmdDraw(Buffer commandBuffer, int vertexCount, int instanceCount, int firstVertex, int firstInstance);
 
 		/**
@@ -2,7 +2,7 @@ package org.sarge.jove.platform.vulkan.render;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.Set;
+import java.util.*;
 
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.Command;
@@ -10,22 +10,55 @@ import org.sarge.jove.platform.vulkan.core.Command.Buffer;
 
 /**
  * The <i>frame composer</i> builds the command buffer to render the next frame.
+ * <p>
+ * A command buffer is allocated for each in-flight frame and is reset and re-recorded when that frame is next composed.
+ * Note that the command pool <b>must</b> be created with the {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER} flag.
+ * <p>
  * @author Sarge
  */
 public class FrameComposer {
 	private final Command.Pool pool;
 	private final RenderSequence sequence;
+	private final Map<Integer, Buffer> buffers = new HashMap<>();
 
 	/**
 	 * Constructor.
 	 * @param pool			Command pool
 	 * @param sequence		Rendering sequence
+	 * @throws IllegalArgumentException if the pool does not support {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER}
 	 */
 	public FrameComposer(Command.Pool pool, RenderSequence sequence) {
-		this.pool = requireNonNull(pool);
+		this.pool = resettable(pool);
 		this.sequence = requireNonNull(sequence);
 	}
 
+	/**
+	 * Checks that buffers allocated from the given pool can be reset.
+	 * @param pool Command pool
+	 * @return Command pool
+	 * @throws IllegalArgumentException if the pool does not support {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER}
+	 */
+	static Command.Pool resettable(Command.Pool pool) {
+		if(!pool.flags().contains(VkCommandPoolCreateFlags.RESET_COMMAND_BUFFER)) {
+			throw new IllegalArgumentException("Frame composer requires resettable command buffers: " + pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * @return Command pool
+	 */
+	protected Command.Pool pool() {
+		return pool;
+	}
+
+	/**
+	 * @return Rendering sequence
+	 */
+	protected RenderSequence sequence() {
+		return sequence;
+	}
+
 	/**
 	 * Composes the command buffer to render the next frame.
 	 * @param index				Frame index
@@ -33,35 +66,77 @@ public class FrameComposer {
 	 * @return Render command buffer
 	 */
 	public Buffer compose(int index, Framebuffer framebuffer) {
-		// Allocate command buffer
 		final Buffer buffer = allocate(pool, index);
+		compose(buffer, index, framebuffer);
+		return buffer;
+	}
 
+	/**
+	 * Records the render pass for the next frame to the given buffer.
+	 * @param buffer			Render command buffer
+	 * @param index				Frame index
+	 * @param framebuffer		Framebuffer to be rendered
+	 */
+	protected void compose(Buffer buffer, int index, Framebuffer framebuffer) {
 		// Init frame buffer
 		final Command begin = framebuffer.begin(this.contents());
 
 		// Build render sequence
 		begin(buffer);
     		buffer.add(begin);
-    			sequence.build(index, buffer);
+    			record(index, framebuffer, buffer);
     		buffer.add(framebuffer.end());
     	buffer.end();
+	}
 
-    	// TODO - should we be releasing the buffer if a one-time submit?
-
-		return buffer;
+	/**
+	 * Records the render sequence for the next frame.
+	 * The default implementation records the sequence inline to the given buffer.
+	 * @param index				Frame index
+	 * @param framebuffer		Framebuffer to be rendered
+	 * @param buffer			Render command buffer
+	 */
+	protected void record(int index, Framebuffer framebuffer, Buffer buffer) {
+		sequence.build(index, buffer);
 	}
 
 	/**
-	 * Allocates the next command buffer.
-	 * The default implementation allocates a new buffer for each frame.
+	 * Allocates the command buffer for the given in-flight frame.
+	 * The default implementation allocates a buffer for each frame index which is reset and reused on subsequent frames.
 	 * @param pool		Command pool
 	 * @param index		Frame index
 	 * @return Command buffer
 	 */
 	protected Buffer allocate(Command.Pool pool, int index) {
-		return pool.allocate(1, true).getFirst();
+		final Buffer buffer = reuse(buffers.get(index), pool, true);
+		buffers.put(index, buffer);
+		return buffer;
+	}
+
+	/**
+	 * Resets a previously recorded command buffer for reuse or allocates a new buffer.
+	 * A buffer that was not completely recorded is released back to the pool and replaced.
+	 * @param prev			Previous buffer or {@code null}
+	 * @param pool			Command pool
+	 * @param primary		Whether a primary or secondary buffer
+	 * @return Command buffer ready for recording
+	 */
+	static Buffer reuse(Buffer prev, Command.Pool pool, boolean primary) {
+		// Allocate buffer on first use
+		if(prev == null) {
+			return pool.allocate(1, primary).getFirst();
+		}
+
+		// Reset previous buffer
+		if(prev.isReady()) {
+			prev.reset();
+			return prev;
+		}
+
+		// Otherwise replace invalid buffer
+		prev.free();
+		return pool.allocate(1, primary).getFirst();
 	}
-	// TODO - this needs to return a factory
 
 	/**
 	 * @return Subpass contents for the rendering command
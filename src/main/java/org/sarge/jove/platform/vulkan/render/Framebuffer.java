@@ -36,6 +36,13 @@ public class Framebuffer extends VulkanObject {
 		this.extents = Vulkan.rectangle(new Rectangle(extents));
 	}
 
+	/**
+	 * @return Render pass
+	 */
+	public RenderPass pass() {
+		return pass;
+	}
+
 	/**
 	 * Creates a command to start a render pass with this frame buffer.
 	 * @param contents Subpass contents
@@ -146,6 +153,21 @@ public class Framebuffer extends VulkanObject {
 			build(swapchain);
 		}
 
+		/**
+		 * Recreates the framebuffers without blocking.
+		 * The previous framebuffers are added to the given queue rather than being destroyed.
+		 * @param swapchain		Swapchain
+		 * @param retired		Destruction queue for the previous framebuffers
+		 */
+		protected void recreate(Swapchain swapchain, DestructionQueue retired) {
+			requireNonNull(retired);
+			for(Framebuffer buffer : framebuffers) {
+				retired.add(buffer);
+			}
+			framebuffers.clear();
+			build(swapchain);
+		}
+
 		/**
 		 * Builds the framebuffers.
 		 */
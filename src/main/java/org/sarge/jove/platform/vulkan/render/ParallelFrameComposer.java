@@ -0,0 +1,183 @@
+package org.sarge.jove.platform.vulkan.render;
+
+import static java.util.Objects.requireNonNull;
+import static org.sarge.jove.util.Validation.requireOneOrMore;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.platform.vulkan.core.Command;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer;
+import org.sarge.jove.util.EnumMask;
+
+/**
+ * The <i>parallel frame composer</i> records the render sequence as secondary command buffers across multiple worker threads.
+ * <p>
+ * The render sequence is partitioned into <i>chunks</i> which are distributed across the workers.
+ * Each worker records its chunks to secondary buffers allocated from its own command pool, since command pools are externally synchronised.
+ * The resultant secondary buffers are executed by the primary render buffer in the order of the chunks.
+ * <p>
+ * Note that the worker pools <b>must</b> be created with the {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER} flag since secondary buffers are reused by subsequent frames.
+ * <p>
+ * Also note that secondary command buffers do not inherit state, i.e. each chunk <b>must</b> bind the pipeline, descriptor sets, etc. that it requires.
+ * <p>
+ * This implementation only supports render passes with a <b>single</b> subpass.
+ * The secondary buffers are recorded as a continuation of the first subpass and therefore a chunk cannot start the next subpass, see {@link VkCommandBufferUsageFlags#RENDER_PASS_CONTINUE}.
+ * <p>
+ * Usage:
+ * <pre>
+ * // Partition render sequence
+ * List&lt;RenderSequence&gt; chunks = ParallelFrameComposer.partition(draws, 8);
+ *
+ * // Create composer
+ * List&lt;Command.Pool&gt; workers = ...
+ * ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+ * FrameComposer composer = new ParallelFrameComposer(pool, workers, chunks, executor);
+ * </pre>
+ * @author Sarge
+ */
+public class ParallelFrameComposer extends FrameComposer {
+	private final List<Command.Pool> workers;
+	private final List<RenderSequence> chunks;
+	private final Executor executor;
+	private final Map<Integer, Buffer> buffers = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param pool			Command pool for the primary render buffer
+	 * @param workers		Command pool for each worker
+	 * @param chunks		Render sequence chunks
+	 * @param executor		Executor for recording tasks
+	 * @throws IllegalArgumentException if {@link #workers} is empty
+	 * @throws IllegalArgumentException if any pool does not support {@link VkCommandPoolCreateFlags#RESET_COMMAND_BUFFER}
+	 */
+	public ParallelFrameComposer(Command.Pool pool, List<Command.Pool> workers, List<RenderSequence> chunks, Executor executor) {
+		super(pool, sequential(chunks));
+		requireOneOrMore(workers.size());
+		workers.forEach(FrameComposer::resettable);
+		this.workers = List.copyOf(workers);
+		this.chunks = List.copyOf(chunks);
+		this.executor = requireNonNull(executor);
+	}
+
+	/**
+	 * @return Render sequence that records the given chunks in order
+	 */
+	private static RenderSequence sequential(List<RenderSequence> chunks) {
+		return (index, buffer) -> {
+			for(RenderSequence chunk : chunks) {
+				chunk.build(index, buffer);
+			}
+		};
+	}
+
+	/**
+	 * Partitions a list of commands into the given number of render sequence chunks of roughly equal size.
+	 * @param commands		Commands
+	 * @param count			Number of chunks
+	 * @return Render sequence chunks
+	 */
+	public static List<RenderSequence> partition(List<? extends Command> commands, int count) {
+		requireOneOrMore(count);
+		final int size = Math.max(1, (commands.size() + count - 1) / count);
+		final var chunks = new ArrayList<RenderSequence>();
+		for(int start = 0; start < commands.size(); start += size) {
+			final List<? extends Command> chunk = List.copyOf(commands.subList(start, Math.min(start + size, commands.size())));
+			chunks.add((_, buffer) -> {
+				for(Command cmd : chunk) {
+					buffer.add(cmd);
+				}
+			});
+		}
+		return chunks;
+	}
+
+	@Override
+	protected VkSubpassContents contents() {
+		return VkSubpassContents.SECONDARY_COMMAND_BUFFERS;
+	}
+
+	@Override
+	protected void record(int index, Framebuffer framebuffer, Buffer buffer) {
+		// Ignore if nothing to record
+		if(chunks.isEmpty()) {
+			return;
+		}
+
+		// Init inheritance descriptor
+		final VkCommandBufferInheritanceInfo inheritance = inheritance(framebuffer);
+
+		// Record chunks in parallel
+		final Buffer[] secondary = new Buffer[chunks.size()];
+		final int count = Math.min(workers.size(), chunks.size());
+		final CompletableFuture<?>[] tasks = new CompletableFuture<?>[count];
+		for(int n = 0; n < count; ++n) {
+			final int worker = n;
+			tasks[n] = CompletableFuture.runAsync(() -> record(index, worker, inheritance, secondary), executor);
+		}
+
+		// Wait for workers
+		try {
+			CompletableFuture.allOf(tasks).join();
+		}
+		catch(CompletionException e) {
+			if(e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+
+		// Execute secondary buffers
+		buffer.add(Arrays.asList(secondary));
+	}
+
+	/**
+	 * Records the chunks for the given worker.
+	 * @param index				Frame index
+	 * @param worker			Worker index
+	 * @param inheritance		Inheritance descriptor
+	 * @param secondary			Recorded secondary buffers indexed by chunk
+	 */
+	private void record(int index, int worker, VkCommandBufferInheritanceInfo inheritance, Buffer[] secondary) {
+		final Command.Pool pool = workers.get(worker);
+		for(int n = worker; n < chunks.size(); n += workers.size()) {
+			final Buffer buffer = secondary(pool, index, n);
+			buffer.begin(inheritance, Set.of(VkCommandBufferUsageFlags.RENDER_PASS_CONTINUE, VkCommandBufferUsageFlags.ONE_TIME_SUBMIT));
+			chunks.get(n).build(index, buffer);
+			buffer.end();
+			secondary[n] = buffer;
+		}
+	}
+
+	/**
+	 * Allocates a secondary command buffer for the given chunk.
+	 * The default implementation allocates a buffer for each frame index and chunk which is reset and reused on subsequent frames.
+	 * @param pool		Worker command pool
+	 * @param index		Frame index
+	 * @param chunk		Chunk index
+	 * @return Secondary command buffer
+	 */
+	protected Buffer secondary(Command.Pool pool, int index, int chunk) {
+		final int key = index * chunks.size() + chunk;
+		final Buffer buffer = reuse(buffers.get(key), pool, false);
+		buffers.put(key, buffer);
+		return buffer;
+	}
+
+	/**
+	 * Builds the inheritance descriptor for secondary buffers rendering to the given framebuffer.
+	 * @param framebuffer Framebuffer
+	 * @return Inheritance descriptor
+	 */
+	private static VkCommandBufferInheritanceInfo inheritance(Framebuffer framebuffer) {
+		final var info = new VkCommandBufferInheritanceInfo();
+		info.sType = VkStructureType.COMMAND_BUFFER_INHERITANCE_INFO;
+		info.renderPass = framebuffer.pass().handle();
+		info.subpass = 0;				// Single subpass only
+		info.framebuffer = framebuffer.handle();
+		info.queryFlags = new EnumMask<>();
+		info.pipelineStatistics = new EnumMask<>();
+		return info;
+	}
+}
@@ -13,4 +13,15 @@ public interface RenderSequence {
 	 * @param buffer	Command buffer to record
 	 */
 	void build(int index, Buffer buffer);
+
+	/**
+	 * Version of this sequence used to determine whether a cached recording is stale.
+	 * A sequence that is cached <b>must</b> change its version whenever its commands or any resource referenced by those commands is modified.
+	 * The default implementation returns zero, i.e. the sequence is static.
+	 * @return Version
+	 * @see CachedFrameComposer
+	 */
+	default long version() {
+		return 0;
+	}
 }
@@ -2,9 +2,12 @@ package org.sarge.jove.platform.vulkan.render;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+
 import org.sarge.jove.common.Dimensions;
+import org.sarge.jove.platform.desktop.Window;
+import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.core.Command.Buffer;
-import org.sarge.jove.platform.vulkan.core.LogicalDevice;
 import org.sarge.jove.platform.vulkan.present.*;
 import org.sarge.jove.platform.vulkan.present.Swapchain.Invalidated;
 
@@ -23,7 +26,23 @@ import org.sarge.jove.platform.vulkan.present.Swapchain.Invalidated;
  * This implementation aims to fully utilise the multi-threaded nature of the hardware.
  * Multiple <i>in flight</i> frames are rendered and presented concurrently, synchronised by a {@link FrameState}.
  * <p>
- * The swapchain and frame buffers are recreated on demand if the swapchain is {@link Invalidated}.
+ * By default each frame blocks until the rendering work has completed.
+ * In <i>pipelined</i> mode the task only blocks when an in-flight frame is reused, i.e. the CPU can record the next frame while the GPU is executing previous frames.
+ * The number of in-flight frames is specified by the {@link FrameIterator}.
+ * The task also waits for any other in-flight frame that is still rendering to the acquired framebuffer.
+ * <p>
+ * The swapchain and frame buffers are recreated on demand if the swapchain is {@link Invalidated} or is explicitly invalidated by {@link #invalidate()}, e.g. when the window is resized.
+ * Recreation does not stall the device: the new swapchain is created from the previous instance and the retired swapchain, framebuffers and attachment views are queued against the current in-flight frame.
+ * Since frames are acquired in order, these resources are destroyed once every in-flight frame has subsequently waited on its fence, i.e. when no previous work can still be using them.
+ * <p>
+ * Rapid resize events can be <i>debounced</i> by {@link #debounce(Duration)}, rendering is suspended until the swapchain has not been invalidated for the given interval.
+ * <p>
+ * Usage:
+ * <pre>
+ * RenderTask task = new RenderTask(manager, framebuffers, composer, iterator);
+ * task.debounce(Duration.ofMillis(100));
+ * task.listen(window);
+ * </pre>
  * <p>
  * @author Sarge
  */
@@ -32,6 +51,11 @@ public class RenderTask implements Runnable {
 	private final Framebuffer.Factory framebuffers;
 	private final FrameComposer composer;
 	private final FrameIterator iterator;
+	private FrameState[] images;
+	private volatile boolean pipelined;
+	private long debounce;
+	private boolean invalidated;
+	private long timestamp;
 
 	/**
 	 * Constructor.
@@ -45,16 +69,61 @@ public class RenderTask implements Runnable {
 		this.framebuffers = requireNonNull(framebuffers);
 		this.composer = requireNonNull(composer);
 		this.iterator = requireNonNull(iterator);
-		recreate();
+		init(manager.swapchain(), iterator.current().queue());
+	}
+
+	/**
+	 * Sets whether this task pipelines in-flight frames (default is {@code false}).
+	 * @param pipelined Whether pipelined
+	 */
+	public void pipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	/**
+	 * Sets the minimum interval since the swapchain was last invalidated before it is recreated (default is zero).
+	 * @param debounce Debounce interval
+	 */
+	public synchronized void debounce(Duration debounce) {
+		this.debounce = debounce.toNanos();
+	}
+
+	/**
+	 * Marks the swapchain for recreation, e.g. when the window has been resized.
+	 */
+	public synchronized void invalidate() {
+		invalidated = true;
+		timestamp = System.nanoTime();
+	}
+
+	/**
+	 * Invalidates the swapchain whenever the given window is resized.
+	 * Note that this replaces any existing resize listener of the window.
+	 * @param window Window
+	 * @see #invalidate()
+	 */
+	public void listen(Window window) {
+		window.resize((_, _, _) -> invalidate());
 	}
 
 	@Override
 	public void run() {
+		// Recreate the swapchain once any resize events have settled
+		synchronized(this) {
+			if(invalidated) {
+				if(System.nanoTime() - timestamp < debounce) {
+					return;
+				}
+				recreate();
+			}
+		}
+
+		// Render next frame
 		try {
 			render();
 		}
 		catch(Invalidated e) {
-			recreate();
+			invalidate();
 		}
 	}
 
@@ -70,9 +139,21 @@ public class RenderTask implements Runnable {
 		final int index = frame.acquire(swapchain);
 		final Framebuffer framebuffer = framebuffers.get(index);
 
+		// Wait for any other in-flight frame rendering to this framebuffer
+		final FrameState prev = images[index];
+		if(pipelined && (prev != null) && (prev != frame)) {
+			frame.waitFor(prev);
+		}
+		images[index] = frame;
+
 		// Render frame
 		final Buffer sequence = composer.compose(frame.index(), framebuffer);
-		frame.render(sequence);
+		if(pipelined) {
+			frame.dispatch(sequence);
+		}
+		else {
+			frame.render(sequence);
+		}
 
 		// Present frame
 		frame.present(sequence, index, swapchain);
@@ -80,19 +161,31 @@ public class RenderTask implements Runnable {
 
 	/**
 	 * Recreates the swapchain, attachment views and framebuffers.
+	 * The previous resources are destroyed once the in-flight frames that used them have completed.
 	 */
 	public synchronized void recreate() {
+		// Retire resources against the current frame
+		final DestructionQueue retired = iterator.current().queue();
+
 		// Recreate swapchain
-		final Swapchain swapchain = manager.recreate();
+		final Swapchain swapchain = manager.recreate(retired);
+		init(swapchain, retired);
+		invalidated = false;
+	}
 
+	/**
+	 * Recreates the attachment views and framebuffers for the given swapchain.
+	 */
+	private void init(Swapchain swapchain, DestructionQueue retired) {
 		// Recreate attachment image-views
 		final Dimensions extents = swapchain.extents();
 		final LogicalDevice device = swapchain.device();
 		for(Attachment attachment : framebuffers.pass().attachments()) {
-			attachment.recreate(device, extents);
+			attachment.recreate(device, extents, retired);
 		}
 
 		// Recreate framebuffers
-		framebuffers.recreate(swapchain);
+		framebuffers.recreate(swapchain, retired);
+		images = new FrameState[swapchain.attachments().size()];
 	}
 }
@@ -1,11 +1,8 @@
 package org.sarge.jove.util;
 
-import static java.util.stream.Collectors.toSet;
-
 import java.lang.foreign.*;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 import org.sarge.jove.foreign.Transformer;
 import org.sarge.jove.util.IntEnum.ReverseMapping;
@@ -17,24 +14,38 @@ import org.sarge.jove.util.IntEnum.ReverseMapping;
  */
 public record EnumMask<E extends IntEnum>(int bits) {
 	/**
-	 * Constructor given a set of constants.
+	 * Constructor given a collection of constants, e.g. an {@link EnumSet}.
 	 * @param values Enumeration constants
-	 * @see #reduce(Set)
+	 * @see #reduce(Collection)
 	 */
-	public EnumMask(Set<E> values) {
+	public EnumMask(Collection<E> values) {
 		this(reduce(values));
 	}
 
 	/**
-	 * Reduces the given set of constants to an integer mask.
+	 * Reduces the given collection of constants to an integer mask.
 	 * @param values Enumeration constants
 	 * @return Mask
 	 */
-	public static int reduce(Set<? extends IntEnum> values) {
-		return values
-				.stream()
-				.mapToInt(IntEnum::value)
-				.sum();
+	public static int reduce(Collection<? extends IntEnum> values) {
+		int bits = 0;
+		for(IntEnum e : values) {
+			bits |= e.value();
+		}
+		return bits;
+	}
+
+	/**
+	 * Reduces the given array of constants to an integer mask.
+	 * @param values Enumeration constants
+	 * @return Mask
+	 */
+	public static int reduce(IntEnum... values) {
+		int bits = 0;
+		for(IntEnum e : values) {
+			bits |= e.value();
+		}
+		return bits;
 	}
 
 	/**
@@ -43,7 +54,7 @@ public record EnumMask<E extends IntEnum>(int bits) {
 	 */
 	@SafeVarargs
 	public EnumMask(E... values) {
-		this(Set.of(values));
+		this(reduce(values));
 	}
 
 	/**
@@ -64,17 +75,23 @@ public record EnumMask<E extends IntEnum>(int bits) {
 
 	/**
 	 * Enumerates the constants of this bitfield.
+	 * Note that bits that do not correspond to a constant of the enumeration are ignored.
 	 * @param mapping Enumeration mapping
 	 * @return Constants
-	 * @see #stream(ReverseMapping)
 	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
 	public Set<E> enumerate(ReverseMapping<E> mapping) {
-		return IntStream
-				.range(0, Integer.SIZE - Integer.numberOfLeadingZeros(bits))
-				.map(n -> 1 << n)
-				.filter(n -> (bits & n) == n)
-				.mapToObj(mapping::map)
-				.collect(toSet());
+		final Set<E> set = EnumSet.noneOf((Class) mapping.type());
+		int remaining = bits;
+		while(remaining != 0) {
+			final int index = Integer.numberOfTrailingZeros(remaining);
+			final E constant = mapping.bit(index);
+			if(constant != null) {
+				set.add(constant);
+			}
+			remaining &= remaining - 1;
+		}
+		return set;
 	}
 
 	@Override
@@ -1,11 +1,11 @@
 package org.sarge.jove.util;
 
 import static java.lang.foreign.ValueLayout.JAVA_INT;
-import static java.util.stream.Collectors.toMap;
+import static java.util.Objects.requireNonNull;
 
 import java.lang.foreign.*;
+import java.lang.reflect.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.sarge.jove.foreign.Transformer;
@@ -29,11 +29,131 @@ public interface IntEnum {
 	/**
 	 * The <i>reverse mapping</i> is the inverse of this enumeration, i.e. maps a native integer <i>to</i> the corresponding enumeration constant.
 	 * Note that duplicate values (i.e. synonyms) are silently ignored by this implementation.
+	 * <p>
+	 * The mapping is implemented by lookup tables that are built once per enumeration, i.e. mapping a native value does not allocate:
+	 * <ul>
+	 * <li>a dense array indexed by value for small non-negative values</li>
+	 * <li>a table indexed by bit position for single-bit constants, see {@link EnumMask}</li>
+	 * <li>a sorted array searched by value for any remaining values, e.g. extension or negative constants</li>
+	 * </ul>
+	 * Code-generated enumerations declare these {@link Tables} as a static field, otherwise the tables are built on first use.
 	 * @param <E> Integer enumeration
 	 * @see #defaultValue()
 	 */
 	class ReverseMapping<E extends IntEnum> {
-		private static final Map<Class<?>, ReverseMapping<?>> CACHE = new ConcurrentHashMap<>();
+		private static final ClassValue<ReverseMapping<?>> CACHE = new ClassValue<>() {
+			@SuppressWarnings({"rawtypes", "unchecked"})
+			@Override
+			protected ReverseMapping<?> computeValue(Class<?> type) {
+				return new ReverseMapping(type, tables(type));
+			}
+		};
+
+		/**
+		 * The <i>lookup tables</i> for the reverse mapping of an enumeration.
+		 * @param <E> Integer enumeration
+		 * @param dense			Constants indexed by small non-negative values
+		 * @param bits			Single-bit constants indexed by bit position
+		 * @param keys			Sorted remaining values
+		 * @param sparse		Constants for each of the remaining values
+		 */
+		public record Tables<E extends IntEnum>(E[] dense, E[] bits, int[] keys, E[] sparse) {
+			/**
+			 * Name of the static field declaring the lookup tables of a code-generated enumeration.
+			 */
+			public static final String FIELD = "TABLES";
+
+			/**
+			 * Upper bound of native values that are mapped by the dense lookup table.
+			 */
+			public static final int DENSE = 1024;
+
+			/**
+			 * Constructor.
+			 * @throws IllegalArgumentException if the bit table does not contain an entry for every bit position
+			 * @throws IllegalArgumentException if the sparse keys and constants do not match
+			 */
+			public Tables {
+				requireNonNull(dense);
+				if(bits.length != Integer.SIZE) {
+					throw new IllegalArgumentException("Invalid bit table length: " + bits.length);
+				}
+				if(keys.length != sparse.length) {
+					throw new IllegalArgumentException("Mismatched sparse lookup table");
+				}
+			}
+
+			/**
+			 * Builds the lookup tables for the given enumeration.
+			 * @param <E> Integer enumeration
+			 * @param type Enumeration type
+			 * @return Lookup tables
+			 */
+			public static <E extends IntEnum> Tables<E> build(Class<E> type) {
+				// Partition constants by value ignoring synonyms
+				final E[] constants = type.getEnumConstants();
+				final Map<Integer, E> small = new HashMap<>();
+				final Map<Integer, E> large = new TreeMap<>();
+				for(E e : constants) {
+					final int value = e.value();
+					final Map<Integer, E> map = (value >= 0) && (value < DENSE) ? small : large;
+					map.putIfAbsent(value, e);
+				}
+
+				// Build dense lookup table for small values
+				final int length = small.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+				final E[] dense = array(type, length);
+				small.forEach((value, e) -> dense[value] = e);
+
+				// Build sorted lookup table for the remaining values
+				final int[] keys = large.keySet().stream().mapToInt(Integer::intValue).toArray();
+				final E[] sparse = large.values().toArray(array(type, 0));
+
+				// Build table of single-bit constants
+				final E[] bits = array(type, Integer.SIZE);
+				for(E e : constants) {
+					final int value = e.value();
+					if(Integer.bitCount(value) == 1) {
+						final int index = Integer.numberOfTrailingZeros(value);
+						if(bits[index] == null) {
+							bits[index] = e;
+						}
+					}
+				}
+
+				return new Tables<>(dense, bits, keys, sparse);
+			}
+
+			/**
+			 * Creates an empty array of enumeration constants.
+			 */
+			@SuppressWarnings("unchecked")
+			private static <E> E[] array(Class<E> type, int length) {
+				return (E[]) Array.newInstance(type, length);
+			}
+		}
+
+		/**
+		 * Retrieves the code-generated lookup tables for the given enumeration or builds the tables if not present.
+		 * @param type Enumeration type
+		 * @return Lookup tables
+		 */
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		private static Tables tables(Class type) {
+			try {
+				final Field field = type.getField(Tables.FIELD);
+				if(Modifier.isStatic(field.getModifiers()) && (field.get(null) instanceof Tables tables)) {
+					return tables;
+				}
+			}
+			catch(NoSuchFieldException e) {
+				// Fall back to building the tables
+			}
+			catch(IllegalAccessException e) {
+				throw new RuntimeException("Cannot access lookup tables: " + type, e);
+			}
+			return Tables.build(type);
+		}
 
 		/**
 		 * Looks up the reverse mapping for the given enumeration.
@@ -43,20 +163,35 @@ public interface IntEnum {
 		 */
 		@SuppressWarnings("unchecked")
 		public static <E extends IntEnum> ReverseMapping<E> mapping(Class<E> type) {
-			return (ReverseMapping<E>) CACHE.computeIfAbsent(type, ReverseMapping::new);
+			return (ReverseMapping<E>) CACHE.get(type);
 		}
 
-		private final Map<Integer, E> map;
+		private final Class<E> type;
+		private final E[] dense;
+		private final E[] bits;
+		private final int[] keys;
+		private final E[] sparse;
 		private final E def;
 
 		/**
 		 * Constructor.
-		 * @param type Integer enumeration type
+		 * @param type			Integer enumeration type
+		 * @param tables		Lookup tables
 		 */
-		private ReverseMapping(Class<E> type) {
-			final E[] array = type.getEnumConstants();
-			this.map = Arrays.stream(array).collect(toMap(IntEnum::value, Function.identity(), (value, _) -> value));
-			this.def = map.getOrDefault(0, array[0]);
+		private ReverseMapping(Class<E> type, Tables<E> tables) {
+			this.type = type;
+			this.dense = tables.dense();
+			this.bits = tables.bits();
+			this.keys = tables.keys();
+			this.sparse = tables.sparse();
+			this.def = Objects.requireNonNullElse(lookup(0), type.getEnumConstants()[0]);
+		}
+
+		/**
+		 * @return Enumeration type
+		 */
+		public Class<E> type() {
+			return type;
 		}
 
 		/**
@@ -74,7 +209,7 @@ public interface IntEnum {
 		 * @throws IllegalArgumentException if the enumeration does not contain the given value
 		 */
 		public E map(int value) {
-			final E constant = map.get(value);
+			final E constant = lookup(value);
 			if(constant == null) {
 				// TODO
 //				System.err.println(String.format("Invalid enumeration literal: value=%d enum=%s", value, def.getClass()));
@@ -83,6 +218,42 @@ public interface IntEnum {
 			}
 			return constant;
 		}
+
+		/**
+		 * Maps the given single-bit index to the corresponding enumeration constant.
+		 * @param index Bit index
+		 * @return Constant or {@code null} if none
+		 */
+		E bit(int index) {
+			return bits[index];
+		}
+
+		/**
+		 * Looks up the constant for the given native value.
+		 * @param value Native value
+		 * @return Constant or {@code null} if none
+		 */
+		private E lookup(int value) {
+			// Check dense table
+			if((value >= 0) && (value < dense.length)) {
+				return dense[value];
+			}
+
+			// Check single-bit table
+			if(Integer.bitCount(value) == 1) {
+				final E constant = bits[Integer.numberOfTrailingZeros(value)];
+				if(constant != null) {
+					return constant;
+				}
+			}
+
+			// Otherwise search remaining values
+			final int index = Arrays.binarySearch(keys, value);
+			if(index < 0) {
+				return null;
+			}
+			return sparse[index];
+		}
 	}
 
 	/**
@@ -0,0 +1,54 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.common.Handle;
+import org.sarge.jove.common.Handle.HandleTransformer;
+
+class AddressArrayTransformerTest {
+	private SegmentAllocator allocator;
+	private AddressArrayTransformer<Handle> transformer;
+	private Handle handle;
+
+	@BeforeEach
+	void before() {
+		allocator = Arena.ofAuto();
+		transformer = new AddressArrayTransformer<>(new HandleTransformer());
+		handle = new Handle(42);
+	}
+
+	@Test
+	void layout() {
+		assertEquals(ADDRESS, transformer.layout());
+	}
+
+	@DisplayName("A handle array is transformed to an address array by the handle transformer")
+	@Test
+	void array() {
+		assertEquals(AddressArrayTransformer.class, new HandleTransformer().array().getClass());
+	}
+
+	@DisplayName("An array of handles can be marshalled to an off-heap array of addresses")
+	@Test
+	void marshal() {
+		final MemorySegment address = transformer.marshal(new Handle[]{handle, null}, allocator);
+		assertEquals(2 * ADDRESS.byteSize(), address.byteSize());
+		assertEquals(handle.address(), address.getAtIndex(ADDRESS, 0));
+		assertEquals(MemorySegment.NULL, address.getAtIndex(ADDRESS, 1));
+	}
+
+	@DisplayName("An array of handles can be updated from an off-heap array of addresses")
+	@Test
+	void update() {
+		final MemorySegment address = allocator.allocate(ADDRESS, 2);
+		address.setAtIndex(ADDRESS, 0, handle.address());
+
+		final Handle[] array = new Handle[2];
+		transformer.update().accept(address, array);
+		assertArrayEquals(new Handle[]{handle, null}, array);
+	}
+}
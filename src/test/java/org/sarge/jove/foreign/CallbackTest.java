@@ -31,16 +31,73 @@ class CallbackTest {
 		assertEquals(MemorySegment.NULL, transformer.empty());
 	}
 
-	@Test
-	void marshal() {
-		final var instance = new MockCallback() {
-			@Override
-			public int callback(int parameter) {
-				return 0;
-			}
-		};
-		final MemorySegment address = transformer.marshal(instance, allocator);
-		assertNotNull(address);
+	@Nested
+	class Stubs {
+		private MockCallback instance;
+
+		@BeforeEach
+		void before() {
+			instance = new MockCallback() {
+				@Override
+				public int callback(int parameter) {
+					return 0;
+				}
+			};
+		}
+
+		@Test
+		void marshal() {
+			final MemorySegment address = transformer.marshal(instance, allocator);
+			assertNotNull(address);
+			assertEquals(1, factory.count());
+		}
+
+		@DisplayName("The upcall stub for a callback instance is cached")
+		@Test
+		void cached() {
+			final MemorySegment address = transformer.marshal(instance, allocator);
+			assertEquals(address, transformer.marshal(instance, allocator));
+			assertEquals(1, factory.count());
+		}
+
+		@DisplayName("A different callback instance has a separate upcall stub")
+		@Test
+		void separate() {
+			final var other = new MockCallback();
+			assertNotEquals(transformer.marshal(instance, allocator), transformer.marshal(other, allocator));
+			assertEquals(2, factory.count());
+		}
+
+		@DisplayName("The upcall stub of a callback can be released")
+		@Test
+		void release() {
+			final MemorySegment address = transformer.marshal(instance, allocator);
+			factory.release(instance);
+			assertEquals(0, factory.count());
+			assertEquals(false, address.scope().isAlive());
+		}
+
+		@DisplayName("The upcall stub of a callback is only released when all registrations have been released")
+		@Test
+		void shared() {
+			final MemorySegment address = transformer.marshal(instance, allocator);
+			transformer.marshal(instance, allocator);
+			factory.release(instance);
+			assertEquals(1, factory.count());
+			assertEquals(true, address.scope().isAlive());
+			factory.release(instance);
+			assertEquals(0, factory.count());
+			assertEquals(false, address.scope().isAlive());
+		}
+
+		@DisplayName("All upcall stubs can be released")
+		@Test
+		void all() {
+			transformer.marshal(instance, allocator);
+			transformer.marshal(new MockCallback(), allocator);
+			factory.release();
+			assertEquals(0, factory.count());
+		}
 	}
 
 	// TODO - can we even test the stub? white-box test?
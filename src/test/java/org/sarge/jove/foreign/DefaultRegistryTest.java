@@ -1,5 +1,7 @@
 package org.sarge.jove.foreign;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.*;
 import org.sarge.jove.util.*;
@@ -38,4 +40,12 @@ class DefaultRegistryTest {
 	void structures() {
 		registry.transformer(MockStructure.class);
 	}
+
+	@DisplayName("The default registry can be configured to compile structure marshalling")
+	@Test
+	void compile() {
+		final Registry compiled = DefaultRegistry.create(StructureMarshaller.Index.EMPTY, true);
+		assertEquals(CompiledStructureTransformer.class, compiled.transformer(MockStructure.class).orElseThrow().getClass());
+		assertEquals(StructureTransformer.class, registry.transformer(MockStructure.class).orElseThrow().getClass());
+	}
 }
@@ -0,0 +1,49 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.MemorySegment;
+
+import org.junit.jupiter.api.*;
+
+class HeapArrayTransformerTest {
+	private HeapArrayTransformer transformer;
+
+	@BeforeEach
+	void before() {
+		transformer = new HeapArrayTransformer();
+	}
+
+	@Test
+	void supported() {
+		assertEquals(true, HeapArrayTransformer.isSupported(int[].class));
+		assertEquals(true, HeapArrayTransformer.isSupported(long[].class));
+		assertEquals(false, HeapArrayTransformer.isSupported(boolean[].class));
+		assertEquals(false, HeapArrayTransformer.isSupported(Object[].class));
+		assertEquals(false, HeapArrayTransformer.isSupported(int.class));
+	}
+
+	@DisplayName("A primitive array is marshalled as a heap segment")
+	@Test
+	void marshal() {
+		final int[] array = {1, 2};
+		final MemorySegment segment = transformer.marshal(array, null);
+		assertEquals(false, segment.isNative());
+		assertEquals(8, segment.byteSize());
+		assertEquals(2, segment.getAtIndex(JAVA_INT, 1));
+	}
+
+	@DisplayName("Modifications to the heap segment update the array in-place")
+	@Test
+	void update() {
+		final int[] array = new int[1];
+		transformer.marshal(array, null).set(JAVA_INT, 0, 42);
+		assertEquals(42, array[0]);
+	}
+
+	@Test
+	void invalid() {
+		assertThrows(IllegalArgumentException.class, () -> transformer.marshal(new Object[0], null));
+	}
+}
@@ -0,0 +1,100 @@
+package org.sarge.jove.foreign;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+
+class LazyNativeMethodTest {
+	private LazyNativeMethod lazy;
+	private AtomicInteger count;
+	private AtomicInteger used;
+	private Method method;
+
+	@BeforeEach
+	void before() throws Exception {
+		final var identity = new PrimitiveTransformer<Integer>(ValueLayout.JAVA_INT);
+		final NativeMethod delegate = new NativeMethod(MethodHandles.identity(int.class), identity, List.of(identity));
+		method = Object.class.getMethod("hashCode");
+		count = new AtomicInteger();
+		used = new AtomicInteger();
+		lazy = new LazyNativeMethod(method, _ -> {
+			count.incrementAndGet();
+			return delegate;
+		}, used::incrementAndGet);
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(false, lazy.isLinked());
+		assertEquals(false, lazy.isUsed());
+		assertEquals(0, count.get());
+	}
+
+	@DisplayName("A lazy native method is linked on first invocation")
+	@Test
+	void invoke() {
+		assertEquals(42, lazy.invoke(new Object[]{42}));
+		assertEquals(true, lazy.isLinked());
+		assertEquals(true, lazy.isUsed());
+		assertEquals(1, count.get());
+		assertEquals(1, used.get());
+	}
+
+	@DisplayName("A lazy native method that is linked in advance is not used until invoked")
+	@Test
+	void prelinked() {
+		lazy.link();
+		assertEquals(true, lazy.isLinked());
+		assertEquals(false, lazy.isUsed());
+		lazy.invoke(new Object[]{42});
+		lazy.invoke(new Object[]{42});
+		assertEquals(1, used.get());
+	}
+
+	@DisplayName("A lazy native method is only linked once")
+	@Test
+	void link() {
+		final NativeMethod linked = lazy.link();
+		assertSame(linked, lazy.link());
+		lazy.invoke(new Object[]{42});
+		assertEquals(1, count.get());
+	}
+
+	@DisplayName("A lazy native method is linked once when invoked concurrently")
+	@Test
+	void concurrent() throws Exception {
+		try(final ExecutorService executor = Executors.newFixedThreadPool(4)) {
+			final var tasks = Collections.nCopies(16, (Callable<Object>) () -> lazy.invoke(new Object[]{42}));
+			for(var future : executor.invokeAll(tasks)) {
+				assertEquals(42, future.get());
+			}
+		}
+		assertEquals(1, count.get());
+		assertEquals(1, used.get());
+	}
+
+	@DisplayName("A lazy native method is not linked if an error occurs")
+	@Test
+	void failed() {
+		lazy = new LazyNativeMethod(method, _ -> {
+			throw new IllegalArgumentException();
+		}, used::incrementAndGet);
+		assertThrows(IllegalArgumentException.class, () -> lazy.invoke(new Object[]{42}));
+		assertEquals(false, lazy.isLinked());
+		assertEquals(false, lazy.isUsed());
+	}
+
+	@Test
+	void equals() {
+		assertEquals(lazy, lazy);
+		assertEquals(lazy, new LazyNativeMethod(method, _ -> null, used::incrementAndGet));
+		assertNotEquals(lazy, null);
+	}
+}
@@ -0,0 +1,78 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+
+import org.junit.jupiter.api.*;
+
+class MemorySegmentTransformerTest {
+	private MemorySegmentTransformer transformer;
+	private Arena arena;
+
+	@BeforeEach
+	void before() {
+		transformer = new MemorySegmentTransformer();
+		arena = Arena.ofAuto();
+	}
+
+	@Test
+	void layout() {
+		assertEquals(ADDRESS, transformer.layout());
+	}
+
+	@Test
+	void empty() {
+		assertEquals(MemorySegment.NULL, transformer.empty());
+	}
+
+	@DisplayName("An off-heap segment is marshalled as-is")
+	@Test
+	void marshal() {
+		final MemorySegment segment = arena.allocate(4);
+		assertSame(segment, transformer.marshal(segment, arena));
+	}
+
+	@DisplayName("A heap segment is copied to off-heap memory")
+	@Test
+	void heap() {
+		final MemorySegment heap = MemorySegment.ofArray(new int[]{42});
+		final MemorySegment result = transformer.marshal(heap, arena);
+		assertEquals(true, result.isNative());
+		assertEquals(42, result.get(JAVA_INT, 0));
+	}
+
+	@Test
+	void unmarshal() {
+		final MemorySegment segment = arena.allocate(4);
+		assertSame(segment, transformer.unmarshal().apply(segment));
+	}
+
+	@DisplayName("A by-reference heap segment is copied back after invocation")
+	@Test
+	void update() {
+		final int[] array = new int[1];
+		final MemorySegment heap = MemorySegment.ofArray(array);
+		final MemorySegment address = transformer.marshal(heap, arena);
+		address.set(JAVA_INT, 0, 42);
+		transformer.update().accept(address, heap);
+		assertEquals(42, array[0]);
+	}
+
+	@DisplayName("An array of segments is marshalled as an array of pointers")
+	@Test
+	void array() {
+		final MemorySegment segment = arena.allocate(4);
+		final MemorySegment address = transformer.array().marshal(new MemorySegment[]{segment, null}, arena);
+		assertEquals(segment.address(), address.getAtIndex(ADDRESS, 0).address());
+		assertEquals(0L, address.getAtIndex(ADDRESS, 1).address());
+	}
+
+	@DisplayName("A memory segment transformer is registered by default")
+	@Test
+	void registry() {
+		assertEquals(true, DefaultRegistry.create().transformer(MemorySegment.class).isPresent());
+		assertEquals(true, DefaultRegistry.create().transformer(MemorySegment[].class).isPresent());
+	}
+}
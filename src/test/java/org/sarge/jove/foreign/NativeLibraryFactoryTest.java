@@ -2,11 +2,14 @@ package org.sarge.jove.foreign;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.*;
 import java.lang.foreign.*;
+import java.lang.reflect.Proxy;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.*;
+import org.sarge.jove.foreign.NativeLibraryFactory.*;
 
 class NativeLibraryFactoryTest {
 	private interface MockInterface {
@@ -43,6 +46,169 @@ class NativeLibraryFactoryTest {
 		assertEquals(42, listener.get());
 	}
 
+	@DisplayName("A native library can be implemented by a generated class")
+	@Test
+	void generated() {
+		final var listener = new AtomicReference<>();
+		factory.handler(listener::set);
+		factory.implementation(Implementation.GENERATED);
+
+		final var library = (MockInterface) factory.build(List.of(MockInterface.class));
+		assertFalse(Proxy.isProxyClass(library.getClass()));
+		assertEquals(3, library.abs(-3));
+		assertEquals(3, listener.get());
+	}
+
+	@DisplayName("A method declared by more than one API interface is only implemented once")
+	@Test
+	void duplicate() {
+		interface Duplicate {
+			int abs(int n);
+		}
+		for(Implementation implementation : Implementation.values()) {
+			factory.implementation(implementation);
+			final Object library = factory.build(List.of(MockInterface.class, Duplicate.class));
+			assertEquals(3, ((MockInterface) library).abs(-3));
+			assertEquals(3, ((Duplicate) library).abs(-3));
+		}
+		assertEquals(2, factory.statistics().methods());
+	}
+
+	@DisplayName("A method declared by more than one API interface must have the same return type")
+	@Test
+	void conflicting() {
+		interface Conflicting {
+			long abs(int n);
+		}
+		registry.add(long.class, new PrimitiveTransformer<>(ValueLayout.JAVA_LONG));
+		assertThrows(IllegalArgumentException.class, () -> factory.build(List.of(MockInterface.class, Conflicting.class)));
+	}
+
+	@DisplayName("A native library can be configured to link methods on first invocation")
+	@Test
+	void lazy() {
+		factory.linking(Linking.LAZY);
+		final var library = (MockInterface) factory.build(List.of(MockInterface.class));
+		assertEquals(1, factory.statistics().methods());
+		assertEquals(0, factory.statistics().linked());
+		assertEquals(0, factory.statistics().used());
+		assertEquals(3, library.abs(-3));
+		assertEquals(1, factory.statistics().linked());
+		assertEquals(1, factory.statistics().used());
+	}
+
+	@DisplayName("Methods that are pre-linked in the background are only counted as used when invoked")
+	@Test
+	void background() {
+		factory.linking(Linking.BACKGROUND);
+		final var library = (MockInterface) factory.build(List.of(MockInterface.class));
+		assertEquals(0, factory.statistics().used());
+		assertEquals(3, library.abs(-3));
+		assertEquals(1, factory.statistics().linked());
+		assertEquals(1, factory.statistics().used());
+	}
+
+	@DisplayName("Linking errors for a lazy library are reported when the method is invoked")
+	@Test
+	void lazyUnknown() {
+		interface Unknown {
+			void cobblers();
+		}
+		factory.linking(Linking.LAZY);
+		final var library = (Unknown) factory.build(List.of(Unknown.class));
+		assertThrows(IllegalArgumentException.class, () -> library.cobblers());
+	}
+
+	@DisplayName("Linking statistics are recorded for an eager library")
+	@Test
+	void statistics() {
+		factory.build(List.of(MockInterface.class));
+		final Statistics stats = factory.statistics();
+		assertEquals(1, stats.methods());
+		assertEquals(1, stats.linked());
+		assertEquals(0, stats.used());
+		assertFalse(stats.time().isNegative());
+		assertTrue(stats.startup().compareTo(stats.time()) >= 0);
+	}
+
+	@DisplayName("The native methods of a library can be instrumented")
+	@Test
+	void metrics() {
+		final var metrics = new NativeMetrics();
+		factory.metrics(metrics);
+		final var library = (MockInterface) factory.build(List.of(MockInterface.class));
+		library.abs(-3);
+		assertEquals(1, metrics.snapshot("abs").orElseThrow().count());
+	}
+
+	@DisplayName("A trivial native method can be linked as a critical downcall")
+	@Test
+	void critical() {
+		interface CriticalInterface {
+			@Critical
+			int abs(int n);
+		}
+		factory.critical(true);
+		final var library = (CriticalInterface) factory.build(List.of(CriticalInterface.class));
+		assertEquals(3, library.abs(-3));
+	}
+
+	@DisplayName("The critical annotation is ignored unless critical linking is enabled")
+	@Test
+	void criticalDisabled() {
+		interface CriticalHeap {
+			@Critical(heap = true)
+			void memset(@Updated byte[] dest, int c, long n);
+		}
+		registry.add(byte.class, new PrimitiveTransformer<>(ValueLayout.JAVA_BYTE));
+		registry.add(long.class, new PrimitiveTransformer<>(ValueLayout.JAVA_LONG));
+		final var library = (CriticalHeap) factory.build(List.of(CriticalHeap.class));
+		final byte[] array = new byte[2];
+		library.memset(array, 3, 2L);
+		assertArrayEquals(new byte[]{3, 3}, array);
+	}
+
+	@DisplayName("A critical native method cannot accept a callback")
+	@Test
+	void criticalCallback() {
+		interface CriticalCallback {
+			@Critical
+			void abs(MockCallback callback);
+		}
+		registry.add(Callback.class, new Callback.CallbackTransformerFactory(registry));
+		final Exception e = assertThrows(IllegalArgumentException.class, () -> factory.build(List.of(CriticalCallback.class)));
+		assertTrue(e.getMessage().startsWith("Critical method cannot accept a callback"));
+	}
+
+	@DisplayName("A heap segment passed as a by-reference parameter is copied back after invocation")
+	@Test
+	void updated() {
+		interface UpdatedInterface {
+			void memset(@Updated MemorySegment dest, int c, long n);
+		}
+		registry.add(long.class, new PrimitiveTransformer<>(ValueLayout.JAVA_LONG));
+		registry.add(MemorySegment.class, new MemorySegmentTransformer());
+		final var library = (UpdatedInterface) factory.build(List.of(UpdatedInterface.class));
+		final byte[] array = new byte[4];
+		library.memset(MemorySegment.ofArray(array), 7, 4L);
+		assertArrayEquals(new byte[]{7, 7, 7, 7}, array);
+	}
+
+	@DisplayName("The invocations of a native library can be recorded and replayed")
+	@Test
+	void trace() throws Exception {
+		final var out = new ByteArrayOutputStream();
+		try(final var writer = new NativeTrace.Writer(out)) {
+			factory.trace(writer);
+			final var library = (MockInterface) factory.build(List.of(MockInterface.class));
+			library.abs(-3);
+			assertEquals(1, writer.count());
+		}
+
+		final TraceReplay replay = TraceReplay.load(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(List.of(new NativeTrace.Call("abs", List.of(-3), 3)), replay.calls());
+	}
+
 	@DisplayName("A native API must be expressed as an interface")
 	@Test
 	void concrete() {
@@ -0,0 +1,91 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.*;
+
+class NativeLibraryGeneratorTest {
+	interface MockLibrary {
+		void method();
+		long add(long left, int right);
+		double multiply(double left, float right);
+	}
+
+	static void method() {
+		// Empty
+	}
+
+	static long add(long left, int right) {
+		return left + right;
+	}
+
+	static double multiply(double left, float right) {
+		return left * right;
+	}
+
+	private NativeLibraryGenerator generator;
+	private List<NativeMethod> bindings;
+	private AtomicReference<Object> handler;
+
+	@BeforeEach
+	void before() throws Exception {
+		// Init API methods
+		final List<Method> methods = List.of(
+				MockLibrary.class.getMethod("method"),
+				MockLibrary.class.getMethod("add", long.class, int.class),
+				MockLibrary.class.getMethod("multiply", double.class, float.class)
+		);
+
+		// Bind native methods
+		final var lookup = MethodHandles.lookup();
+		final var type = NativeLibraryGeneratorTest.class;
+		final var integer = new PrimitiveTransformer<>(JAVA_INT);
+		final var wide = new PrimitiveTransformer<>(JAVA_LONG);
+		final var real = new PrimitiveTransformer<>(JAVA_FLOAT);
+		final var precise = new PrimitiveTransformer<>(JAVA_DOUBLE);
+		bindings = List.of(
+				new NativeMethod(lookup.findStatic(type, "method", MethodType.methodType(void.class)), null, List.of()),
+				new NativeMethod(lookup.findStatic(type, "add", MethodType.methodType(long.class, long.class, int.class)), wide, List.of(wide, integer)),
+				new NativeMethod(lookup.findStatic(type, "multiply", MethodType.methodType(double.class, double.class, float.class)), precise, List.of(precise, real))
+		);
+
+		// Create generator
+		generator = new NativeLibraryGenerator(List.of(MockLibrary.class), methods);
+		handler = new AtomicReference<>();
+	}
+
+	@DisplayName("The generated library delegates API methods to the corresponding native method")
+	@Test
+	void build() {
+		final var library = (MockLibrary) generator.build(bindings, handler::set);
+		library.method();
+		assertEquals(5L, library.add(2L, 3));
+		assertEquals(6.0, library.multiply(2.0, 3f));
+	}
+
+	@DisplayName("The generated library delegates return values to the handler")
+	@Test
+	void handler() {
+		final var library = (MockLibrary) generator.build(bindings, handler::set);
+		library.add(2L, 3);
+		assertEquals(5L, handler.get());
+	}
+
+	@DisplayName("The number of native methods must match the API")
+	@Test
+	void mismatched() {
+		assertThrows(IllegalArgumentException.class, () -> generator.build(List.of(), handler::set));
+	}
+
+	@DisplayName("The generated library must be able to access the API")
+	@Test
+	void inaccessible() {
+		assertThrows(IllegalArgumentException.class, () -> new NativeLibraryGenerator(List.of(Runnable.class, MockLibrary.class), List.of()));
+	}
+}
@@ -7,6 +7,8 @@ import java.lang.invoke.*;
 import java.util.List;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sarge.jove.util.Benchmark;
 
 class NativeMethodTest {
 	private PrimitiveTransformer<Integer> identity;
@@ -62,6 +64,14 @@ class NativeMethodTest {
     		assertEquals(42, method.invoke(new Object[]{42}));
     	}
 
+    	@DisplayName("marshals multiple arguments of differing types")
+    	@Test
+    	void multiple() {
+    		final MethodHandle handle = MethodHandles.dropArguments(MethodHandles.identity(int.class), 1, long.class);
+    		final var method = new NativeMethod(handle, identity, List.of(identity, new PrimitiveTransformer<>(ValueLayout.JAVA_LONG)));
+    		assertEquals(42, method.invoke(new Object[]{42, 3L}));
+    	}
+
     	@DisplayName("can marshal NULL arguments")
     	@Test
     	void empty() {
@@ -114,6 +124,17 @@ class NativeMethodTest {
 		}
 	}
 
+	@DisplayName("A native method can be instrumented to record invocation metrics")
+	@Test
+	void instrument() {
+		final var metrics = new NativeMetrics();
+		final MethodHandle handle = MethodHandles.identity(int.class);
+		final var method = new NativeMethod(handle, identity, List.of(identity));
+		method.instrument(metrics.recorder("method"));
+		assertEquals(42, method.invoke(new Object[]{42}));
+		assertEquals(1, metrics.snapshot("method").orElseThrow().count());
+	}
+
 	@Test
 	void equals() {
 		final MethodHandle handle = MethodHandles.constant(int.class, 42);
@@ -122,4 +143,33 @@ class NativeMethodTest {
 		assertEquals(method, new NativeMethod(handle, identity, List.of()));
 		assertNotEquals(method, null);
 	}
+
+	@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+	@Nested
+	class BenchmarkTests {
+		private static final int ITERATIONS = 10_000_000;
+
+		@DisplayName("A native method should have less per-call overhead than the generic invocation path")
+		@Test
+		void overhead() throws Throwable {
+			// Link a trivial native function
+			final Linker linker = Linker.nativeLinker();
+			final MemorySegment symbol = linker.defaultLookup().find("abs").orElseThrow();
+			final MethodHandle handle = linker.downcallHandle(symbol, FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+			final var method = new NativeMethod(handle, identity, List.of(identity));
+			assertEquals(42, method.invoke(new Object[]{-42}));
+
+			// Time generic and native method invocations
+			final double generic = Benchmark.time(ITERATIONS, () -> {
+				try {
+					return handle.invokeWithArguments(new Object[]{-42});
+				}
+				catch(Throwable e) {
+					throw new RuntimeException(e);
+				}
+			});
+			final double invoker = Benchmark.time(ITERATIONS, () -> method.invoke(new Object[]{-42}));
+			Benchmark.assertFaster("NativeMethod", generic, invoker);
+		}
+	}
 }
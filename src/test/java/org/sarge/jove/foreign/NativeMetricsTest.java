@@ -0,0 +1,70 @@
+package org.sarge.jove.foreign;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.foreign.NativeMetrics.*;
+
+class NativeMetricsTest {
+	private NativeMetrics metrics;
+	private Recorder recorder;
+
+	@BeforeEach
+	void before() {
+		metrics = new NativeMetrics();
+		recorder = metrics.recorder("method");
+	}
+
+	@Test
+	void recorder() {
+		assertEquals("method", recorder.name());
+		assertSame(recorder, metrics.recorder("method"));
+	}
+
+	@Test
+	void empty() {
+		final Latency none = new Latency(Duration.ZERO, Duration.ZERO);
+		final var expected = new Snapshot("method", 0, none, none, none, 0);
+		assertEquals(List.of(expected), metrics.snapshot());
+		assertEquals(Duration.ZERO, expected.total());
+	}
+
+	@DisplayName("The metrics for a native method can be recorded")
+	@Test
+	void record() {
+		recorder.record(1, 2, 3, 4);
+		recorder.record(5, 1, 1, 4);
+
+		final Snapshot snapshot = metrics.snapshot("method").orElseThrow();
+		assertEquals(2, snapshot.count());
+		assertEquals(new Latency(Duration.ofNanos(6), Duration.ofNanos(5)), snapshot.marshal());
+		assertEquals(new Latency(Duration.ofNanos(3), Duration.ofNanos(2)), snapshot.downcall());
+		assertEquals(new Latency(Duration.ofNanos(4), Duration.ofNanos(3)), snapshot.unmarshal());
+		assertEquals(8, snapshot.bytes());
+		assertEquals(Duration.ofNanos(13), snapshot.total());
+	}
+
+	@DisplayName("A snapshot of the metrics is ordered by total latency")
+	@Test
+	void order() {
+		final Recorder other = metrics.recorder("other");
+		recorder.record(1, 1, 1, 0);
+		other.record(2, 2, 2, 0);
+		assertEquals(List.of("other", "method"), metrics.snapshot().stream().map(Snapshot::name).toList());
+	}
+
+	@Test
+	void unknown() {
+		assertEquals(true, metrics.snapshot("cobblers").isEmpty());
+	}
+
+	@Test
+	void reset() {
+		recorder.record(1, 2, 3, 4);
+		metrics.reset();
+		assertEquals(0, metrics.snapshot("method").orElseThrow().count());
+	}
+}
@@ -0,0 +1,122 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.lang.foreign.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.foreign.NativeTrace.Call;
+import org.sarge.jove.foreign.NativeTrace.Writer;
+
+class NativeTraceTest {
+	private ByteArrayOutputStream out;
+	private Writer writer;
+
+	@BeforeEach
+	void before() {
+		out = new ByteArrayOutputStream();
+		writer = new Writer(out);
+	}
+
+	private List<Call> read() throws IOException {
+		writer.close();
+		return NativeTrace.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	void empty() throws IOException {
+		assertEquals(0, writer.count());
+		assertEquals(List.of(), read());
+	}
+
+	@DisplayName("A native invocation with primitive arguments can be recorded")
+	@Test
+	void primitives() throws IOException {
+		writer.write("method", new Object[]{(byte) 1, 'c', (short) 2, 3, 4L, 5f, 6d}, 7);
+		assertEquals(1, writer.count());
+		assertEquals(List.of(new Call("method", List.of((byte) 1, 'c', (short) 2, 3, 4L, 5f, 6d), 7)), read());
+	}
+
+	@DisplayName("A native invocation without arguments or a return value can be recorded")
+	@Test
+	void none() throws IOException {
+		writer.write("method", null, null);
+		assertEquals(List.of(new Call("method", List.of(), null)), read());
+	}
+
+	@DisplayName("The contents of an off-heap argument are recorded")
+	@Test
+	void contents() throws IOException {
+		final MemorySegment address = Arena.ofAuto().allocate(JAVA_INT);
+		address.set(JAVA_INT, 0, 42);
+		writer.write("method", new Object[]{address}, null);
+
+		final MemorySegment arg = (MemorySegment) read().getFirst().args().getFirst();
+		assertEquals(false, arg.isNative());
+		assertEquals(42, arg.get(JAVA_INT_UNALIGNED, 0));
+	}
+
+	@DisplayName("The contents of an off-heap argument are recorded before invocation and any modifications are recorded as outputs")
+	@Test
+	void outputs() throws IOException {
+		// Capture inputs
+		final MemorySegment address = Arena.ofAuto().allocate(JAVA_INT);
+		address.set(JAVA_INT, 0, 42);
+		final Object[] args = {address, 3};
+		final byte[][] inputs = writer.capture(args);
+
+		// Modify argument and record
+		address.set(JAVA_INT, 0, 4);
+		writer.write("method", args, inputs, null);
+
+		// Check input contents
+		final Call call = read().getFirst();
+		final MemorySegment arg = (MemorySegment) call.args().getFirst();
+		assertEquals(42, arg.get(JAVA_INT_UNALIGNED, 0));
+		assertEquals(3, call.args().getLast());
+
+		// Check output contents
+		assertEquals(1, call.outputs().size());
+		assertEquals(4, call.outputs().get(0).get(JAVA_INT_UNALIGNED, 0));
+	}
+
+	@DisplayName("An unmodified off-heap argument is not recorded as an output")
+	@Test
+	void unmodified() throws IOException {
+		final MemorySegment address = Arena.ofAuto().allocate(JAVA_INT);
+		final Object[] args = {address};
+		writer.write("method", args, writer.capture(args), null);
+		assertEquals(Map.of(), read().getFirst().outputs());
+	}
+
+	@DisplayName("An off-heap argument without any contents is recorded as an address")
+	@Test
+	void address() throws IOException {
+		writer.write("method", new Object[]{MemorySegment.ofAddress(42)}, MemorySegment.NULL);
+		final Call call = read().getFirst();
+		assertEquals(MemorySegment.ofAddress(42), call.args().getFirst());
+		assertEquals(MemorySegment.NULL, call.result());
+	}
+
+	@DisplayName("Each method is defined once in the trace")
+	@Test
+	void methods() throws IOException {
+		writer.write("one", null, null);
+		writer.write("two", null, null);
+		writer.write("one", null, null);
+		assertEquals(List.of("one", "two", "one"), read().stream().map(Call::method).toList());
+	}
+
+	@Test
+	void invalid() {
+		assertThrows(IllegalArgumentException.class, () -> NativeTrace.read(new ByteArrayInputStream(new byte[6])));
+	}
+
+	@Test
+	void unsupported() {
+		assertThrows(IllegalArgumentException.class, () -> writer.write("method", new Object[]{new Object()}, null));
+	}
+}
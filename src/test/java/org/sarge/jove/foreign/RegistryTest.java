@@ -1,9 +1,10 @@
 package org.sarge.jove.foreign;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.foreign.ValueLayout;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.foreign.Registry.Factory;
@@ -55,4 +56,35 @@ class RegistryTest {
 	void unknown() {
 		assertEquals(Optional.empty(), registry.transformer(String.class));
 	}
+
+	@DisplayName("Registering a transformer discards previously resolved transformers")
+	@Test
+	void invalidate() {
+		assertEquals(Optional.empty(), registry.transformer(String.class));
+		final var string = new StringTransformer();
+		registry.add(String.class, string);
+		assertEquals(Optional.of(string), registry.transformer(String.class));
+	}
+
+	@DisplayName("A frozen registry cannot be modified")
+	@Test
+	void freeze() {
+		assertEquals(false, registry.isFrozen());
+		registry.freeze();
+		assertEquals(true, registry.isFrozen());
+		assertThrows(IllegalStateException.class, () -> registry.add(String.class, new StringTransformer()));
+		assertThrows(IllegalStateException.class, () -> registry.add(Number.class, _ -> transformer));
+		assertEquals(Optional.of(transformer), registry.transformer(Integer.class));
+	}
+
+	@DisplayName("Transformers can be resolved concurrently")
+	@Test
+	void concurrent() throws Exception {
+		final Callable<Object> lookup = () -> registry.transformer(Integer.class).orElseThrow();
+		try(final var executor = Executors.newFixedThreadPool(4)) {
+			for(Future<Object> future : executor.invokeAll(Collections.nCopies(16, lookup))) {
+				assertEquals(transformer, future.get());
+			}
+		}
+	}
 }
@@ -0,0 +1,102 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.MemorySegment;
+
+import org.junit.jupiter.api.*;
+
+class StackAllocatorTest {
+	private StackAllocator allocator;
+
+	@BeforeEach
+	void before() {
+		allocator = new StackAllocator(16);
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(16, allocator.size());
+		assertEquals(0, allocator.used());
+		assertEquals(0, allocator.allocated());
+		assertEquals(16, allocator.reserved());
+	}
+
+	@DisplayName("Off-heap memory can be allocated from the stack")
+	@Test
+	void allocate() {
+		final MemorySegment segment = allocator.allocate(JAVA_INT);
+		assertEquals(4, segment.byteSize());
+		assertEquals(0, segment.get(JAVA_INT, 0));
+		assertEquals(4, allocator.used());
+		assertEquals(4, allocator.allocated());
+	}
+
+	@DisplayName("Off-heap memory allocated from the stack is aligned")
+	@Test
+	void align() {
+		allocator.allocate(JAVA_BYTE);
+		final MemorySegment segment = allocator.allocate(JAVA_LONG);
+		assertEquals(0, segment.address() % 8);
+		assertEquals(16, allocator.used());
+	}
+
+	@DisplayName("Allocated memory is initialised to zero")
+	@Test
+	void zero() {
+		allocator.allocate(JAVA_INT).set(JAVA_INT, 0, 42);
+		allocator.reset();
+		assertEquals(0, allocator.allocate(JAVA_INT).get(JAVA_INT, 0));
+	}
+
+	@DisplayName("The stack is grown if the slab is exhausted")
+	@Test
+	void grow() {
+		allocator.allocate(JAVA_LONG);
+		allocator.allocate(JAVA_LONG);
+		allocator.allocate(JAVA_LONG);
+		assertEquals(32, allocator.size());
+		assertEquals(8, allocator.used());
+		assertEquals(24, allocator.allocated());
+		assertEquals(16 + 32, allocator.reserved());
+	}
+
+	@DisplayName("The stack is reset when the outermost native invocation completes")
+	@Test
+	void pop() {
+		allocator.push();
+		allocator.push();
+		allocator.allocate(JAVA_INT);
+		allocator.pop();
+		assertEquals(4, allocator.used());
+		allocator.pop();
+		assertEquals(0, allocator.used());
+	}
+
+	@DisplayName("The stack can be configured to retain allocated memory")
+	@Test
+	void retain() {
+		allocator.retain(true);
+		allocator.push();
+		allocator.allocate(JAVA_INT);
+		allocator.pop();
+		assertEquals(4, allocator.used());
+		allocator.reset();
+		assertEquals(0, allocator.used());
+	}
+
+	@DisplayName("The stack cannot be reset during a native invocation")
+	@Test
+	void reset() {
+		allocator.push();
+		assertThrows(IllegalStateException.class, () -> allocator.reset());
+	}
+
+	@DisplayName("A stack allocator is created for each thread")
+	@Test
+	void local() {
+		assertNotNull(StackAllocator.local());
+		assertSame(StackAllocator.local(), StackAllocator.local());
+	}
+}
@@ -0,0 +1,173 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+class StaticStructureTransformerTest {
+	public static class StaticStructure implements NativeStructure {
+		public int value;
+		public String name;
+
+		@Override
+		public GroupLayout layout() {
+			return MemoryLayout.structLayout(
+					JAVA_INT.withName("value"),
+					PADDING,
+					POINTER.withName("name")
+			);
+		}
+	}
+
+	private static class StaticStructureMarshaller implements StructureMarshaller<StaticStructure> {
+		@Override
+		public Class<StaticStructure> type() {
+			return StaticStructure.class;
+		}
+
+		@Override
+		public StaticStructure create() {
+			return new StaticStructure();
+		}
+
+		@Override
+		public List<Class<?>> fields() {
+			return List.of(int.class, String.class);
+		}
+
+		@Override
+		public void marshal(StaticStructure structure, MemorySegment address, Fields fields, SegmentAllocator allocator) {
+			address.set(JAVA_INT, 0L, structure.value);
+			fields.marshal(1, structure.name, address, allocator);
+		}
+
+		@Override
+		public void unmarshal(MemorySegment address, StaticStructure structure, Fields fields) {
+			structure.value = address.get(JAVA_INT, 0L);
+			structure.name = (String) fields.unmarshal(1, address);
+		}
+	}
+
+	public static final class MockIndex {
+		static final StructureMarshaller<StaticStructure> MARSHALLER = new StaticStructureMarshaller();
+
+		public static final StructureMarshaller.Index INDEX = StructureMarshaller.Index.of(List.of(MARSHALLER));
+	}
+
+	private StructureTransformerFactory factory;
+	private StructureMarshaller<StaticStructure> marshaller;
+	private StaticStructure structure;
+	private SegmentAllocator allocator;
+
+	@BeforeEach
+	void before() {
+		marshaller = new StaticStructureMarshaller();
+		factory = new StructureTransformerFactory(DefaultRegistry.create());
+		factory.index(StructureMarshaller.Index.of(List.of(marshaller)));
+		structure = new StaticStructure();
+		structure.value = 42;
+		structure.name = "name";
+		allocator = Arena.ofAuto();
+	}
+
+	@DisplayName("A structure with a generated marshaller is transformed statically")
+	@Test
+	void transformer() {
+		final StructureTransformer transformer = factory.transformer(StaticStructure.class);
+		assertEquals(StaticStructureTransformer.class, transformer.getClass());
+		assertEquals(structure.layout(), transformer.layout());
+	}
+
+	@DisplayName("A structure without a generated marshaller is transformed reflectively")
+	@Test
+	void reflective() {
+		assertEquals(StructureTransformer.class, factory.transformer(MockStructure.class).getClass());
+	}
+
+	@DisplayName("A static structure transformer marshals primitive and delegated fields")
+	@Test
+	void marshal() {
+		final MemorySegment address = factory.transformer(StaticStructure.class).marshal(structure, allocator);
+		assertEquals(42, address.get(JAVA_INT, 0));
+		assertEquals("name", address.get(NativeStructure.POINTER, 8).getString(0));
+	}
+
+	@DisplayName("A static structure transformer marshals identically to the reflective implementation")
+	@Test
+	void reflect() {
+		final MemorySegment actual = factory.transformer(StaticStructure.class).marshal(structure, allocator);
+		final var reflective = new StructureTransformerFactory(DefaultRegistry.create());
+		final MemorySegment expected = reflective.transformer(StaticStructure.class).marshal(structure, allocator);
+		assertEquals(expected.get(JAVA_INT, 0), actual.get(JAVA_INT, 0));
+		assertEquals(expected.get(NativeStructure.POINTER, 8).getString(0), actual.get(NativeStructure.POINTER, 8).getString(0));
+	}
+
+	@DisplayName("A static structure transformer unmarshals primitive and delegated fields")
+	@Test
+	void unmarshal() {
+		final StructureTransformer transformer = factory.transformer(StaticStructure.class);
+		final MemorySegment address = transformer.marshal(structure, allocator);
+		final var result = (StaticStructure) transformer.unmarshal().apply(address);
+		assertEquals(42, result.value);
+		assertEquals("name", result.name);
+	}
+
+	@DisplayName("The fields of a generated marshaller must match the structure layout")
+	@Test
+	void mismatched() {
+		final var invalid = new StaticStructureMarshaller() {
+			@Override
+			public List<Class<?>> fields() {
+				return List.of(int.class);
+			}
+		};
+		factory.index(StructureMarshaller.Index.of(List.of(invalid)));
+		assertThrows(IllegalArgumentException.class, () -> factory.transformer(StaticStructure.class));
+	}
+
+	@Nested
+	class IndexTests {
+		@DisplayName("A structure marshaller can be looked up from an index")
+		@Test
+		void of() {
+			final var index = StructureMarshaller.Index.of(List.of(marshaller));
+			assertEquals(Optional.of(marshaller), index.marshaller(StaticStructure.class));
+			assertEquals(Optional.empty(), index.marshaller(MockStructure.class));
+		}
+
+		@DisplayName("A generated index can be loaded by name")
+		@Test
+		void load() {
+			final var index = StructureMarshaller.Index.load(MockIndex.class.getName());
+			assertEquals(Optional.of(MockIndex.MARSHALLER), index.marshaller(StaticStructure.class));
+		}
+
+		@DisplayName("The empty index is loaded if the generated index is not present")
+		@Test
+		void missing() {
+			assertEquals(StructureMarshaller.Index.EMPTY, StructureMarshaller.Index.load("cobblers"));
+		}
+
+		@DisplayName("A generated index must declare the index field")
+		@Test
+		void invalid() {
+			assertThrows(IllegalArgumentException.class, () -> StructureMarshaller.Index.load(String.class.getName()));
+		}
+
+		@DisplayName("The empty index does not contain any marshallers")
+		@Test
+		void empty() {
+			assertEquals(Optional.empty(), StructureMarshaller.Index.EMPTY.marshaller(StaticStructure.class));
+		}
+
+		@DisplayName("An index cannot contain duplicate marshallers")
+		@Test
+		void duplicate() {
+			assertThrows(IllegalStateException.class, () -> StructureMarshaller.Index.of(List.of(marshaller, marshaller)));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+
+import org.junit.jupiter.api.*;
+
+class StructureArrayTest {
+	private StructureArray<MockStructure> array;
+	private StructureArrayTransformer transformer;
+	private SegmentAllocator allocator;
+
+	@BeforeEach
+	void before() {
+		array = new StructureArray<>(MockStructure.class, 2);
+		transformer = new StructureArrayTransformer(DefaultRegistry.create());
+		allocator = Arena.ofAuto();
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(MockStructure.class, array.type());
+		assertEquals(2, array.size());
+		assertEquals(false, array.isBound());
+	}
+
+	@DisplayName("The elements of an unpopulated structure array cannot be accessed")
+	@Test
+	void unbound() {
+		assertThrows(IllegalStateException.class, () -> array.get(0));
+	}
+
+	@DisplayName("A structure array is backed by off-heap memory when marshalled")
+	@Test
+	void marshal() {
+		final MemorySegment address = transformer.marshal(array, allocator);
+		assertEquals(2 * 4, address.byteSize());
+		assertEquals(true, array.isBound());
+		assertSame(address, transformer.marshal(array, allocator));
+	}
+
+	@DisplayName("The elements of a structure array are unmarshalled on demand")
+	@Test
+	void get() {
+		final MemorySegment address = transformer.marshal(array, allocator);
+		address.setAtIndex(JAVA_INT, 1, 42);
+		final MockStructure element = array.get(1);
+		assertEquals(42, element.field);
+		assertSame(element, array.get(1));
+		assertEquals(0, array.getFirst().field);
+	}
+
+	@DisplayName("The cached elements are discarded when the array is re-populated")
+	@Test
+	void reset() {
+		final MemorySegment address = transformer.marshal(array, allocator);
+		final MockStructure element = array.get(0);
+		address.setAtIndex(JAVA_INT, 0, 3);
+		transformer.marshal(array, allocator);
+		assertNotSame(element, array.get(0));
+		assertEquals(3, array.get(0).field);
+	}
+
+	@Test
+	void index() {
+		transformer.marshal(array, allocator);
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(2));
+	}
+
+	@Test
+	void readOnly() {
+		assertThrows(UnsupportedOperationException.class, () -> array.add(new MockStructure()));
+	}
+
+	@DisplayName("A structure array can be backed by memory provided by the application")
+	@Test
+	void provided() {
+		final MemorySegment address = Arena.ofAuto().allocate(8);
+		array = new StructureArray<>(MockStructure.class, 2, address);
+		assertSame(address, transformer.marshal(array, allocator));
+	}
+
+	@DisplayName("The memory provided by the application must be large enough for the array")
+	@Test
+	void insufficient() {
+		array = new StructureArray<>(MockStructure.class, 2, Arena.ofAuto().allocate(4));
+		assertThrows(IllegalArgumentException.class, () -> transformer.marshal(array, allocator));
+	}
+}
@@ -0,0 +1,78 @@
+package org.sarge.jove.foreign;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.util.EnumMask;
+
+class StructureCompilerTest {
+	private StructureTransformerFactory reflective, compiled;
+	private SegmentAllocator allocator;
+
+	@BeforeEach
+	void before() {
+		final Registry registry = DefaultRegistry.create();
+		reflective = new StructureTransformerFactory(registry);
+		compiled = new StructureTransformerFactory(registry, true);
+		allocator = Arena.ofAuto();
+	}
+
+	@DisplayName("The factory can be configured to compile structure transformers")
+	@Test
+	void transformer() {
+		assertEquals(CompiledStructureTransformer.class, compiled.transformer(MockStructure.class).getClass());
+		assertEquals(StructureTransformer.class, reflective.transformer(MockStructure.class).getClass());
+	}
+
+	@DisplayName("A compiled structure transformer marshals a structure identically to the reflective implementation")
+	@Test
+	void marshal() {
+		// Init structure with primitive, enumeration and nested fields
+		final var structure = new VkQueueFamilyProperties();
+		structure.queueFlags = new EnumMask<>(3);
+		structure.queueCount = 2;
+		structure.timestampValidBits = 3;
+		structure.minImageTransferGranularity = new VkExtent3D();
+		structure.minImageTransferGranularity.width = 4;
+
+		// Marshal using both implementations
+		final MemorySegment expected = reflective.transformer(VkQueueFamilyProperties.class).marshal(structure, allocator);
+		final MemorySegment actual = compiled.transformer(VkQueueFamilyProperties.class).marshal(structure, allocator);
+
+		// Compare off-heap memory
+		assertEquals(-1, expected.mismatch(actual));
+	}
+
+	@DisplayName("A compiled structure transformer unmarshals a structure identically to the reflective implementation")
+	@Test
+	void unmarshal() {
+		// Init structure
+		final var structure = new VkExtensionProperties();
+		structure.extensionName = "name";
+		structure.specVersion = 3;
+
+		// Marshal structure
+		final MemorySegment address = reflective.transformer(VkExtensionProperties.class).marshal(structure, allocator);
+
+		// Unmarshal using both implementations
+		final var expected = (VkExtensionProperties) reflective.transformer(VkExtensionProperties.class).unmarshal().apply(address);
+		final var actual = (VkExtensionProperties) compiled.transformer(VkExtensionProperties.class).unmarshal().apply(address);
+
+		// Compare
+		assertEquals(expected.extensionName, actual.extensionName);
+		assertEquals(expected.specVersion, actual.specVersion);
+	}
+
+	@DisplayName("A compiled structure transformer can marshal empty fields")
+	@Test
+	void empty() {
+		final var structure = new VkDeviceQueueCreateInfo();
+		structure.sType = VkStructureType.DEVICE_QUEUE_CREATE_INFO;
+		final MemorySegment expected = reflective.transformer(VkDeviceQueueCreateInfo.class).marshal(structure, allocator);
+		final MemorySegment actual = compiled.transformer(VkDeviceQueueCreateInfo.class).marshal(structure, allocator);
+		assertEquals(-1, expected.mismatch(actual));
+	}
+}
@@ -0,0 +1,61 @@
+package org.sarge.jove.foreign;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.foreign.NativeTrace.Call;
+
+class TraceReplayTest {
+	private TraceReplay replay;
+	private Call call;
+
+	@BeforeEach
+	void before() {
+		call = new Call("abs", List.of(-3), 3);
+		replay = new TraceReplay(List.of(call, call));
+	}
+
+	@Test
+	void descriptor() {
+		assertEquals(FunctionDescriptor.of(JAVA_INT, JAVA_INT), TraceReplay.descriptor(call));
+		assertEquals(FunctionDescriptor.ofVoid(ADDRESS), TraceReplay.descriptor(new Call("method", List.of(MemorySegment.NULL), null)));
+	}
+
+	@DisplayName("A trace can be replayed against a Java implementation")
+	@Test
+	void target() {
+		final List<String> methods = new ArrayList<>();
+		replay.replay((method, args) -> {
+			methods.add(method);
+			assertArrayEquals(new Object[]{-3}, args);
+			return 3;
+		});
+		assertEquals(List.of("abs", "abs"), methods);
+	}
+
+	@DisplayName("A trace can be replayed against a native library")
+	@Test
+	void library() {
+		replay.replay(Linker.nativeLinker().defaultLookup());
+	}
+
+	@DisplayName("A trace can be replayed against local no-op native functions")
+	@Test
+	void stub() {
+		final var structure = MemorySegment.ofArray(new byte[8]);
+		final var pointer = new Call("pointer", List.of(structure, 1L), MemorySegment.NULL);
+		final var empty = new Call("empty", List.of(), null);
+		new TraceReplay(List.of(call, pointer, empty)).replay();
+	}
+
+	@DisplayName("A trace replayed against a native library must only contain methods present in that library")
+	@Test
+	void unknown() {
+		replay = new TraceReplay(List.of(new Call("cobblers", List.of(), null)));
+		assertThrows(IllegalArgumentException.class, () -> replay.replay(Linker.nativeLinker().defaultLookup()));
+	}
+}
@@ -1,6 +1,7 @@
 package org.sarge.jove.foreign;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
 
 import java.lang.foreign.*;
 
@@ -31,4 +32,65 @@ class UpdateTransformerTest {
 		transformer.update().accept(address, structure);
 		assertEquals(42, structure.field);
 	}
+
+	@DisplayName("An output only parameter...")
+	@Nested
+	class Output {
+		private UpdateTransformer<NativeStructure> output;
+
+		@BeforeEach
+		void before() {
+			final var structure = (StructureTransformer) DefaultRegistry.create().transformer(MockStructure.class).orElseThrow();
+			output = new UpdateTransformer<>(structure, true);
+		}
+
+		@Test
+		void constructor() {
+			assertEquals(true, output.isOutput());
+			assertEquals(false, transformer.isOutput());
+		}
+
+		@DisplayName("is allocated and zeroed but not marshalled")
+		@Test
+		void marshal() {
+			final var structure = new MockStructure();
+			structure.field = 3;
+			final MemorySegment address = output.marshal(structure, Arena.ofAuto());
+			assertEquals(4, address.byteSize());
+			assertEquals(0, address.get(JAVA_INT, 0));
+		}
+
+		@DisplayName("is unmarshalled after invocation")
+		@Test
+		void update() {
+			final var structure = new MockStructure();
+			final MemorySegment address = output.marshal(structure, Arena.ofAuto());
+			address.set(JAVA_INT, 0, 42);
+			output.update().accept(address, structure);
+			assertEquals(42, structure.field);
+		}
+
+		@DisplayName("can reuse the memory of a structure array")
+		@Test
+		void reuse() {
+			// Init caller-supplied memory
+			final MemorySegment segment = Arena.ofAuto().allocate(JAVA_INT);
+			segment.set(JAVA_INT, 0, 3);
+
+			// Marshal array
+			final var returned = new UpdateTransformer<>(new StructureArrayTransformer(DefaultRegistry.create()), true);
+			final var array = new StructureArray<>(MockStructure.class, 1, segment);
+			final MemorySegment address = returned.marshal(array, Arena.ofAuto());
+			assertEquals(segment, address);
+			assertEquals(0, address.get(JAVA_INT, 0));
+
+			// Check unmarshalled in-place
+			address.set(JAVA_INT, 0, 42);
+			assertEquals(42, array.getFirst().field);
+
+			// Check memory is reused and zeroed
+			assertEquals(segment, returned.marshal(array, Arena.ofAuto()));
+			assertEquals(0, segment.get(JAVA_INT, 0));
+		}
+	}
 }
@@ -8,6 +8,7 @@ import java.util.*;
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Handle;
 import org.sarge.jove.foreign.*;
+import org.sarge.jove.foreign.Callback.CallbackTransformerFactory;
 
 class DesktopTest {
 	static class MockDesktopLibrary implements DesktopLibrary {
@@ -69,14 +70,14 @@ class DesktopTest {
 	@BeforeEach
 	void before() {
 		library = new MockDesktopLibrary();
-		desktop = new Desktop(library);
+		desktop = new Desktop(library, new CallbackTransformerFactory(new Registry()));
 		assertEquals(false, desktop.isDestroyed());
 	}
 
 	@Test
 	void init() {
 		library.init = 42;
-		assertThrows(RuntimeException.class, () -> new Desktop(library));
+		assertThrows(RuntimeException.class, () -> new Desktop(library, new CallbackTransformerFactory(new Registry())));
 	}
 
 	@Test
@@ -1,6 +1,7 @@
 package org.sarge.jove.platform.desktop;
 
 import org.sarge.jove.common.Handle;
+import org.sarge.jove.foreign.Callback;
 import org.sarge.jove.platform.desktop.WindowTest.MockWindowLibrary;
 
 public class MockWindow extends Window {
@@ -9,6 +10,10 @@ public class MockWindow extends Window {
 	}
 
 	public MockWindow(WindowLibrary library) {
-		super(new Handle(1), library);
+		super(new Handle(1), library, MockWindow::release);
+	}
+
+	private static void release(Callback callback) {
+		// Ignored
 	}
 }
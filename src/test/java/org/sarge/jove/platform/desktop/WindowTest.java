@@ -11,6 +11,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.sarge.jove.common.*;
 import org.sarge.jove.control.*;
 import org.sarge.jove.foreign.*;
+import org.sarge.jove.foreign.Callback.CallbackTransformerFactory;
 import org.sarge.jove.platform.desktop.DesktopTest.MockDesktopLibrary;
 import org.sarge.jove.platform.desktop.Window.*;
 
@@ -123,7 +124,7 @@ class WindowTest {
 	void before() {
 		KeyTable.Instance.INSTANCE.table(new KeyTable(Map.of(42, "key")));
 		library = new MockWindowLibrary();
-		window = new Window(new Handle(1), library);
+		window = new MockWindow(library);
 	}
 
 	@Test
@@ -178,7 +179,7 @@ class WindowTest {
 					return 999;
 				}
 			};
-			window = new Window(new Handle(1), library);
+			window = new MockWindow(library);
     		assertThrows(RuntimeException.class, () -> window.surface(new Handle(2)));
     	}
 	}
@@ -193,10 +194,13 @@ class WindowTest {
 		}
 
 		private MockWindowStateListener listener;
+		private List<Callback> released;
 
 		@BeforeEach
 		void before() {
 			listener = new MockWindowStateListener();
+			released = new ArrayList<>();
+			window = new Window(new Handle(1), library, released::add);
 		}
 
 		@ParameterizedTest
@@ -211,6 +215,35 @@ class WindowTest {
 			window.listener(WindowStateListener.Type.ENTER, listener);
 			window.listener(WindowStateListener.Type.ENTER, null);
 			assertEquals(null, library.listener);
+			assertEquals(List.of(listener), released);
+		}
+
+		@DisplayName("The registration of a replaced listener is released")
+		@Test
+		void replace() {
+			window.listener(WindowStateListener.Type.ENTER, listener);
+			window.listener(WindowStateListener.Type.ENTER, listener);
+			assertEquals(List.of(listener), released);
+			window.listener(WindowStateListener.Type.ENTER, new MockWindowStateListener());
+			assertEquals(List.of(listener, listener), released);
+		}
+
+		@DisplayName("Each registration of a listener that is registered for multiple events is released separately")
+		@Test
+		void shared() {
+			window.listener(WindowStateListener.Type.ENTER, listener);
+			window.listener(WindowStateListener.Type.FOCUS, listener);
+			window.listener(WindowStateListener.Type.ENTER, null);
+			assertEquals(List.of(listener), released);
+		}
+
+		@DisplayName("The registrations of all listeners are released when the window is destroyed")
+		@Test
+		void destroy() {
+			window.listener(WindowStateListener.Type.ENTER, listener);
+			window.listener(WindowStateListener.Type.FOCUS, listener);
+			window.destroy();
+			assertEquals(List.of(listener, listener), released);
 		}
 	}
 
@@ -234,7 +267,7 @@ class WindowTest {
         			.size(new Dimensions(100, 200))
         			.title("title");
 
-			desktop = new Desktop(new MockDesktopLibrary()) {
+			desktop = new Desktop(new MockDesktopLibrary(), new CallbackTransformerFactory(new Registry())) {
 				@Override
 				public <T> T library() {
 					return (T) library;
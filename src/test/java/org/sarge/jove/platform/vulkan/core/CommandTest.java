@@ -230,6 +230,15 @@ class CommandTest {
 				buffer.reset(RELEASE_RESOURCES);
 				assertEquals(Stage.INITIAL, library.stage);
 			}
+
+			@DisplayName("A command buffer cannot be reset if the pool does not support resettable buffers")
+			@Test
+			void resettable() {
+				final Buffer other = Pool.create(device, queue).allocate(1, true).getFirst();
+				other.begin();
+				other.end();
+				assertThrows(IllegalStateException.class, () -> other.reset());
+			}
 		}
 	}
 
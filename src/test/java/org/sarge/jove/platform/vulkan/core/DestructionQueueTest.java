@@ -0,0 +1,69 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.common.*;
+
+class DestructionQueueTest {
+	private DestructionQueue queue;
+	private TransientObject object;
+
+	@BeforeEach
+	void before() {
+		queue = new DestructionQueue();
+		object = new AbstractTransientObject() {
+			// Mock resource
+		};
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.peak());
+		assertEquals(0, queue.destroyed());
+	}
+
+	@DisplayName("A resource can be queued for destruction")
+	@Test
+	void add() {
+		queue.add(object);
+		assertEquals(1, queue.size());
+		assertEquals(1, queue.peak());
+		assertEquals(false, object.isDestroyed());
+	}
+
+	@DisplayName("Queued resources are destroyed when the queue is flushed")
+	@Test
+	void flush() {
+		queue.add(object);
+		assertEquals(1, queue.flush());
+		assertEquals(true, object.isDestroyed());
+		assertEquals(0, queue.size());
+		assertEquals(1, queue.peak());
+		assertEquals(1, queue.destroyed());
+	}
+
+	@DisplayName("A queued resource that has already been destroyed is ignored when the queue is flushed")
+	@Test
+	void destroyed() {
+		queue.add(object);
+		object.destroy();
+		assertEquals(0, queue.flush());
+		assertEquals(0, queue.destroyed());
+	}
+
+	@DisplayName("A resource cannot be queued more than once")
+	@Test
+	void duplicate() {
+		queue.add(object);
+		assertThrows(IllegalArgumentException.class, () -> queue.add(object));
+	}
+
+	@DisplayName("A resource that has already been destroyed cannot be queued")
+	@Test
+	void invalid() {
+		object.destroy();
+		assertThrows(IllegalArgumentException.class, () -> queue.add(object));
+	}
+}
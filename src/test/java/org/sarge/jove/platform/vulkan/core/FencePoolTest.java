@@ -0,0 +1,73 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.util.*;
+
+class FencePoolTest {
+	private FencePool pool;
+	private Mockery mockery;
+
+	@BeforeEach
+	void before() {
+		mockery = new Mockery(new MockFenceLibrary(), Fence.Library.class);
+		pool = new FencePool(new MockLogicalDevice(mockery.proxy()));
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(0, pool.size());
+		assertEquals(0, pool.created());
+		assertEquals(0, pool.reused());
+	}
+
+	@DisplayName("A new fence is created if the pool is empty")
+	@Test
+	void acquire() {
+		assertNotNull(pool.acquire());
+		assertEquals(1, pool.created());
+		assertEquals(0, pool.reused());
+		assertEquals(1, mockery.mock("vkCreateFence").count());
+	}
+
+	@DisplayName("A fence is reset when it is returned to the pool")
+	@Test
+	void recycle() {
+		final var fence = new MockFence();
+		pool.recycle(fence);
+		assertEquals(1, fence.reset);
+		assertEquals(1, pool.size());
+	}
+
+	@DisplayName("A recycled fence is reused")
+	@Test
+	void reuse() {
+		final var fence = new MockFence();
+		pool.recycle(fence);
+		assertEquals(fence, pool.acquire());
+		assertEquals(0, pool.size());
+		assertEquals(0, pool.created());
+		assertEquals(1, pool.reused());
+		assertEquals(0, mockery.mock("vkCreateFence").count());
+	}
+
+	@DisplayName("A fence cannot be recycled more than once")
+	@Test
+	void duplicate() {
+		final var fence = new MockFence();
+		pool.recycle(fence);
+		assertThrows(IllegalArgumentException.class, () -> pool.recycle(fence));
+	}
+
+	@DisplayName("Destroying the pool destroys the recycled fences")
+	@Test
+	void destroy() {
+		final var fence = new MockFence();
+		pool.recycle(fence);
+		pool.destroy();
+		assertEquals(true, fence.isDestroyed());
+		assertEquals(0, pool.size());
+	}
+}
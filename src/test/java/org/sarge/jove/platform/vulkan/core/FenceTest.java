@@ -3,35 +3,11 @@ package org.sarge.jove.platform.vulkan.core;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.*;
-import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.Pointer;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.util.*;
 import org.sarge.jove.util.Mockery.Mock;
 
 class FenceTest {
-	@SuppressWarnings("unused")
-	private static class MockFenceLibrary extends MockLibrary {
-		public VkResult vkCreateFence(LogicalDevice device, VkFenceCreateInfo pCreateInfo, Handle pAllocator, Pointer pFence) {
-			assertEquals(VkStructureType.FENCE_CREATE_INFO, pCreateInfo.sType);
-			assertEquals(new EnumMask<>(VkFenceCreateFlags.SIGNALED), pCreateInfo.flags);
-			init(pFence);
-			return VkResult.VK_SUCCESS;
-		}
-
-		public VkResult vkResetFences(LogicalDevice device, int fenceCount, Fence[] pFences) {
-			assertEquals(fenceCount, pFences.length);
-			return VkResult.VK_SUCCESS;
-		}
-
-		public VkResult vkWaitForFences(LogicalDevice device, int fenceCount, Fence[] pFences, boolean waitAll, long timeout) {
-			assertEquals(fenceCount, pFences.length);
-			assertEquals(true, waitAll);
-			assertEquals(Long.MAX_VALUE, timeout);
-			return VkResult.VK_SUCCESS;
-		}
-	}
-
 	private Fence fence;
 	private LogicalDevice device;
 	private Mockery mockery;
@@ -43,11 +19,13 @@ class FenceTest {
 		mockery.implement(new MockFenceLibrary());
 		library = mockery.proxy();
 		device = new MockLogicalDevice(library);
-		fence = Fence.create(device, VkFenceCreateFlags.SIGNALED); //new Fence(new Handle(2), device);
+		fence = Fence.create(device, VkFenceCreateFlags.SIGNALED);
 	}
 
 	@Test
 	void constructor() {
+		final var info = (VkFenceCreateInfo) mockery.mock("vkCreateFence").arguments().get(1);
+		assertEquals(new EnumMask<>(VkFenceCreateFlags.SIGNALED), info.flags);
 		assertTrue(fence.signalled());
 	}
 
@@ -88,7 +66,10 @@ class FenceTest {
 	@Test
 	void waitReady() {
 		fence.waitReady();
-		assertEquals(1, mockery.mock("vkWaitForFences").count());
+		final Mock mock = mockery.mock("vkWaitForFences");
+		assertEquals(1, mock.count());
+		assertEquals(true, mock.arguments().get(3));
+		assertEquals(Long.MAX_VALUE, mock.arguments().get(4));
 	}
 
 	@Test
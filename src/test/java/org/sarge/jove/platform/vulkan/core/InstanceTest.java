@@ -2,7 +2,7 @@ package org.sarge.jove.platform.vulkan.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Optional;
+import java.util.*;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Handle;
@@ -45,16 +45,16 @@ class InstanceTest {
 		}
 
 		@Override
-		public VkResult vkEnumerateInstanceExtensionProperties(String pLayerName, IntegerReference pPropertyCount, VkExtensionProperties[] pProperties) {
+		public VkResult vkEnumerateInstanceExtensionProperties(String pLayerName, IntegerReference pPropertyCount, StructureArray<VkExtensionProperties> pProperties) {
 			pPropertyCount.set(1);
-			init(pProperties, new VkExtensionProperties());
+			init(pProperties);
 			return VkResult.VK_SUCCESS;
 		}
 
 		@Override
-		public VkResult vkEnumerateInstanceLayerProperties(IntegerReference pPropertyCount, VkLayerProperties[] pProperties) {
+		public VkResult vkEnumerateInstanceLayerProperties(IntegerReference pPropertyCount, StructureArray<VkLayerProperties> pProperties) {
 			pPropertyCount.set(1);
-			init(pProperties, new VkLayerProperties());
+			init(pProperties);
 			return VkResult.VK_SUCCESS;
 		}
 
@@ -116,15 +116,15 @@ class InstanceTest {
 
 	@Test
 	void extensions() {
-		final VkExtensionProperties[] extensions = Instance.extensions(library, null);
-		assertEquals(1, extensions.length);
-		assertNotNull(extensions[0]);
+		final List<VkExtensionProperties> extensions = Instance.extensions(library, null);
+		assertEquals(1, extensions.size());
+		assertNotNull(extensions.getFirst());
 	}
 
 	@Test
 	void layers() {
-		final VkLayerProperties[] layers = Instance.layers(library);
-		assertEquals(1, layers.length);
-		assertNotNull(layers[0]);
+		final List<VkLayerProperties> layers = Instance.layers(library);
+		assertEquals(1, layers.size());
+		assertNotNull(layers.getFirst());
 	}
 }
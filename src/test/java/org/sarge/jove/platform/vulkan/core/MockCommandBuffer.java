@@ -8,7 +8,11 @@ import org.sarge.jove.platform.vulkan.core.Command.Buffer;
 
 public class MockCommandBuffer extends Command.Buffer {
 	public MockCommandBuffer() {
-		super(new Handle(1), new MockCommandPool(), true);
+		this(true);
+	}
+
+	public MockCommandBuffer(boolean primary) {
+		super(new Handle(1), new MockCommandPool(), primary);
 	}
 
 	@Override
@@ -22,4 +26,9 @@ public class MockCommandBuffer extends Command.Buffer {
 		stage(Stage.EXECUTABLE);
 		return this;
 	}
+
+	@Override
+	public void reset(VkCommandBufferResetFlags... flags) {
+		stage(Stage.INITIAL);
+	}
 }
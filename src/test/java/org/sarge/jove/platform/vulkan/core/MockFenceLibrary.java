@@ -0,0 +1,27 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.sarge.jove.common.Handle;
+import org.sarge.jove.foreign.Pointer;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.util.MockLibrary;
+
+@SuppressWarnings("unused")
+public class MockFenceLibrary extends MockLibrary {
+	public VkResult vkCreateFence(LogicalDevice device, VkFenceCreateInfo pCreateInfo, Handle pAllocator, Pointer pFence) {
+		assertEquals(VkStructureType.FENCE_CREATE_INFO, pCreateInfo.sType);
+		init(pFence);
+		return VkResult.VK_SUCCESS;
+	}
+
+	public VkResult vkResetFences(LogicalDevice device, int fenceCount, Fence[] pFences) {
+		assertEquals(fenceCount, pFences.length);
+		return VkResult.VK_SUCCESS;
+	}
+
+	public VkResult vkWaitForFences(LogicalDevice device, int fenceCount, Fence[] pFences, boolean waitAll, long timeout) {
+		assertEquals(fenceCount, pFences.length);
+		return VkResult.VK_SUCCESS;
+	}
+}
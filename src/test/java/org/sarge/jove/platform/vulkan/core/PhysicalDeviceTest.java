@@ -2,11 +2,12 @@ package org.sarge.jove.platform.vulkan.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.foreign.MemorySegment;
 import java.util.*;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.IntegerReference;
+import org.sarge.jove.foreign.*;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.PhysicalDevice.Selector;
 import org.sarge.jove.platform.vulkan.core.WorkQueue.Family;
@@ -37,9 +38,12 @@ class PhysicalDeviceTest {
 			pQueueFamilyPropertyCount.set(1);
 		}
 
-		public VkResult vkEnumerateDeviceExtensionProperties(PhysicalDevice device, String layer, IntegerReference count, VkExtensionProperties[] extensions) {
+		public VkResult vkEnumerateDeviceExtensionProperties(PhysicalDevice device, String layer, IntegerReference count, StructureArray<VkExtensionProperties> extensions) {
 			count.set(1);
-			init(extensions, new VkExtensionProperties());
+			final MemorySegment address = init(extensions);
+			if(address != null) {
+				address.setString(0, "extension");
+			}
 			return VkResult.VK_SUCCESS;
 		}
 	}
@@ -82,9 +86,16 @@ class PhysicalDeviceTest {
 
 	@Test
 	void extensions() {
-		final VkExtensionProperties[] extensions = device.extensions(null);
-		assertEquals(1, extensions.length);
-		assertNotNull(extensions[0]);
+		final List<VkExtensionProperties> extensions = device.extensions(null);
+		assertEquals(1, extensions.size());
+		assertEquals("extension", extensions.getFirst().extensionName);
+	}
+
+	@DisplayName("A device extension can be looked up by name")
+	@Test
+	void supports() {
+		assertEquals(true, device.supports("extension"));
+		assertEquals(false, device.supports("cobblers"));
 	}
 
 	@Test
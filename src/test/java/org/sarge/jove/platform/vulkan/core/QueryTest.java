@@ -1,15 +1,16 @@
 package org.sarge.jove.platform.vulkan.core;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
-import java.lang.foreign.MemorySegment;
+import java.lang.foreign.*;
+import java.util.Set;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.Pointer;
+import org.sarge.jove.foreign.*;
 import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.Command.Buffer;
-import org.sarge.jove.platform.vulkan.core.Query.Pool;
+import org.sarge.jove.platform.vulkan.core.Query.*;
 import org.sarge.jove.util.*;
 
 class QueryTest {
@@ -54,8 +55,12 @@ class QueryTest {
 
 		@Override
 		public VkResult vkGetQueryPoolResults(LogicalDevice device, Pool queryPool, int firstQuery, int queryCount, long dataSize, MemorySegment pData, long stride, EnumMask<VkQueryResultFlags> flags) {
-			// TODO
-			return null;
+			assertEquals(0, firstQuery);
+			assertEquals(2, queryCount);
+			assertEquals(16L, dataSize);
+			assertEquals(8L, stride);
+			pData.setAtIndex(ValueLayout.JAVA_LONG, 1, 42L);
+			return VkResult.VK_SUCCESS;
 		}
 
 		@Override
@@ -139,6 +144,22 @@ class QueryTest {
 		// TODO
 	}
 
+	@DisplayName("Query results can be retrieved to a heap segment")
+	@Test
+	void get() {
+		final long[] array = new long[2];
+		final var results = new QueryResult(pool, Set.of(VkQueryResultFlags.RESULT_64));
+		results.get(MemorySegment.ofArray(array));
+		assertArrayEquals(new long[]{0, 42}, array);
+	}
+
+	@DisplayName("The query results parameter is copied back after retrieval")
+	@Test
+	void updated() throws Exception {
+		final var method = Query.Library.class.getMethod("vkGetQueryPoolResults", LogicalDevice.class, Pool.class, int.class, int.class, long.class, MemorySegment.class, long.class, EnumMask.class);
+		assertTrue(method.getParameters()[5].isAnnotationPresent(Updated.class));
+	}
+
 	@Test
 	void destroy() {
 		pool.destroy();
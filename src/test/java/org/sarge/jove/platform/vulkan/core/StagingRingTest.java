@@ -0,0 +1,162 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.platform.vulkan.VkBufferUsageFlags;
+import org.sarge.jove.platform.vulkan.core.StagingRing.Region;
+
+class StagingRingTest {
+	private StagingRing ring;
+	private LogicalDevice device;
+	private MockFence first, second;
+
+	@BeforeEach
+	void before() {
+		device = new MockLogicalDevice();
+		ring = new StagingRing(new MockVulkanBuffer(device, 64L, VkBufferUsageFlags.TRANSFER_SRC), 16);
+		first = new MockFence();
+		second = new MockFence();
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(64L, ring.size());
+		assertEquals(0L, ring.used());
+		assertEquals(false, ring.isDestroyed());
+	}
+
+	@DisplayName("A region can be allocated from the staging ring")
+	@Test
+	void allocate() {
+		ring.begin(first);
+		final Region region = ring.allocate(10L);
+		assertEquals(ring.buffer(), region.buffer());
+		assertEquals(0L, region.offset());
+		assertEquals(10L, region.size());
+		assertEquals(10L, ring.used());
+		assertEquals(0, first.wait);
+	}
+
+	@DisplayName("A region cannot be allocated until a submission has been started")
+	@Test
+	void begin() {
+		assertThrows(IllegalStateException.class, () -> ring.allocate(10L));
+	}
+
+	@DisplayName("Regions are allocated sequentially and aligned")
+	@Test
+	void align() {
+		ring.begin(first);
+		ring.allocate(10L);
+		ring.begin(second);
+		final Region region = ring.allocate(8L);
+		assertEquals(16L, region.offset());
+		assertEquals(24L, ring.used());
+		assertEquals(0, first.wait);
+		assertEquals(0, second.wait);
+	}
+
+	@DisplayName("The region is a writable slice of the mapped staging buffer")
+	@Test
+	void segment() {
+		ring.begin(first);
+		ring.allocate(16L);
+		final Region region = ring.allocate(4L);
+		region.segment().fill((byte) 42);
+		assertEquals((byte) 42, ring.buffer().map().get(JAVA_BYTE, 16L));
+	}
+
+	@DisplayName("A region wraps to the start of the ring and waits for the frame that last used that region")
+	@Test
+	void wrap() {
+		ring.begin(first);
+		ring.allocate(40L);
+		ring.begin(second);
+		final Region region = ring.allocate(32L);
+		assertEquals(0L, region.offset());
+		assertEquals(1, first.wait);
+		assertEquals(0, second.wait);
+		assertEquals(32L, ring.used());
+	}
+
+	@DisplayName("Consecutive regions for the same frame are only waited on once")
+	@Test
+	void merge() {
+		ring.begin(first);
+		ring.allocate(16L);
+		ring.allocate(16L);
+		ring.begin(second);
+		ring.allocate(16L);
+		ring.begin(new MockFence());
+		ring.allocate(48L);
+		assertEquals(1, first.wait);
+		assertEquals(1, second.wait);
+	}
+
+	@DisplayName("A region staged by a previous submission for the same fence is reused without blocking")
+	@Test
+	void reuse() {
+		ring.begin(first);
+		ring.allocate(40L);
+		first.reset();
+		ring.begin(first);
+		final Region region = ring.allocate(32L);
+		assertEquals(0L, region.offset());
+		assertEquals(32L, ring.used());
+		assertEquals(0, first.wait);
+	}
+
+	@DisplayName("Regions staged by different submissions for the same fence are not merged")
+	@Test
+	void submissions() {
+		ring.begin(first);
+		ring.allocate(40L);
+		ring.begin(first);
+		ring.allocate(16L);
+		final Region region = ring.allocate(32L);
+		assertEquals(0L, region.offset());
+		assertEquals(0, first.wait);
+	}
+
+	@DisplayName("A region cannot overwrite a region staged by the current submission")
+	@Test
+	void exhausted() {
+		ring.begin(first);
+		ring.allocate(40L);
+		assertThrows(IllegalStateException.class, () -> ring.allocate(32L));
+		assertEquals(40L, ring.used());
+	}
+
+	@DisplayName("A region cannot be larger than the staging ring")
+	@Test
+	void overflow() {
+		ring.begin(first);
+		assertThrows(IllegalArgumentException.class, () -> ring.allocate(65L));
+	}
+
+	@DisplayName("A region can be copied to a destination buffer")
+	@Test
+	void copy() {
+		ring.begin(first);
+		final Region region = ring.allocate(8L);
+		final var destination = new MockVulkanBuffer(device, 16L, VkBufferUsageFlags.TRANSFER_DST);
+		assertNotNull(region.copy(destination, 8L));
+		assertThrows(IllegalArgumentException.class, () -> region.copy(destination, 12L));
+	}
+
+	@DisplayName("The staging ring must be a transfer source")
+	@Test
+	void invalidBuffer() {
+		final var buffer = new MockVulkanBuffer(device, 64L, VkBufferUsageFlags.TRANSFER_DST);
+		assertThrows(IllegalStateException.class, () -> new StagingRing(buffer, 16));
+	}
+
+	@DisplayName("The alignment of the staging ring must be a power-of-two")
+	@Test
+	void invalidAlignment() {
+		final var buffer = new MockVulkanBuffer(device, 64L, VkBufferUsageFlags.TRANSFER_SRC);
+		assertThrows(IllegalArgumentException.class, () -> new StagingRing(buffer, 3));
+	}
+}
@@ -0,0 +1,137 @@
+package org.sarge.jove.platform.vulkan.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.common.Handle;
+import org.sarge.jove.foreign.Pointer;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.platform.vulkan.core.Command.*;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer.Stage;
+import org.sarge.jove.platform.vulkan.core.WorkQueue.Family;
+import org.sarge.jove.util.*;
+
+class TransientCommandPoolTest {
+	@SuppressWarnings("unused")
+	private static class MockPoolLibrary extends MockLibrary {
+		public VkResult vkCreateCommandPool(LogicalDevice device, VkCommandPoolCreateInfo pCreateInfo, Handle pAllocator, Pointer pCommandPool) {
+			init(pCommandPool);
+			return VkResult.VK_SUCCESS;
+		}
+
+		public VkResult vkAllocateCommandBuffers(LogicalDevice device, VkCommandBufferAllocateInfo pAllocateInfo, Handle[] pCommandBuffers) {
+			init(pCommandBuffers);
+			return VkResult.VK_SUCCESS;
+		}
+	}
+
+	private TransientCommandPool buffers;
+	private Pool pool;
+	private Mockery mockery;
+
+	@BeforeEach
+	void before() {
+		mockery = new Mockery(new MockPoolLibrary(), Command.Library.class);
+		final var device = new MockLogicalDevice(mockery.proxy());
+		final var queue = new WorkQueue(new Handle(1), new Family(0, 1, Set.of()));
+		pool = Pool.create(device, queue, VkCommandPoolCreateFlags.RESET_COMMAND_BUFFER);
+		buffers = new TransientCommandPool(pool);
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(pool, buffers.pool());
+		assertEquals(0, buffers.size());
+		assertEquals(0, buffers.allocated());
+		assertEquals(0, buffers.reused());
+	}
+
+	@DisplayName("The underlying pool of a transient command pool must support resettable command buffers")
+	@Test
+	void resettable() {
+		final var queue = new WorkQueue(new Handle(1), new Family(0, 1, Set.of()));
+		final Pool other = Pool.create(pool.device(), queue);
+		assertThrows(IllegalArgumentException.class, () -> new TransientCommandPool(other));
+	}
+
+	@DisplayName("A new primary buffer is allocated if the pool is empty")
+	@Test
+	void acquire() {
+		final Buffer buffer = buffers.acquire();
+		assertEquals(true, buffer.isPrimary());
+		assertEquals(Stage.INITIAL, buffer.stage());
+		assertEquals(1, buffers.allocated());
+		assertEquals(1, pool.buffers().size());
+	}
+
+	@DisplayName("A recorded buffer is reset when it is returned to the pool")
+	@Test
+	void recycle() {
+		final Buffer buffer = buffers.acquire().begin().end();
+		buffers.recycle(buffer);
+		assertEquals(Stage.INITIAL, buffer.stage());
+		assertEquals(1, buffers.size());
+		assertEquals(1, mockery.mock("vkResetCommandBuffer").count());
+	}
+
+	@DisplayName("A recycled buffer is reused rather than allocating a new buffer")
+	@Test
+	void reuse() {
+		final Buffer buffer = buffers.acquire().begin().end();
+		buffers.recycle(buffer);
+		assertEquals(buffer, buffers.acquire());
+		assertEquals(1, buffers.allocated());
+		assertEquals(1, buffers.reused());
+		assertEquals(1, pool.buffers().size());
+	}
+
+	@DisplayName("A buffer that is still recording is released back to the underlying pool")
+	@Test
+	void recording() {
+		final Buffer buffer = buffers.acquire().begin();
+		buffers.recycle(buffer);
+		assertEquals(Stage.INVALID, buffer.stage());
+		assertEquals(0, buffers.size());
+		assertEquals(0, pool.buffers().size());
+	}
+
+	@DisplayName("A buffer cannot be recycled more than once")
+	@Test
+	void duplicate() {
+		final Buffer buffer = buffers.acquire();
+		buffers.recycle(buffer);
+		assertThrows(IllegalArgumentException.class, () -> buffers.recycle(buffer));
+	}
+
+	@DisplayName("Only buffers allocated by the underlying pool can be recycled")
+	@Test
+	void invalid() {
+		assertThrows(IllegalArgumentException.class, () -> buffers.recycle(new MockCommandBuffer()));
+	}
+
+	@DisplayName("One-off work recycles the command buffer and fence")
+	@Test
+	void submit() {
+		final var fences = new FencePool(pool.device());
+		final var fence = new MockFence();
+		fences.recycle(fence);
+		Work.submit(new MockCommand(), buffers, fences);
+		Work.submit(new MockCommand(), buffers, fences);
+		assertEquals(1, buffers.allocated());
+		assertEquals(1, buffers.reused());
+		assertEquals(1, buffers.size());
+		assertEquals(2, fences.reused());
+		assertEquals(2, fence.wait);
+		assertEquals(1, pool.buffers().size());
+	}
+
+	@DisplayName("Destroying the pool releases the recycled buffers")
+	@Test
+	void destroy() {
+		buffers.recycle(buffers.acquire());
+		buffers.destroy();
+		assertEquals(0, pool.buffers().size());
+	}
+}
@@ -107,6 +107,12 @@ class VulkanBufferTest {
 		assertEquals((byte) 42, buffer.memory().region().get().get(ValueLayout.JAVA_BYTE, 0L));
 	}
 
+	@Test
+	void writeSegment() {
+		buffer.write(MemorySegment.ofArray(new byte[]{42}));
+		assertEquals((byte) 42, buffer.memory().region().get().get(ValueLayout.JAVA_BYTE, 0L));
+	}
+
 	@Test
 	void buffer() {
 		final ByteBuffer bb = buffer.buffer();
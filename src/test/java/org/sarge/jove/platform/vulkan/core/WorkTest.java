@@ -7,11 +7,12 @@ import java.util.Set;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.platform.vulkan.VkCommandPoolCreateFlags;
+import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.platform.vulkan.core.Command.*;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer.Stage;
 import org.sarge.jove.platform.vulkan.core.CommandTest.MockCommandLibrary;
 import org.sarge.jove.platform.vulkan.core.WorkQueue.Family;
-import org.sarge.jove.util.Mockery;
+import org.sarge.jove.util.*;
 
 class WorkTest {
 	private Pool pool;
@@ -37,7 +38,7 @@ class WorkTest {
 //			}
 //		};
 
-		mockery = new Mockery(new MockCommandLibrary(), Command.Library.class);
+		mockery = new Mockery(new MockCommandLibrary(), Command.Library.class, Fence.Library.class);
 		device = new MockLogicalDevice(mockery.proxy());
 
 		// Create work queue
@@ -70,6 +71,19 @@ class WorkTest {
 		// TODO
 	}
 
+	@DisplayName("A command buffer can be submitted using a recycled fence")
+	@Test
+	void fences() {
+		final var fences = new FencePool(device);
+		final var fence = new MockFence();
+		fences.recycle(fence);
+		Work.submit(buffer, fences);
+		assertEquals(1, fence.wait);
+		assertEquals(2, fence.reset);
+		assertEquals(1, fences.size());
+		assertEquals(1, fences.reused());
+	}
+
 	@DisplayName("All command buffers in a work submission must be ready for execution")
 	@Test
 	void ready() {
@@ -108,20 +122,16 @@ class WorkTest {
 		assertThrows(IllegalArgumentException.class, () -> work.build());
 	}
 
-	@Disabled
-	@DisplayName("A command can be submitted as a one-time task")
+	@DisplayName("A command can be submitted as a one-time task and the command buffer is released on completion")
 	@Test
 	void once() {
-
-//		new Work.Builder()
-//				.add(buffer)
-//				.build()
-//				.submit(new MockFence());
-
-		final Buffer once = Work.submit(new MockCommand(), pool);
-		//assertEquals(new EnumMask<>(VkCommandBufferUsageFlags.ONE_TIME_SUBMIT), submit.
-		assertEquals(true, once.isPrimary());
-		assertEquals(pool, once.pool());
-		// TODO - assertEquals(Stage.INVALID, once.stage());
+		mockery.implement(new MockFenceLibrary());
+		Work.submit(new MockCommand(), pool);
+		assertEquals(1, mockery.mock("vkQueueSubmit").count());
+		assertEquals(1, mockery.mock("vkWaitForFences").count());
+		assertEquals(1, mockery.mock("vkFreeCommandBuffers").count());
+
+		final Buffer[] released = (Buffer[]) mockery.mock("vkFreeCommandBuffers").arguments().get(3);
+		assertEquals(Stage.INVALID, released[0].stage());
 	}
 }
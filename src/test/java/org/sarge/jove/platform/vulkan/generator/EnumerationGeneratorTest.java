@@ -28,9 +28,17 @@ class EnumerationGeneratorTest {
 				Map.entry("TRANSFORM_FEEDBACK_WRITE_EXT", 33554432),
 				Map.entry("FLAG_BITS_MAX_ENUM", 2147483647)
 		);
+		final String[] bits = new String[Integer.SIZE];
+		bits[0] = "INDIRECT_COMMAND_READ";
+		bits[1] = "INDEX_READ";
+		bits[25] = "TRANSFORM_FEEDBACK_WRITE_EXT";
 		final Map<String, Object> expected = Map.of(
 				"name", "VkAccessFlags",
-				"values", list
+				"values", list,
+				"dense", "null, INDIRECT_COMMAND_READ, INDEX_READ",
+				"bits", String.join(", ", Arrays.stream(bits).map(String::valueOf).toList()),
+				"keys", "33554432, 2147483647",
+				"sparse", "TRANSFORM_FEEDBACK_WRITE_EXT, FLAG_BITS_MAX_ENUM"
 		);
 		assertEquals(expected, arguments);
 	}
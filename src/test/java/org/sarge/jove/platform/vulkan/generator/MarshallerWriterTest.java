@@ -0,0 +1,60 @@
+package org.sarge.jove.platform.vulkan.generator;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.foreign.*;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+class MarshallerWriterTest {
+	private MarshallerWriter writer;
+	private List<StructureField<NativeType>> fields;
+
+	@BeforeEach
+	void before() {
+		fields = List.of(
+				new StructureField<>("flag", new NativeType("boolean", JAVA_INT)),
+				new StructureField<>("size", NativeType.of(JAVA_LONG)),
+				new StructureField<>("flags", new NativeType("EnumMask<VkFlags>", JAVA_INT))
+		);
+
+		final GroupLayout layout = MemoryLayout.structLayout(
+				JAVA_INT.withName("flag"),
+				MemoryLayout.paddingLayout(4),
+				JAVA_LONG.withName("size"),
+				JAVA_INT.withName("flags")
+		);
+
+		writer = new MarshallerWriter(layout);
+	}
+
+	@DisplayName("The field types of a structure are erased")
+	@Test
+	void types() {
+		assertEquals("boolean.class, long.class, EnumMask.class", writer.types(fields));
+	}
+
+	@DisplayName("Primitive fields are marshalled directly and other fields are delegated by index")
+	@Test
+	void marshal() {
+		final List<String> expected = List.of(
+				"address.set(JAVA_INT, 0L, structure.flag ? 1 : 0);",
+				"address.set(JAVA_LONG, 8L, structure.size);",
+				"fields.marshal(2, structure.flags, address, allocator);"
+		);
+		assertEquals(expected, writer.marshal(fields));
+	}
+
+	@DisplayName("Primitive fields are unmarshalled directly and other fields are delegated by index")
+	@Test
+	void unmarshal() {
+		final List<String> expected = List.of(
+				"structure.flag = address.get(JAVA_INT, 0L) != 0;",
+				"structure.size = address.get(JAVA_LONG, 8L);",
+				"structure.flags = (EnumMask<VkFlags>) fields.unmarshal(2, address);"
+		);
+		assertEquals(expected, writer.unmarshal(fields));
+	}
+}
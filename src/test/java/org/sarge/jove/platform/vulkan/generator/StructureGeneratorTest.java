@@ -50,8 +50,10 @@ class StructureGeneratorTest {
 				import static java.lang.foreign.ValueLayout.*;
 
 				import java.lang.foreign.*;
+				import java.util.List;
 
 				import org.sarge.jove.foreign.NativeStructure;
+				import org.sarge.jove.foreign.StructureMarshaller;
 				import org.sarge.jove.common.Handle;
 				import org.sarge.jove.util.EnumMask;
 				import org.sarge.jove.platform.vulkan.*;
@@ -82,6 +84,49 @@ class StructureGeneratorTest {
 							POINTER.withName("pStringArray")
 						);
 					}
+
+					/**
+					 * Static marshaller for this structure.
+					 */
+					public static final class Marshaller implements StructureMarshaller<VkMockStructure> {
+						@Override
+						public Class<VkMockStructure> type() {
+							return VkMockStructure.class;
+						}
+
+						@Override
+						public VkMockStructure create() {
+							return new VkMockStructure();
+						}
+
+						@Override
+						public List<Class<?>> fields() {
+							return List.of(VkStructureType.class, Handle.class, int.class, String.class, float[].class, VkNested.class, String[].class);
+						}
+
+						@Override
+						public void marshal(VkMockStructure structure, MemorySegment address, Fields fields, SegmentAllocator allocator) {
+							fields.marshal(0, structure.sType, address, allocator);
+							fields.marshal(1, structure.pNext, address, allocator);
+							address.set(JAVA_INT, 16L, structure.integer);
+							fields.marshal(3, structure.pCharArray, address, allocator);
+							fields.marshal(4, structure.colour, address, allocator);
+							fields.marshal(5, structure.nested, address, allocator);
+							fields.marshal(6, structure.pStringArray, address, allocator);
+						}
+
+						@SuppressWarnings("unchecked")
+						@Override
+						public void unmarshal(MemorySegment address, VkMockStructure structure, Fields fields) {
+							structure.sType = (VkStructureType) fields.unmarshal(0, address);
+							structure.pNext = (Handle) fields.unmarshal(1, address);
+							structure.integer = address.get(JAVA_INT, 16L);
+							structure.pCharArray = (String) fields.unmarshal(3, address);
+							structure.colour = (float[]) fields.unmarshal(4, address);
+							structure.nested = (VkNested) fields.unmarshal(5, address);
+							structure.pStringArray = (String[]) fields.unmarshal(6, address);
+						}
+					}
 				}
 				""";
 
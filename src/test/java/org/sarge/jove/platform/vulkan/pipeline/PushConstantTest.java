@@ -132,11 +132,11 @@ public class PushConstantTest {
 	class UpdatedCommandTest {
 		@SuppressWarnings("unused")
 		private static class MockUpdateLibrary {
-			public void vkCmdPushConstants(Buffer commandBuffer, PipelineLayout layout, EnumMask<VkShaderStageFlags> stageFlags, int offset, int size, Handle pValues) {
+			public void vkCmdPushConstants(Buffer commandBuffer, PipelineLayout layout, EnumMask<VkShaderStageFlags> stageFlags, int offset, int size, MemorySegment pValues) {
 				assertNotNull(layout);
 				assertNotEquals(0, stageFlags.bits());
 				assertEquals(0, offset);
-				assertTrue(offset + size <= pValues.address().byteSize());
+				assertTrue(offset + size <= pValues.byteSize());
 				assertEquals(0, size % 4);
 			}
 		}
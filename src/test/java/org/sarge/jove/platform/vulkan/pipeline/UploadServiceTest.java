@@ -0,0 +1,158 @@
+package org.sarge.jove.platform.vulkan.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.common.Handle;
+import org.sarge.jove.platform.vulkan.*;
+import org.sarge.jove.platform.vulkan.core.*;
+import org.sarge.jove.platform.vulkan.core.WorkQueue.Family;
+import org.sarge.jove.platform.vulkan.image.MockImage;
+import org.sarge.jove.util.*;
+import org.sarge.jove.util.Mockery.Mock;
+
+class UploadServiceTest {
+	private UploadService service;
+	private Family transfer, graphics;
+	private LogicalDevice device;
+	private Mockery mockery;
+	private Mock status;
+	private MockVulkanBuffer buffer;
+
+	@BeforeEach
+	void before() {
+		// Init device
+		mockery = new Mockery(new MockFenceLibrary(), Fence.Library.class, Pipeline.Library.class);
+		device = new MockLogicalDevice(mockery.proxy());
+		status = mockery.mock("vkGetFenceStatus");
+		status.result(VkResult.VK_NOT_READY.value());
+
+		// Create transfer pool
+		transfer = new Family(1, 1, Set.of(VkQueueFlags.TRANSFER));
+		graphics = new Family(0, 1, Set.of(VkQueueFlags.GRAPHICS));
+		final var pool = new MockCommandPool(device, new WorkQueue(new Handle(2), transfer));
+
+		// Create service
+		service = new UploadService(pool, graphics);
+		buffer = new MockVulkanBuffer(device, 4, VkBufferUsageFlags.TRANSFER_DST);
+	}
+
+	@Test
+	void constructor() {
+		assertEquals(true, service.isOwnershipTransfer());
+		assertEquals(0, service.pending());
+		assertEquals(0, service.batches());
+		assertEquals(false, service.isDestroyed());
+	}
+
+	@DisplayName("An upload is queued until the service is flushed")
+	@Test
+	void upload() {
+		final CompletableFuture<Barrier> future = service.upload(new MockCommand(), buffer);
+		assertEquals(false, future.isDone());
+		assertEquals(1, service.pending());
+		assertEquals(0, service.batches());
+	}
+
+	@DisplayName("The destination buffer of an upload must be a transfer destination")
+	@Test
+	void invalid() {
+		final var invalid = new MockVulkanBuffer(device, 4, VkBufferUsageFlags.TRANSFER_SRC);
+		assertThrows(IllegalStateException.class, () -> service.upload(new MockCommand(), invalid));
+	}
+
+	@DisplayName("Pending uploads are submitted as a single batch")
+	@Test
+	void flush() {
+		service.upload(new MockCommand(), buffer);
+		service.upload(new MockCommand(), new MockImage(), VkImageLayout.SHADER_READ_ONLY_OPTIMAL);
+		service.flush();
+		assertEquals(0, service.pending());
+		assertEquals(1, service.batches());
+		assertEquals(1, mockery.mock("vkCreateFence").count());
+		assertEquals(2, mockery.mock("vkCmdPipelineBarrier").count());
+	}
+
+	@DisplayName("Flushing the service does nothing if there are no pending uploads")
+	@Test
+	void empty() {
+		service.flush();
+		assertEquals(0, service.batches());
+		assertEquals(0, mockery.mock("vkCreateFence").count());
+	}
+
+	@DisplayName("A buffer upload does not require a layout transition")
+	@Test
+	void transition() {
+		service.upload(new MockCommand(), buffer);
+		service.flush();
+		assertEquals(1, mockery.mock("vkCmdPipelineBarrier").count());
+	}
+
+	@DisplayName("Uploads are completed with the acquire barrier once the batch has been executed")
+	@Test
+	void poll() {
+		final CompletableFuture<Barrier> future = service.upload(new MockCommand(), buffer);
+		service.flush();
+		assertEquals(0, service.poll());
+		assertEquals(false, future.isDone());
+
+		status.result(VkResult.VK_SUCCESS.value());
+		assertEquals(1, service.poll());
+		assertEquals(true, future.isDone());
+		assertNotNull(future.join());
+		assertEquals(0, service.batches());
+		assertEquals(1, mockery.mock("vkDestroyFence").count());
+	}
+
+	@DisplayName("The upload service can block until all submitted batches have completed")
+	@Test
+	void waitIdle() {
+		final CompletableFuture<Barrier> future = service.upload(new MockCommand(), buffer);
+		service.flush();
+		status.result(VkResult.VK_SUCCESS.value());
+		service.waitIdle();
+		assertEquals(1, mockery.mock("vkWaitForFences").count());
+		assertEquals(true, future.isDone());
+	}
+
+	@DisplayName("Ownership is not transferred if the transfer and destination queues belong to the same family")
+	@Test
+	void same() {
+		final var pool = new MockCommandPool(device, new WorkQueue(new Handle(2), graphics));
+		service = new UploadService(pool, graphics);
+		assertEquals(false, service.isOwnershipTransfer());
+	}
+
+	@DisplayName("An image is not transitioned again by the acquire barrier if the transfer and destination queues belong to the same family")
+	@Test
+	void sameImage() {
+		// Upload image without an ownership transfer
+		final var pool = new MockCommandPool(device, new WorkQueue(new Handle(2), graphics));
+		service = new UploadService(pool, graphics);
+		final CompletableFuture<Barrier> future = service.upload(new MockCommand(), new MockImage(), VkImageLayout.SHADER_READ_ONLY_OPTIMAL);
+		service.flush();
+		status.result(VkResult.VK_SUCCESS.value());
+		service.poll();
+
+		// Check acquire barrier is a memory barrier only
+		future.join().execute(new MockCommandBuffer());
+		final List<Object> args = mockery.mock("vkCmdPipelineBarrier").arguments();
+		assertEquals(1, args.get(4));
+		assertEquals(0, args.get(6));
+		assertEquals(0, args.get(8));
+	}
+
+	@DisplayName("Destroying the service cancels pending uploads")
+	@Test
+	void destroy() {
+		final CompletableFuture<Barrier> future = service.upload(new MockCommand(), buffer);
+		service.destroy();
+		assertEquals(true, future.isCancelled());
+		assertEquals(0, service.pending());
+		assertThrows(IllegalStateException.class, () -> service.upload(new MockCommand(), buffer));
+	}
+}
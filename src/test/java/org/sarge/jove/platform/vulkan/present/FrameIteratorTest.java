@@ -31,6 +31,25 @@ class FrameIteratorTest {
 		assertEquals(0, iterator.next().index());
 	}
 
+	@Test
+	void current() {
+		assertEquals(0, iterator.current().index());
+		iterator.next();
+		iterator.next();
+		assertEquals(1, iterator.current().index());
+	}
+
+	@DisplayName("A resource can be queued for destruction against the current frame")
+	@Test
+	void defer() {
+		final var object = new MockFence();
+		iterator.next();
+		iterator.next();
+		iterator.defer(object);
+		assertEquals(1, iterator.deferred());
+		assertEquals(1, iterator.current().queue().size());
+	}
+
 	@Test
 	void destroy() {
 		iterator.destroy();
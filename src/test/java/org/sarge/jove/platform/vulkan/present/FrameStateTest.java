@@ -2,6 +2,7 @@ package org.sarge.jove.platform.vulkan.present;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.util.Set;
 
 import org.junit.jupiter.api.*;
@@ -55,6 +56,11 @@ class FrameStateTest {
 		assertEquals(1, frame.index());
 	}
 
+	@Test
+	void fence() {
+		assertEquals(fence, frame.fence());
+	}
+
 	@Test
 	void acquire() {
 		assertEquals(3, frame.acquire(swapchain));
@@ -62,6 +68,17 @@ class FrameStateTest {
 		assertEquals(1, fence.reset);
 	}
 
+	@DisplayName("Resources queued for destruction are released when the frame is next acquired")
+	@Test
+	void queue() {
+		final var object = new MockFence();
+		frame.queue().add(object);
+		assertEquals(1, frame.queue().size());
+		frame.acquire(swapchain);
+		assertEquals(true, object.isDestroyed());
+		assertEquals(0, frame.queue().size());
+	}
+
 	@Test
 	void render() {
 		frame.render(sequence);
@@ -69,6 +86,86 @@ class FrameStateTest {
 		// TODO - check submitted to pool with fence?
 	}
 
+	@DisplayName("A frame can be rendered without blocking on completion")
+	@Test
+	void dispatch() {
+		frame.dispatch(sequence);
+		assertEquals(0, fence.wait);
+	}
+
+	@DisplayName("A frame can wait for another in-flight frame")
+	@Test
+	void waitFor() {
+		final var other = new MockFence();
+		frame.waitFor(new FrameState(2, new MockVulkanSemaphore(), new MockVulkanSemaphore(), other));
+		assertEquals(1, other.wait);
+		assertEquals(0, fence.wait);
+	}
+
+	/**
+	 * Mock fence that blocks for a given duration.
+	 */
+	private static class BlockingFence extends MockFence {
+		private final Duration duration;
+
+		BlockingFence(Duration duration) {
+			this.duration = duration;
+		}
+
+		@Override
+		public void waitReady() {
+			super.waitReady();
+			try {
+				Thread.sleep(duration);
+			}
+			catch(InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	@Nested
+	class WaitingTests {
+		private final Duration duration = Duration.ofMillis(5);
+		private FrameState other;
+
+		@BeforeEach
+		void before() {
+			other = new FrameState(2, new MockVulkanSemaphore(), new MockVulkanSemaphore(), new BlockingFence(duration));
+		}
+
+		@Test
+		void waiting() {
+			assertEquals(Duration.ZERO, frame.waiting());
+		}
+
+		@DisplayName("The time spent waiting for another in-flight frame is accumulated")
+		@Test
+		void waitFor() {
+			frame.waitFor(other);
+			assertEquals(true, frame.waiting().compareTo(duration) >= 0);
+			frame.waitFor(other);
+			assertEquals(true, frame.waiting().compareTo(duration.multipliedBy(2)) >= 0);
+		}
+
+		@DisplayName("The waiting duration is reset when the frame is next acquired")
+		@Test
+		void acquire() {
+			frame.waitFor(other);
+			frame.waitFor(other);
+			frame.acquire(swapchain);
+			assertEquals(true, frame.waiting().compareTo(duration) < 0);
+		}
+
+		@DisplayName("The time spent blocked on the fence of this frame is measured")
+		@Test
+		void render() {
+			final var blocking = new FrameState(3, available, ready, new BlockingFence(duration));
+			blocking.render(sequence);
+			assertEquals(true, blocking.waiting().compareTo(duration) >= 0);
+		}
+	}
+
 	@Test
 	void present() {
 		frame.present(sequence, 3, swapchain);
@@ -87,5 +184,26 @@ class FrameStateTest {
 		assertEquals(true, available.isDestroyed());
 		assertEquals(true, ready.isDestroyed());
 		assertEquals(true, fence.isDestroyed());
+		assertEquals(1, fence.wait);
+	}
+
+	@DisplayName("A frame waits for pending work to complete before releasing queued resources")
+	@Test
+	void release() {
+		final var object = new MockFence();
+		final var pending = new MockFence() {
+			@Override
+			public void waitReady() {
+				assertEquals(false, object.isDestroyed());
+				assertEquals(false, this.isDestroyed());
+				super.waitReady();
+			}
+		};
+		frame = new FrameState(1, available, ready, pending);
+		frame.queue().add(object);
+		frame.destroy();
+		assertEquals(1, pending.wait);
+		assertEquals(true, object.isDestroyed());
+		assertEquals(true, pending.isDestroyed());
 	}
 }
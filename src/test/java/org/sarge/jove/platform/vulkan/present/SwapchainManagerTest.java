@@ -26,6 +26,7 @@ class SwapchainManagerTest {
 	private Builder builder;
 	private VkSurfaceFormatKHR format;
 	private MockConfiguration configuration;
+	private boolean fail;
 
 	@BeforeEach
 	void before() {
@@ -48,6 +49,9 @@ class SwapchainManagerTest {
 		builder = new Swapchain.Builder() {
 			@Override
 			public Swapchain build(LogicalDevice device, Properties properties) {
+				if(fail) {
+					throw new IllegalStateException();
+				}
 				return new MockSwapchain();
 			}
 		};
@@ -74,6 +78,40 @@ class SwapchainManagerTest {
 		assertEquals(true, configuration.applied);
 	}
 
+	@DisplayName("The swapchain can be recreated without blocking by retiring the previous swapchain")
+	@Test
+	void retire() {
+		final Swapchain previous = manager.swapchain();
+		final var retired = new DestructionQueue();
+		final Swapchain swapchain = manager.recreate(retired);
+		assertSame(swapchain, manager.swapchain());
+		assertNotSame(previous, swapchain);
+		assertEquals(1, retired.size());
+		assertEquals(false, previous.isDestroyed());
+		retired.flush();
+		assertEquals(true, previous.isDestroyed());
+	}
+
+	@DisplayName("The swapchain can be recreated after a previous recreation failed")
+	@Test
+	void retry() {
+		final Swapchain previous = manager.swapchain();
+		final var retired = new DestructionQueue();
+
+		// Fail to recreate the swapchain
+		fail = true;
+		assertThrows(IllegalStateException.class, () -> manager.recreate(retired));
+		assertEquals(null, manager.swapchain());
+		assertEquals(1, retired.size());
+
+		// Retry
+		fail = false;
+		final Swapchain swapchain = manager.recreate(retired);
+		assertSame(swapchain, manager.swapchain());
+		assertNotSame(previous, swapchain);
+		assertEquals(1, retired.size());
+	}
+
 	@Test
 	void destroy() {
 		final Swapchain swapchain = manager.swapchain();
@@ -54,6 +54,19 @@ class AbstractAttachmentTest {
 			assertNotNull(attachment.view(0));
 		}
 
+		@DisplayName("The previous image-views of an attachment can be retired when it is recreated")
+		@Test
+		void retire() {
+			final var view = attachment.view(0);
+			final var retired = new DestructionQueue();
+			attachment.recreate(new MockLogicalDevice(), new Dimensions(640, 480), retired);
+			assertNotSame(view, attachment.view(0));
+			assertEquals(1, retired.size());
+			assertFalse(view.isDestroyed());
+			retired.flush();
+			assertTrue(view.isDestroyed());
+		}
+
 		@Test
 		void destroy() {
 			final var view = attachment.view(0);
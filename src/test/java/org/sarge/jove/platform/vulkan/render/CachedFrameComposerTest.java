@@ -0,0 +1,94 @@
+package org.sarge.jove.platform.vulkan.render;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer;
+import org.sarge.jove.platform.vulkan.core.MockCommandPool;
+
+class CachedFrameComposerTest {
+	private static class MockRenderSequence implements RenderSequence {
+		private long version;
+		private int count;
+
+		@Override
+		public void build(int index, Buffer buffer) {
+			++count;
+		}
+
+		@Override
+		public long version() {
+			return version;
+		}
+	}
+
+	private CachedFrameComposer composer;
+	private MockRenderSequence sequence;
+	private Framebuffer framebuffer;
+
+	@BeforeEach
+	void before() {
+		sequence = new MockRenderSequence();
+		framebuffer = new MockFramebuffer();
+		composer = new CachedFrameComposer(new MockCommandPool(), sequence);
+	}
+
+	@DisplayName("The render sequence is recorded when the frame is first composed")
+	@Test
+	void compose() {
+		final Buffer buffer = composer.compose(0, framebuffer);
+		assertEquals(true, buffer.isReady());
+		assertEquals(true, buffer.isPrimary());
+		assertEquals(1, sequence.count);
+		assertEquals(1, composer.recorded());
+		assertEquals(1, composer.size());
+	}
+
+	@DisplayName("A cached recording is reused for subsequent frames")
+	@Test
+	void cached() {
+		final Buffer buffer = composer.compose(0, framebuffer);
+		assertSame(buffer, composer.compose(0, framebuffer));
+		assertEquals(1, sequence.count);
+		assertEquals(1, composer.recorded());
+	}
+
+	@DisplayName("A recording is cached for each in-flight frame and framebuffer")
+	@Test
+	void keys() {
+		final Buffer buffer = composer.compose(0, framebuffer);
+		assertNotSame(buffer, composer.compose(1, framebuffer));
+		assertEquals(2, composer.recorded());
+	}
+
+	@DisplayName("The render sequence is re-recorded when its version changes")
+	@Test
+	void version() {
+		final Buffer buffer = composer.compose(0, framebuffer);
+		++sequence.version;
+		assertSame(buffer, composer.compose(0, framebuffer));
+		assertEquals(2, sequence.count);
+		assertEquals(2, composer.recorded());
+	}
+
+	@DisplayName("The cached recording for a destroyed framebuffer is released and the render sequence is re-recorded for the recreated framebuffer")
+	@Test
+	void recreate() {
+		final Buffer buffer = composer.compose(0, framebuffer);
+		framebuffer.destroy();
+		final Buffer next = composer.compose(0, new MockFramebuffer());
+		assertEquals(false, buffer.isReady());
+		assertNotSame(buffer, next);
+		assertEquals(1, composer.size());
+		assertEquals(2, composer.recorded());
+	}
+
+	@DisplayName("The render sequence is re-recorded when the cache is invalidated")
+	@Test
+	void invalidate() {
+		composer.compose(0, framebuffer);
+		composer.invalidate();
+		composer.compose(0, framebuffer);
+		assertEquals(2, composer.recorded());
+	}
+}
@@ -2,6 +2,8 @@ package org.sarge.jove.platform.vulkan.render;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Set;
+
 import org.junit.jupiter.api.*;
 import org.sarge.jove.platform.vulkan.VkSubpassContents;
 import org.sarge.jove.platform.vulkan.core.*;
@@ -44,6 +46,13 @@ class FrameComposerTest {
 		composer = new FrameComposer(pool, sequence);
 	}
 
+	@DisplayName("The command pool must support resettable command buffers")
+	@Test
+	void resettable() {
+		final var plain = new MockCommandPool(Set.of());
+		assertThrows(IllegalArgumentException.class, () -> new FrameComposer(plain, (_, _) -> { /* Empty */ }));
+	}
+
 	@Test
 	void compose() {
 		final Buffer buffer = composer.compose(1, framebuffer);
@@ -55,4 +64,19 @@ class FrameComposerTest {
 		assertEquals(true, framebuffer.begin);
 		assertEquals(true, framebuffer.end);
 	}
+
+	@DisplayName("The command buffer for an in-flight frame is reset and reused")
+	@Test
+	void reuse() {
+		final Buffer buffer = composer.compose(1, framebuffer);
+		assertSame(buffer, composer.compose(1, framebuffer));
+		assertEquals(true, buffer.isReady());
+	}
+
+	@DisplayName("Each in-flight frame has its own command buffer")
+	@Test
+	void frames() {
+		final var other = new FrameComposer(pool, (_, _) -> { /* Empty */ });
+		assertNotSame(other.compose(0, framebuffer), other.compose(1, framebuffer));
+	}
 }
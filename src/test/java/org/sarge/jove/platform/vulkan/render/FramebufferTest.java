@@ -96,4 +96,25 @@ class FramebufferTest {
 		assertEquals(1, mockery.mock("vkCreateFramebuffer").count());
 		assertNotNull(factory.get(0));
 	}
+
+	@DisplayName("The previous framebuffers can be retired when the factory is recreated")
+	@Test
+	void retire() {
+		final var pass = new MockRenderPass() {
+			@Override
+			public LogicalDevice device() {
+				return device;
+			}
+		};
+		final var factory = new Framebuffer.Factory(pass);
+		pass.attachments().forEach(attachment -> attachment.recreate(device, new Dimensions(640, 480)));
+		factory.recreate(new MockSwapchain());
+		final Framebuffer previous = factory.get(0);
+		final var retired = new DestructionQueue();
+		factory.recreate(new MockSwapchain(), retired);
+		assertEquals(2, mockery.mock("vkCreateFramebuffer").count());
+		assertNotSame(previous, factory.get(0));
+		assertEquals(1, retired.size());
+		assertFalse(previous.isDestroyed());
+	}
 }
@@ -0,0 +1,112 @@
+package org.sarge.jove.platform.vulkan.render;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.*;
+import org.sarge.jove.platform.vulkan.VkSubpassContents;
+import org.sarge.jove.platform.vulkan.core.*;
+import org.sarge.jove.platform.vulkan.core.Command.Buffer;
+
+class ParallelFrameComposerTest {
+	private static class ParallelFramebuffer extends MockFramebuffer {
+		@Override
+		public Command begin(VkSubpassContents contents) {
+			assertEquals(VkSubpassContents.SECONDARY_COMMAND_BUFFERS, contents);
+			return super.begin(contents);
+		}
+	}
+
+	private ParallelFrameComposer composer;
+	private MockCommandPool pool;
+	private Map<Integer, Buffer> recorded;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void before() {
+		// Init render sequence chunks
+		recorded = new ConcurrentHashMap<>();
+		final var chunks = new ArrayList<RenderSequence>();
+		for(int n = 0; n < 3; ++n) {
+			final int chunk = n;
+			chunks.add((index, buffer) -> {
+				assertEquals(1, index);
+				assertNull(recorded.put(chunk, buffer));
+			});
+		}
+
+		// Create composer
+		pool = new MockCommandPool();
+		executor = Executors.newFixedThreadPool(2);
+		composer = new ParallelFrameComposer(pool, List.of(new MockCommandPool(), new MockCommandPool()), chunks, executor);
+	}
+
+	@AfterEach
+	void after() {
+		executor.shutdown();
+	}
+
+	@DisplayName("The worker pools must support resettable command buffers")
+	@Test
+	void resettable() {
+		final var plain = new MockCommandPool(Set.of());
+		assertThrows(IllegalArgumentException.class, () -> new ParallelFrameComposer(pool, List.of(plain), List.of(), executor));
+	}
+
+	@DisplayName("The render sequence chunks are recorded to secondary buffers")
+	@Test
+	void compose() {
+		final Buffer buffer = composer.compose(1, new ParallelFramebuffer());
+		assertEquals(true, buffer.isReady());
+		assertEquals(true, buffer.isPrimary());
+		assertEquals(Set.of(0, 1, 2), recorded.keySet());
+		for(Buffer secondary : recorded.values()) {
+			assertEquals(false, secondary.isPrimary());
+			assertEquals(true, secondary.isReady());
+		}
+	}
+
+	@DisplayName("The secondary buffers for an in-flight frame are reset and reused")
+	@Test
+	void reuse() {
+		composer.compose(1, new ParallelFramebuffer());
+		final var prev = new HashMap<>(recorded);
+		recorded.clear();
+		composer.compose(1, new ParallelFramebuffer());
+		for(int n = 0; n < 3; ++n) {
+			assertSame(prev.get(n), recorded.get(n));
+		}
+	}
+
+	@DisplayName("An error recording a chunk is propagated to the composer")
+	@Test
+	void error() {
+		final RenderSequence chunk = (_, _) -> {
+			throw new IllegalStateException();
+		};
+		composer = new ParallelFrameComposer(pool, List.of(new MockCommandPool()), List.of(chunk), executor);
+		assertThrows(IllegalStateException.class, () -> composer.compose(1, new ParallelFramebuffer()));
+	}
+
+	@DisplayName("The composer requires at least one worker")
+	@Test
+	void empty() {
+		assertThrows(IllegalArgumentException.class, () -> new ParallelFrameComposer(pool, List.of(), List.of(), executor));
+	}
+
+	@DisplayName("A list of commands can be partitioned into render sequence chunks")
+	@Test
+	void partition() {
+		final List<MockCommand> commands = List.of(new MockCommand(), new MockCommand(), new MockCommand(), new MockCommand(), new MockCommand());
+		final List<RenderSequence> chunks = ParallelFrameComposer.partition(commands, 2);
+		assertEquals(2, chunks.size());
+
+		final Buffer buffer = new MockCommandBuffer().begin();
+		chunks.getFirst().build(0, buffer);
+		assertEquals(buffer, commands.get(0).buffer);
+		assertEquals(buffer, commands.get(2).buffer);
+		assertEquals(null, commands.get(3).buffer);
+	}
+}
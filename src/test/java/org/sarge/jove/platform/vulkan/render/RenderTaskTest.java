@@ -1,9 +1,15 @@
 package org.sarge.jove.platform.vulkan.render;
 
-import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.*;
 
 import org.junit.jupiter.api.*;
 import org.sarge.jove.common.Dimensions;
+import org.sarge.jove.platform.desktop.MockWindow;
+import org.sarge.jove.platform.desktop.Window.WindowResizeListener;
 import org.sarge.jove.platform.vulkan.core.*;
 import org.sarge.jove.platform.vulkan.core.Command.Buffer;
 import org.sarge.jove.platform.vulkan.image.View;
@@ -12,6 +18,9 @@ import org.sarge.jove.platform.vulkan.present.VulkanSurface.Properties;
 
 class RenderTaskTest {
 	private RenderTask task;
+	private SwapchainManager manager;
+	private FrameIterator iterator;
+	private List<MockFence> fences;
 
 	@BeforeEach
 	void before() {
@@ -24,7 +33,7 @@ class RenderTaskTest {
 			}
 		};
 
-		final var manager = new SwapchainManager(device, MockSurfaceProperties::new, builder, List.of());
+		manager = new SwapchainManager(device, MockSurfaceProperties::new, builder, List.of());
 
 		final var framebuffers = new Framebuffer.Factory(new MockRenderPass()) {
 			@Override
@@ -42,23 +51,78 @@ class RenderTaskTest {
 
 		final var composer = new FrameComposer(new MockCommandPool(), sequence);
 
-		final var iterator = new FrameIterator(device, 2) {
+		fences = new ArrayList<>();
+		iterator = new FrameIterator(device, 2) {
 			@Override
 			protected FrameState create(int index, LogicalDevice device) {
-				return new FrameState(index, new MockVulkanSemaphore(), new MockVulkanSemaphore(), new MockFence());
+				final var fence = new MockFence();
+				fences.add(fence);
+				return new FrameState(index, new MockVulkanSemaphore(), new MockVulkanSemaphore(), fence);
 			}
 		};
 
 		task = new RenderTask(manager, framebuffers, composer, iterator);
 	}
 
+	@DisplayName("Each frame blocks until the rendering work has completed")
 	@Test
 	void run() {
 		task.run();
+		assertEquals(2, fences.get(0).wait);
+		assertEquals(0, fences.get(1).wait);
 	}
 
+	@DisplayName("Pipelined frames only block when the in-flight frame is reused or the framebuffer is still in use")
 	@Test
-	void invalidated() {
+	void pipelined() {
+		task.pipelined(true);
+		task.run();
+		assertEquals(1, fences.get(0).wait);
+		task.run();
+		assertEquals(2, fences.get(0).wait);
+		assertEquals(1, fences.get(1).wait);
+	}
 
+	@DisplayName("An invalidated swapchain is recreated and the previous resources are retired against the current frame")
+	@Test
+	void invalidate() {
+		task.run();
+		final Swapchain previous = manager.swapchain();
+		task.invalidate();
+		task.run();
+		assertNotSame(previous, manager.swapchain());
+		assertEquals(false, previous.isDestroyed());
+		assertEquals(3, iterator.deferred());
+	}
+
+	@DisplayName("Recreation of an invalidated swapchain is suspended until the debounce interval has elapsed")
+	@Test
+	void debounce() {
+		task.debounce(Duration.ofDays(1));
+		final Swapchain previous = manager.swapchain();
+		task.invalidate();
+		task.run();
+		assertSame(previous, manager.swapchain());
+		assertEquals(0, fences.get(0).wait);
+	}
+
+	@DisplayName("The swapchain is invalidated when the window is resized")
+	@Test
+	void listen() {
+		final var window = new MockWindow() {
+			private WindowResizeListener listener;
+
+			@Override
+			public void resize(WindowResizeListener listener) {
+				this.listener = listener;
+			}
+		};
+		task.listen(window);
+		task.run();
+
+		final Swapchain previous = manager.swapchain();
+		window.listener.resize(MemorySegment.NULL, 640, 480);
+		task.run();
+		assertNotSame(previous, manager.swapchain());
 	}
 }
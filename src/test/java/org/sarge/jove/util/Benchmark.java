@@ -0,0 +1,57 @@
+package org.sarge.jove.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.function.Supplier;
+
+/**
+ * Helper for simple timing benchmarks.
+ * <p>
+ * Benchmarks are only enabled when the {@link #PROPERTY} system property is set, e.g. {@code mvn test -Djove.benchmark=true}.
+ * Results are reported by asserting the relative timings rather than being printed, see {@link #assertFaster(String, double, double)}.
+ * Note that the results are indicative only, i.e. there is no fork or statistical analysis as provided by a harness such as JMH.
+ * <p>
+ * @author Sarge
+ */
+public final class Benchmark {
+	/**
+	 * System property that enables benchmarks.
+	 */
+	public static final String PROPERTY = "jove.benchmark";
+
+	private static volatile Object sink;
+
+	private Benchmark() {
+	}
+
+	/**
+	 * Times the given task after an initial warmup.
+	 * @param iterations		Number of iterations
+	 * @param task				Task
+	 * @return Average time per iteration (ns)
+	 */
+	public static double time(int iterations, Supplier<?> task) {
+		// Warmup
+		for(int n = 0; n < iterations; ++n) {
+			sink = task.get();
+		}
+
+		// Time task
+		final long start = System.nanoTime();
+		for(int n = 0; n < iterations; ++n) {
+			sink = task.get();
+		}
+		return (System.nanoTime() - start) / (double) iterations;
+	}
+
+	/**
+	 * Asserts that an optimised implementation is faster than the baseline.
+	 * @param name			Benchmark name
+	 * @param before		Baseline time (ns)
+	 * @param after			Optimised time (ns)
+	 * @throws AssertionError if the optimised implementation is not faster
+	 */
+	public static void assertFaster(String name, double before, double after) {
+		assertEquals(true, after < before, () -> String.format("%s: expected speedup: before=%.1f after=%.1f ns/op", name, before, after));
+	}
+}
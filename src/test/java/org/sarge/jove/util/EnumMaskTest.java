@@ -1,12 +1,15 @@
 package org.sarge.jove.util;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static java.util.stream.Collectors.toSet;
 import static org.sarge.jove.util.MockEnum.*;
 
 import java.lang.foreign.ValueLayout;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.sarge.jove.util.EnumMask.EnumMaskTransformer;
 import org.sarge.jove.util.IntEnum.ReverseMapping;
 
@@ -36,6 +39,21 @@ class EnumMaskTest {
 		assertEquals(0b011, new EnumMask<>(A, B).bits());
 	}
 
+	@DisplayName("A set of enumeration constants can be reduced to a bitfield")
+	@Test
+	void set() {
+		assertEquals(0, 	new EnumMask<>(EnumSet.noneOf(MockEnum.class)).bits());
+		assertEquals(0b101, new EnumMask<>(EnumSet.of(A, C)).bits());
+		assertEquals(0b011, new EnumMask<>(List.of(A, B)).bits());
+	}
+
+	@DisplayName("Duplicate constants are ignored when reducing to a bitfield")
+	@Test
+	void duplicates() {
+		assertEquals(0b001, new EnumMask<>(A, A).bits());
+		assertEquals(0b001, EnumMask.reduce(List.of(A, A)));
+	}
+
 	@DisplayName("A bitfield can be converted to the corresponding set of constants")
 	@Test
 	void enumerate() {
@@ -43,6 +61,14 @@ class EnumMaskTest {
 		assertEquals(Set.of(A), new EnumMask<MockEnum>(0b001).enumerate(mapping));
 		assertEquals(Set.of(B), new EnumMask<MockEnum>(0b010).enumerate(mapping));
 		assertEquals(Set.of(A, B), new EnumMask<MockEnum>(0b011).enumerate(mapping));
+		assertEquals(EnumSet.allOf(MockEnum.class), new EnumMask<MockEnum>(0b111).enumerate(mapping));
+	}
+
+	@DisplayName("Bits that do not correspond to an enumeration constant are ignored")
+	@Test
+	void unknown() {
+		assertEquals(Set.of(A), new EnumMask<MockEnum>(0b1001).enumerate(mapping));
+		assertEquals(Set.of(C), new EnumMask<MockEnum>(0x80000004).enumerate(mapping));
 	}
 
 	@Test
@@ -88,4 +114,33 @@ class EnumMaskTest {
 			assertThrows(UnsupportedOperationException.class, () -> transformer.update());
 		}
 	}
+
+	@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+	@Nested
+	class BenchmarkTests {
+		private static final int ITERATIONS = 10_000_000;
+
+		@DisplayName("Benchmark reducing constants to a mask against the previous stream implementation")
+		@Test
+		void reduce() {
+			final MockEnum[] values = {A, B, C};
+			final double before = Benchmark.time(ITERATIONS, () -> Set.of(values).stream().mapToInt(IntEnum::value).sum());
+			final double after = Benchmark.time(ITERATIONS, () -> new EnumMask<>(values));
+			Benchmark.assertFaster("reduce", before, after);
+		}
+
+		@DisplayName("Benchmark enumerating a mask against the previous stream implementation")
+		@Test
+		void enumerate() {
+			final int bits = new EnumMask<>(A, B, C).bits();
+			final double before = Benchmark.time(ITERATIONS, () -> IntStream
+					.range(0, Integer.SIZE - Integer.numberOfLeadingZeros(bits))
+					.map(n -> 1 << n)
+					.filter(n -> (bits & n) == n)
+					.mapToObj(mapping::map)
+					.collect(toSet()));
+			final double after = Benchmark.time(ITERATIONS, () -> new EnumMask<MockEnum>(bits).enumerate(mapping));
+			Benchmark.assertFaster("enumerate", before, after);
+		}
+	}
 }
@@ -2,11 +2,18 @@ package org.sarge.jove.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import static java.util.stream.Collectors.toMap;
+
 import java.lang.foreign.Arena;
+import java.util.*;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.sarge.jove.foreign.Transformer;
+import org.sarge.jove.platform.vulkan.*;
 import org.sarge.jove.util.IntEnum.*;
+import org.sarge.jove.util.IntEnum.ReverseMapping.Tables;
 
 class IntEnumTest {
 	@Nested
@@ -39,6 +46,132 @@ class IntEnumTest {
     	void defaultValue() {
     		assertEquals(MockEnum.A, mapping.defaultValue());
     	}
+
+    	@DisplayName("The reverse mapping for an enumeration is cached")
+    	@Test
+    	void cache() {
+    		assertSame(mapping, ReverseMapping.mapping(MockEnum.class));
+    		assertEquals(MockEnum.class, mapping.type());
+    	}
+
+    	@DisplayName("A single-bit constant can be mapped from its bit index")
+    	@Test
+    	void bit() {
+    		assertEquals(MockEnum.A, mapping.bit(0));
+    		assertEquals(MockEnum.B, mapping.bit(1));
+    		assertEquals(MockEnum.C, mapping.bit(2));
+    		assertEquals(null, mapping.bit(3));
+    	}
+	}
+
+	@DisplayName("An enumeration with sparse values...")
+	@Nested
+	class SparseTests {
+		private enum SparseEnum implements IntEnum {
+			ZERO(0),
+			NEGATIVE(-3),
+			EXTENSION(1000156000),
+			HIGH(1 << 30),
+			SYNONYM(1000156000);
+
+			private final int value;
+
+			private SparseEnum(int value) {
+				this.value = value;
+			}
+
+			@Override
+			public int value() {
+				return value;
+			}
+		}
+
+		private ReverseMapping<SparseEnum> mapping;
+
+		@BeforeEach
+		void before() {
+			mapping = ReverseMapping.mapping(SparseEnum.class);
+		}
+
+		@DisplayName("can map values outside of the dense lookup table")
+		@Test
+		void map() {
+			assertEquals(SparseEnum.ZERO, mapping.map(0));
+			assertEquals(SparseEnum.NEGATIVE, mapping.map(-3));
+			assertEquals(SparseEnum.EXTENSION, mapping.map(1000156000));
+			assertEquals(SparseEnum.HIGH, mapping.map(1 << 30));
+			assertEquals(SparseEnum.HIGH, mapping.bit(30));
+		}
+
+		@DisplayName("ignores synonyms")
+		@Test
+		void synonym() {
+			assertEquals(SparseEnum.EXTENSION, mapping.map(SparseEnum.SYNONYM.value()));
+		}
+
+		@DisplayName("maps an unknown value to the default constant")
+		@Test
+		void unknown() {
+			assertEquals(SparseEnum.ZERO, mapping.defaultValue());
+			assertEquals(SparseEnum.ZERO, mapping.map(42));
+			assertEquals(SparseEnum.ZERO, mapping.map(1 << 29));
+		}
+	}
+
+	@DisplayName("A code-generated enumeration...")
+	@Nested
+	class GeneratedTests {
+		private enum GeneratedEnum implements IntEnum {
+			ONE(1),
+			TWO(2),
+			EXTENSION(1000156000);
+
+			public static final Tables<GeneratedEnum> TABLES = new Tables<>(
+				new GeneratedEnum[] {null, ONE, TWO},
+				new GeneratedEnum[] {ONE, TWO, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null},
+				new int[] {1000156000},
+				new GeneratedEnum[] {EXTENSION}
+			);
+
+			private final int value;
+
+			private GeneratedEnum(int value) {
+				this.value = value;
+			}
+
+			@Override
+			public int value() {
+				return value;
+			}
+		}
+
+		@DisplayName("uses the declared lookup tables")
+		@Test
+		void map() {
+			final ReverseMapping<GeneratedEnum> mapping = ReverseMapping.mapping(GeneratedEnum.class);
+			assertEquals(GeneratedEnum.ONE, mapping.map(1));
+			assertEquals(GeneratedEnum.TWO, mapping.map(2));
+			assertEquals(GeneratedEnum.EXTENSION, mapping.map(1000156000));
+			assertEquals(GeneratedEnum.TWO, mapping.bit(1));
+			assertEquals(GeneratedEnum.ONE, mapping.defaultValue());
+		}
+
+		@DisplayName("declares lookup tables equivalent to those built at runtime")
+		@Test
+		void build() {
+			final Tables<GeneratedEnum> tables = Tables.build(GeneratedEnum.class);
+			assertArrayEquals(GeneratedEnum.TABLES.dense(), tables.dense());
+			assertArrayEquals(GeneratedEnum.TABLES.bits(), tables.bits());
+			assertArrayEquals(GeneratedEnum.TABLES.keys(), tables.keys());
+			assertArrayEquals(GeneratedEnum.TABLES.sparse(), tables.sparse());
+		}
+
+		@DisplayName("must declare an entry for every bit position")
+		@Test
+		void invalid() {
+			assertThrows(IllegalArgumentException.class, () -> new Tables<>(new MockEnum[0], new MockEnum[1], new int[0], new MockEnum[0]));
+			assertThrows(IllegalArgumentException.class, () -> new Tables<>(new MockEnum[0], new MockEnum[Integer.SIZE], new int[1], new MockEnum[0]));
+		}
 	}
 
 	@Nested
@@ -86,4 +219,37 @@ class IntEnumTest {
 			assertArrayEquals(array, result);
 		}
 	}
+
+	@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+	@Nested
+	class BenchmarkTests {
+		private static final int ITERATIONS = 10_000_000;
+
+		/**
+		 * Asserts that the lookup tables are faster than the previous boxed map implementation.
+		 */
+		private static <E extends IntEnum> void benchmark(Class<E> type) {
+			final E[] constants = type.getEnumConstants();
+			final int[] values = Arrays.stream(constants).mapToInt(IntEnum::value).toArray();
+			final Map<Integer, E> map = Arrays.stream(constants).collect(toMap(IntEnum::value, Function.identity(), (value, _) -> value));
+			final ReverseMapping<E> mapping = ReverseMapping.mapping(type);
+			final int[] index = {0};
+
+			final double before = Benchmark.time(ITERATIONS, () -> map.get(values[index[0]++ % values.length]));
+			final double after = Benchmark.time(ITERATIONS, () -> mapping.map(values[index[0]++ % values.length]));
+			Benchmark.assertFaster(type.getSimpleName(), before, after);
+		}
+
+		@DisplayName("Benchmark mapping a dense enumeration")
+		@Test
+		void dense() {
+			benchmark(VkFormat.class);
+		}
+
+		@DisplayName("Benchmark mapping a sparse enumeration")
+		@Test
+		void sparse() {
+			benchmark(VkResult.class);
+		}
+	}
 }
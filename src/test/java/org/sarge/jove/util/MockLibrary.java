@@ -1,10 +1,10 @@
 package org.sarge.jove.util;
 
-import java.lang.foreign.MemorySegment;
+import java.lang.foreign.*;
 import java.util.Arrays;
 
 import org.sarge.jove.common.Handle;
-import org.sarge.jove.foreign.Pointer;
+import org.sarge.jove.foreign.*;
 import org.sarge.jove.platform.vulkan.VkResult;
 
 /**
@@ -46,4 +46,18 @@ public abstract class MockLibrary {
 		}
 		Arrays.fill(array, instance);
 	}
+
+	/**
+	 * Initialises a by-reference structure array, i.e. binds the array to zeroed off-heap memory.
+	 * Ignored if the array is {@code null}.
+	 * @param array Structure array
+	 * @return Off-heap memory or {@code null} if the array is {@code null}
+	 */
+	protected MemorySegment init(StructureArray<?> array) {
+		if(array == null) {
+			return null;
+		}
+		final var transformer = new StructureArrayTransformer(DefaultRegistry.create());
+		return transformer.marshal(array, Arena.ofAuto());
+	}
 }